@@ -1,11 +1,12 @@
 package com.kenect.api_aggregator;
 
+import com.kenect.api_aggregator.config.NativeRuntimeHints;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
-import org.springframework.retry.annotation.EnableRetry;
+import org.springframework.context.annotation.ImportRuntimeHints;
 
 @SpringBootApplication
-@EnableRetry
+@ImportRuntimeHints(NativeRuntimeHints.class)
 public class ApiAggregatorApplication {
 
 	public static void main(String[] args) {
@@ -4,16 +4,23 @@ import com.kenect.api_aggregator.dto.ExternalContactDto;
 import com.kenect.api_aggregator.dto.ExternalContactResponse;
 import com.kenect.api_aggregator.dto.PaginationMetadata;
 import com.kenect.api_aggregator.exception.ExternalApiException;
+import com.kenect.api_aggregator.resilience.AdaptiveConcurrencyLimiter;
+import com.kenect.api_aggregator.resilience.CallPriority;
+import com.kenect.api_aggregator.resilience.CircuitBreaker;
+import com.kenect.api_aggregator.resilience.Deadline;
+import com.kenect.api_aggregator.resilience.EndpointRouter;
+import com.kenect.api_aggregator.resilience.HedgingPolicy;
+import com.kenect.api_aggregator.resilience.UpstreamRatePacer;
+import com.kenect.api_aggregator.resilience.UpstreamRetryPolicy;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpHeaders;
-import org.springframework.retry.annotation.Backoff;
-import org.springframework.retry.annotation.Recover;
-import org.springframework.retry.annotation.Retryable;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Mono;
 
 import java.util.List;
 import java.util.regex.Matcher;
@@ -28,59 +35,102 @@ public class KenectLabsApiClient {
     private static final Pattern LINK_PATTERN = Pattern.compile("<([^>]+)>;\\s*rel=\"([^\"]+)\"");
 
     private final WebClient webClient;
-
-    public KenectLabsApiClient(@Qualifier("kenectApiWebClient") WebClient webClient) {
+    private final UpstreamRetryPolicy retryPolicy;
+    private final CircuitBreaker circuitBreaker;
+    private final HedgingPolicy hedgingPolicy;
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+    private final UpstreamRatePacer ratePacer;
+    private final EndpointRouter endpointRouter;
+
+    public KenectLabsApiClient(@Qualifier("kenectApiWebClient") WebClient webClient,
+                               UpstreamRetryPolicy retryPolicy,
+                               CircuitBreaker circuitBreaker,
+                               HedgingPolicy hedgingPolicy,
+                               AdaptiveConcurrencyLimiter concurrencyLimiter,
+                               UpstreamRatePacer ratePacer,
+                               EndpointRouter endpointRouter) {
         this.webClient = webClient;
+        this.retryPolicy = retryPolicy;
+        this.circuitBreaker = circuitBreaker;
+        this.hedgingPolicy = hedgingPolicy;
+        this.concurrencyLimiter = concurrencyLimiter;
+        this.ratePacer = ratePacer;
+        this.endpointRouter = endpointRouter;
     }
 
-    @Retryable(
-            retryFor = {WebClientResponseException.class, ExternalApiException.class},
-            maxAttempts = 3,
-            backoff = @Backoff(delay = 1000, multiplier = 2.0, maxDelay = 5000)
-    )
     public ExternalContactResponse fetchContactsPage(int page) {
-        log.debug("Fetching contacts page: {} (with retry support)", page);
-
-        try {
-            var response = webClient.get()
-                    .uri(uriBuilder -> uriBuilder
-                            .path(CONTACTS_ENDPOINT)
-                            .queryParam(PAGE_PARAM, page)
-                            .build())
-                    .exchangeToMono(clientResponse -> {
-                        HttpHeaders headers = clientResponse.headers().asHttpHeaders();
-                        PaginationMetadata pagination = parsePaginationHeaders(headers);
-
-                        return clientResponse.bodyToMono(new ParameterizedTypeReference<List<ExternalContactDto>>() {})
-                                .map(contacts -> ExternalContactResponse.builder()
-                                        .contacts(contacts)
-                                        .pagination(pagination)
-                                        .build());
-                    })
-                    .block();
-
-            log.debug("Successfully fetched page {}: {} contacts", page,
-                    response != null && response.getContacts() != null ? response.getContacts().size() : 0);
-
-            return response;
-
-        } catch (WebClientResponseException ex) {
-            log.error("API request failed with status {}: {}", ex.getStatusCode(), ex.getMessage());
-            throw new ExternalApiException(
-                    "Failed to fetch contacts from external API. Status: " + ex.getStatusCode(),
+        return fetchContactsPage(page, CallPriority.INTERACTIVE);
+    }
+
+    public ExternalContactResponse fetchContactsPage(int page, CallPriority priority) {
+        Deadline deadline = Deadline.current();
+        Mono<ExternalContactResponse> call = fetchContactsPageAsync(page, priority);
+        return (deadline != null ? call.contextWrite(deadline::writeTo) : call).block();
+    }
+
+    public Mono<ExternalContactResponse> fetchContactsPageAsync(int page) {
+        return fetchContactsPageAsync(page, CallPriority.INTERACTIVE);
+    }
+
+    public Mono<ExternalContactResponse> fetchContactsPageAsync(int page, CallPriority priority) {
+        log.debug("Fetching contacts page: {} (with retry support, priority {})", page, priority);
+
+        // The hedging latency tracker and the circuit breaker's slow-call timer wrap only the request, so
+        // time spent queued for a concurrency permit or a rate token never counts as upstream latency.
+        return requestPage(page)
+                .transform(call -> hedgingPolicy.apply(call, hedge -> admit(hedge, priority)))
+                .transform(circuitBreaker::protect)
+                .transform(call -> admit(call, priority))
+                .transform(retryPolicy::apply)
+                .transform(call -> Deadline.enforce(call, "fetching contacts page " + page))
+                .doOnNext(response -> log.debug("Successfully fetched page {}: {} contacts", page,
+                        response.getContacts() != null ? response.getContacts().size() : 0))
+                .onErrorMap(ex -> !(ex instanceof ExternalApiException), ex -> toExternalApiException(ex, page));
+    }
+
+    private <T> Mono<T> admit(Mono<T> call, CallPriority priority) {
+        return ratePacer.pace(concurrencyLimiter.limit(call, priority));
+    }
+
+    private Mono<ExternalContactResponse> requestPage(int page) {
+        return endpointRouter.route(baseUrl -> webClient.get()
+                .uri(UriComponentsBuilder.fromUriString(baseUrl)
+                        .path(CONTACTS_ENDPOINT)
+                        .queryParam(PAGE_PARAM, page)
+                        .build()
+                        .toUri())
+                .exchangeToMono(clientResponse -> {
+                    ratePacer.onResponse(clientResponse.statusCode().value(), clientResponse.headers().asHttpHeaders());
+                    if (clientResponse.statusCode().isError()) {
+                        return clientResponse.createError();
+                    }
+
+                    HttpHeaders headers = clientResponse.headers().asHttpHeaders();
+                    PaginationMetadata pagination = parsePaginationHeaders(headers);
+
+                    return clientResponse.bodyToMono(new ParameterizedTypeReference<List<ExternalContactDto>>() {})
+                            .defaultIfEmpty(List.of())
+                            .map(contacts -> ExternalContactResponse.builder()
+                                    .contacts(contacts)
+                                    .pagination(pagination)
+                                    .build());
+                }));
+    }
+
+    private ExternalApiException toExternalApiException(Throwable ex, int page) {
+        if (ex instanceof WebClientResponseException responseException) {
+            log.error("API request for page {} failed with status {}: {}",
+                    page, responseException.getStatusCode(), responseException.getMessage());
+            return new ExternalApiException(
+                    "Failed to fetch contacts from external API for page " + page
+                            + ". Status: " + responseException.getStatusCode(),
                     ex
             );
-        } catch (Exception ex) {
-            log.error("Unexpected error while fetching contacts: {}", ex.getMessage(), ex);
-            throw new ExternalApiException("Unexpected error while communicating with external API", ex);
         }
-    }
 
-    @Recover
-    public ExternalContactResponse recoverFromApiFailure(Exception ex, int page) {
-        log.error("All retry attempts exhausted for page {}. Failing gracefully.", page, ex);
-        throw new ExternalApiException(
-                "Failed to fetch contacts after multiple retry attempts for page " + page,
+        log.error("Unexpected error while fetching contacts page {}: {}", page, ex.getMessage(), ex);
+        return new ExternalApiException(
+                "Unexpected error while communicating with external API for page " + page,
                 ex
         );
     }
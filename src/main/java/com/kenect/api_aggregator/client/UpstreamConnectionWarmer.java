@@ -0,0 +1,71 @@
+package com.kenect.api_aggregator.client;
+
+import com.kenect.api_aggregator.resilience.EndpointRouter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "kenect.api.warmup.enabled", havingValue = "true", matchIfMissing = true)
+public class UpstreamConnectionWarmer {
+
+    private final HttpClient httpClient;
+    private final WebClient webClient;
+    private final EndpointRouter endpointRouter;
+    private final int connections;
+    private final Duration timeout;
+
+    public UpstreamConnectionWarmer(HttpClient kenectApiHttpClient,
+                                    @Qualifier("kenectApiWebClient") WebClient webClient,
+                                    EndpointRouter kenectApiEndpointRouter,
+                                    @Value("${kenect.api.warmup.connections:4}") int connections,
+                                    @Value("${kenect.api.warmup.timeout:10000}") long timeoutMillis) {
+        this.httpClient = kenectApiHttpClient;
+        this.webClient = webClient;
+        this.endpointRouter = kenectApiEndpointRouter;
+        this.connections = connections;
+        this.timeout = Duration.ofMillis(timeoutMillis);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        long startTime = System.currentTimeMillis();
+        List<EndpointRouter.Endpoint> endpoints = endpointRouter.getEndpoints();
+        int total = connections * endpoints.size();
+
+        httpClient.warmup()
+                .thenMany(Flux.fromIterable(endpoints)
+                        .flatMap(endpoint -> Flux.range(0, connections)
+                                .flatMap(i -> openConnection(endpoint.getBaseUrl()), connections)))
+                .filter(Boolean::booleanValue)
+                .count()
+                .subscribe(
+                        opened -> log.info("Warmed up {}/{} upstream connections in {} ms",
+                                opened, total, System.currentTimeMillis() - startTime),
+                        ex -> log.warn("Upstream connection warm-up failed: {}", ex.getMessage()));
+    }
+
+    private Mono<Boolean> openConnection(String baseUrl) {
+        return webClient.head()
+                .uri(URI.create(baseUrl))
+                .exchangeToMono(response -> response.releaseBody().thenReturn(true))
+                .timeout(timeout)
+                .onErrorResume(ex -> {
+                    log.debug("Warm-up connection attempt failed: {}", ex.getMessage());
+                    return Mono.just(false);
+                });
+    }
+}
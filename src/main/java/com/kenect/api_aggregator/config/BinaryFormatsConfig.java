@@ -0,0 +1,54 @@
+package com.kenect.api_aggregator.config;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.kenect.api_aggregator.model.Contact;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.time.Instant;
+import java.util.List;
+
+@Configuration
+public class BinaryFormatsConfig implements WebMvcConfigurer {
+
+    public static final String SMILE_VALUE = "application/x-jackson-smile";
+    public static final String CBOR_VALUE = MediaType.APPLICATION_CBOR_VALUE;
+    public static final String PROTOBUF_VALUE = "application/x-protobuf";
+
+    public static final List<MediaType> BINARY_MEDIA_TYPES = List.of(
+            MediaType.parseMediaType(SMILE_VALUE),
+            MediaType.parseMediaType(CBOR_VALUE),
+            MediaType.parseMediaType(PROTOBUF_VALUE));
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.removeIf(converter -> converter instanceof MappingJackson2SmileHttpMessageConverter
+                || converter instanceof MappingJackson2CborHttpMessageConverter);
+
+        converters.add(new MappingJackson2SmileHttpMessageConverter(epochTimestamps(Jackson2ObjectMapperBuilder.smile()).build()));
+        converters.add(new MappingJackson2CborHttpMessageConverter(epochTimestamps(Jackson2ObjectMapperBuilder.cbor()).build()));
+        converters.add(new ContactProtobufHttpMessageConverter());
+    }
+
+    static Jackson2ObjectMapperBuilder epochTimestamps(Jackson2ObjectMapperBuilder builder) {
+        return builder
+                .mixIn(Contact.class, EpochTimestamps.class)
+                .featuresToEnable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .featuresToDisable(SerializationFeature.WRITE_DATE_TIMESTAMPS_AS_NANOSECONDS);
+    }
+
+    abstract static class EpochTimestamps {
+
+        @JsonFormat(shape = JsonFormat.Shape.NUMBER)
+        private Instant createdAt;
+
+        @JsonFormat(shape = JsonFormat.Shape.NUMBER)
+        private Instant updatedAt;
+    }
+}
@@ -1,6 +1,7 @@
 package com.kenect.api_aggregator.config;
 
 import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
@@ -8,8 +9,13 @@ import org.springframework.cache.caffeine.CaffeineCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
-import java.util.concurrent.TimeUnit;
+import java.time.Duration;
+import java.util.List;
 
+/**
+ * Single source of cache configuration. Both caches are bounded by the estimated retained size of their
+ * entries rather than by entry count, each within its share of the {@link CacheMemoryBudget}.
+ */
 @Configuration
 @EnableCaching
 @ConditionalOnProperty(name = "cache.enabled", havingValue = "true", matchIfMissing = true)
@@ -17,17 +23,27 @@ public class CacheConfig {
 
     public static final String CONTACTS_CACHE = "contacts";
 
+    public static final String CONTACT_QUERIES_CACHE = "contactQueries";
+
+    public static final List<String> CACHE_NAMES = List.of(CONTACTS_CACHE);
+
     @Bean
-    public CacheManager cacheManager() {
-        CaffeineCacheManager cacheManager = new CaffeineCacheManager(CONTACTS_CACHE);
-        cacheManager.setCaffeine(caffeineCacheBuilder());
+    public CacheManager cacheManager(@Value("${cache.expire-after-write:5m}") Duration expireAfterWrite,
+                                     CacheMemoryBudget memoryBudget) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.setCaffeine(caffeineCacheBuilder(expireAfterWrite, memoryBudget.snapshotBytes()));
+        cacheManager.setAsyncCacheMode(true);
+        cacheManager.setCacheNames(CACHE_NAMES);
+        cacheManager.registerCustomCache(CONTACT_QUERIES_CACHE,
+                caffeineCacheBuilder(expireAfterWrite, memoryBudget.queryResultBytes()).buildAsync());
         return cacheManager;
     }
 
-    private Caffeine<Object, Object> caffeineCacheBuilder() {
+    private Caffeine<Object, Object> caffeineCacheBuilder(Duration expireAfterWrite, long maxBytes) {
         return Caffeine.newBuilder()
-                .maximumSize(100)
-                .expireAfterWrite(5, TimeUnit.MINUTES)
+                .maximumWeight(maxBytes)
+                .weigher(new RetainedSizeWeigher())
+                .expireAfterWrite(expireAfterWrite)
                 .recordStats();
     }
 }
@@ -0,0 +1,55 @@
+package com.kenect.api_aggregator.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Splits the single {@code cache.max-memory} budget between everything that caching keeps on the heap:
+ * the contacts snapshot, the query-result cache and the change feed history. Each part is weighed in
+ * bytes with {@link RetainedSizeWeigher}. The snapshot gets whatever the other two shares leave.
+ */
+@Component
+public class CacheMemoryBudget {
+
+    static final double DEFAULT_QUERY_RESULT_SHARE = 0.2;
+    static final double DEFAULT_CHANGE_HISTORY_SHARE = 0.1;
+
+    private final long totalBytes;
+    private final long queryResultBytes;
+    private final long changeHistoryBytes;
+
+    @Autowired
+    public CacheMemoryBudget(@Value("${cache.max-memory:64MB}") DataSize maxMemory,
+                             @Value("${cache.query-results.memory-share:0.2}") double queryResultShare,
+                             @Value("${cache.change-history.memory-share:0.1}") double changeHistoryShare) {
+        if (queryResultShare < 0 || changeHistoryShare < 0 || queryResultShare + changeHistoryShare >= 1) {
+            throw new IllegalArgumentException("Cache memory shares must be non-negative and leave room for the snapshot, got "
+                    + queryResultShare + " for query results and " + changeHistoryShare + " for change history");
+        }
+        this.totalBytes = maxMemory.toBytes();
+        this.queryResultBytes = (long) (totalBytes * queryResultShare);
+        this.changeHistoryBytes = (long) (totalBytes * changeHistoryShare);
+    }
+
+    public static CacheMemoryBudget of(DataSize maxMemory) {
+        return new CacheMemoryBudget(maxMemory, DEFAULT_QUERY_RESULT_SHARE, DEFAULT_CHANGE_HISTORY_SHARE);
+    }
+
+    public long totalBytes() {
+        return totalBytes;
+    }
+
+    public long snapshotBytes() {
+        return totalBytes - queryResultBytes - changeHistoryBytes;
+    }
+
+    public long queryResultBytes() {
+        return queryResultBytes;
+    }
+
+    public long changeHistoryBytes() {
+        return changeHistoryBytes;
+    }
+}
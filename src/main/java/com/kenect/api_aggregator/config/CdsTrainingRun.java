@@ -0,0 +1,125 @@
+package com.kenect.api_aggregator.config;
+
+import com.kenect.api_aggregator.ApiAggregatorApplication;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Training run for the class-data-sharing archive: once the app is ready it calls its own main
+ * endpoints and exits, so an archive recorded with {@code -XX:ArchiveClassesAtExit} also covers the
+ * request path and not only context startup. {@link #main} points the app at a canned in-process upstream,
+ * so building the archive needs neither network access nor upstream credentials.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "cds.training.enabled", havingValue = "true")
+public class CdsTrainingRun {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(60);
+    private static final int UPSTREAM_PAGES = 3;
+    private static final int UPSTREAM_PAGE_SIZE = 20;
+
+    private static final List<TrainingRequest> REQUESTS = List.of(
+            new TrainingRequest("/health", MediaType.APPLICATION_JSON),
+            new TrainingRequest("/contacts", MediaType.APPLICATION_JSON),
+            new TrainingRequest("/contacts?page=1&size=20", MediaType.APPLICATION_JSON),
+            new TrainingRequest("/contacts?page=1&size=20", MediaType.valueOf(BinaryFormatsConfig.PROTOBUF_VALUE)),
+            new TrainingRequest("/contacts?page=1&size=20", MediaType.valueOf(BinaryFormatsConfig.SMILE_VALUE)),
+            new TrainingRequest("/contacts?page=0", MediaType.APPLICATION_JSON),
+            new TrainingRequest("/contacts/sync", MediaType.APPLICATION_JSON),
+            new TrainingRequest("/actuator/health", MediaType.APPLICATION_JSON));
+
+    public static void main(String[] args) throws IOException {
+        HttpServer upstream = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        upstream.createContext("/", CdsTrainingRun::serveUpstreamPage);
+        upstream.start();
+
+        List<String> trainingArgs = new ArrayList<>(List.of(args));
+        trainingArgs.add("--cds.training.enabled=true");
+        trainingArgs.add("--kenect.api.base-url=http://localhost:" + upstream.getAddress().getPort());
+        trainingArgs.add("--kenect.api.base-urls=");
+        trainingArgs.add("--kenect.api.bearer-token=cds-training");
+        SpringApplication.run(ApiAggregatorApplication.class, trainingArgs.toArray(String[]::new));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void train(ApplicationReadyEvent event) {
+        int port = ((WebServerApplicationContext) event.getApplicationContext()).getWebServer().getPort();
+        WebClient client = WebClient.create("http://localhost:" + port);
+
+        for (TrainingRequest request : REQUESTS) {
+            try {
+                HttpStatusCode status = client.get()
+                        .uri(request.path())
+                        .accept(request.accept(), MediaType.APPLICATION_JSON)
+                        .exchangeToMono(response -> response.releaseBody().thenReturn(response.statusCode()))
+                        .block(REQUEST_TIMEOUT);
+                log.info("CDS training request {} ({}) returned {}", request.path(), request.accept(), status);
+            } catch (RuntimeException ex) {
+                log.warn("CDS training request {} failed: {}", request.path(), ex.getMessage());
+            }
+        }
+
+        log.info("CDS training run complete. Exiting.");
+        System.exit(SpringApplication.exit(event.getApplicationContext()));
+    }
+
+    private static void serveUpstreamPage(HttpExchange exchange) throws IOException {
+        int page = pageOf(exchange.getRequestURI());
+        String contacts = IntStream.rangeClosed(1, UPSTREAM_PAGE_SIZE)
+                .map(i -> (page - 1) * UPSTREAM_PAGE_SIZE + i)
+                .mapToObj(id -> "{\"id\":" + id + ",\"name\":\"Contact " + id + "\",\"email\":\"contact" + id
+                        + "@example.net\",\"created_at\":\"2020-06-24T19:37:16.688Z\",\"updated_at\":\"2020-06-24T19:37:16.688Z\"}")
+                .collect(Collectors.joining(",", "[", "]"));
+        byte[] body = contacts.getBytes(StandardCharsets.UTF_8);
+
+        exchange.getResponseHeaders().set("Content-Type", MediaType.APPLICATION_JSON_VALUE);
+        exchange.getResponseHeaders().set("Current-Page", String.valueOf(page));
+        exchange.getResponseHeaders().set("Page-Items", String.valueOf(UPSTREAM_PAGE_SIZE));
+        exchange.getResponseHeaders().set("Total-Pages", String.valueOf(UPSTREAM_PAGES));
+        exchange.getResponseHeaders().set("Total-Count", String.valueOf(UPSTREAM_PAGES * UPSTREAM_PAGE_SIZE));
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static int pageOf(URI uri) {
+        String query = uri.getQuery() != null ? uri.getQuery() : "";
+        for (String param : query.split("&")) {
+            if (param.startsWith("page=")) {
+                try {
+                    return Math.max(1, Math.min(UPSTREAM_PAGES, Integer.parseInt(param.substring(5))));
+                } catch (NumberFormatException ex) {
+                    return 1;
+                }
+            }
+        }
+        return 1;
+    }
+
+    private record TrainingRequest(String path, MediaType accept) {
+    }
+}
@@ -0,0 +1,83 @@
+package com.kenect.api_aggregator.config;
+
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.dataformat.protobuf.ProtobufMapper;
+import com.fasterxml.jackson.dataformat.protobuf.schema.ProtobufSchema;
+import com.kenect.api_aggregator.dto.PaginatedResponse;
+import com.kenect.api_aggregator.model.Contact;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+/**
+ * Writes contacts in the protobuf encoding described by {@code /schema/contacts.proto}.
+ */
+public class ContactProtobufHttpMessageConverter extends AbstractHttpMessageConverter<Object> {
+
+    static final String SCHEMA_LOCATION = "static/schema/contacts.proto";
+
+    private final ObjectWriter contactWriter;
+    private final ObjectWriter contactListWriter;
+    private final ObjectWriter contactPageWriter;
+
+    public ContactProtobufHttpMessageConverter() {
+        super(MediaType.parseMediaType(BinaryFormatsConfig.PROTOBUF_VALUE));
+
+        ProtobufMapper mapper = new ProtobufMapper();
+        BinaryFormatsConfig.epochTimestamps(new Jackson2ObjectMapperBuilder())
+                .propertyNamingStrategy(PropertyNamingStrategies.SNAKE_CASE)
+                .configure(mapper);
+        this.contactWriter = mapper.writer(loadSchema(mapper, "Contact"));
+        this.contactListWriter = mapper.writer(loadSchema(mapper, "ContactList"));
+        this.contactPageWriter = mapper.writer(loadSchema(mapper, "ContactPage"));
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return Contact.class.isAssignableFrom(clazz)
+                || PaginatedResponse.class.isAssignableFrom(clazz)
+                || List.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Reading protobuf is not supported", inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(Object body, HttpOutputMessage outputMessage) throws IOException {
+        if (body instanceof List<?> contacts) {
+            contactListWriter.writeValue(outputMessage.getBody(), new ContactList(contacts));
+        } else if (body instanceof PaginatedResponse<?>) {
+            contactPageWriter.writeValue(outputMessage.getBody(), body);
+        } else {
+            contactWriter.writeValue(outputMessage.getBody(), body);
+        }
+    }
+
+    private static ProtobufSchema loadSchema(ProtobufMapper mapper, String rootType) {
+        try (InputStream schema = new ClassPathResource(SCHEMA_LOCATION).getInputStream()) {
+            return mapper.schemaLoader().load(schema, rootType);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to load protobuf schema " + SCHEMA_LOCATION, ex);
+        }
+    }
+
+    private record ContactList(List<?> contacts) {
+    }
+}
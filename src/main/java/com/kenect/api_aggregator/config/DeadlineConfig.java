@@ -0,0 +1,85 @@
+package com.kenect.api_aggregator.config;
+
+import com.kenect.api_aggregator.resilience.Deadline;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.server.WebFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Gives every {@code /contacts} request a {@link Deadline}: the client's {@code X-Request-Timeout}
+ * (milliseconds) when present, otherwise {@code deadline.default-timeout}, and never more than
+ * {@code deadline.max-timeout}.
+ */
+@Slf4j
+@Configuration
+public class DeadlineConfig {
+
+    private static final String CONTACTS_PATH = "/contacts";
+
+    @Value("${deadline.header:X-Request-Timeout}")
+    private String header;
+
+    @Value("${deadline.default-timeout:30s}")
+    private Duration defaultTimeout;
+
+    @Value("${deadline.max-timeout:60s}")
+    private Duration maxTimeout;
+
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    public FilterRegistrationBean<OncePerRequestFilter> requestDeadlineFilter() {
+        FilterRegistrationBean<OncePerRequestFilter> registration = new FilterRegistrationBean<>(new OncePerRequestFilter() {
+            @Override
+            protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+                    throws ServletException, IOException {
+                Deadline.set(deadlineFor(request.getHeader(header)));
+                try {
+                    chain.doFilter(request, response);
+                } finally {
+                    Deadline.clear();
+                }
+            }
+        });
+        registration.addUrlPatterns(CONTACTS_PATH, CONTACTS_PATH + "/*");
+        return registration;
+    }
+
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+    public WebFilter requestDeadlineWebFilter() {
+        return (exchange, chain) -> {
+            if (!exchange.getRequest().getPath().value().startsWith(CONTACTS_PATH)) {
+                return chain.filter(exchange);
+            }
+            Deadline deadline = deadlineFor(exchange.getRequest().getHeaders().getFirst(header));
+            return chain.filter(exchange).contextWrite(deadline::writeTo);
+        };
+    }
+
+    Deadline deadlineFor(String headerValue) {
+        Duration timeout = defaultTimeout;
+        if (headerValue != null && !headerValue.isBlank()) {
+            try {
+                long millis = Long.parseLong(headerValue.trim());
+                if (millis > 0) {
+                    timeout = Duration.ofMillis(millis);
+                }
+            } catch (NumberFormatException ex) {
+                log.debug("Ignoring unparseable {} header: {}", header, headerValue);
+            }
+        }
+        return Deadline.after(timeout.compareTo(maxTimeout) > 0 ? maxTimeout : timeout);
+    }
+}
@@ -0,0 +1,93 @@
+package com.kenect.api_aggregator.config;
+
+import com.kenect.api_aggregator.controller.InboundLimitInterceptor;
+import com.kenect.api_aggregator.resilience.LoadShedder;
+import com.kenect.api_aggregator.resilience.TokenBucketRateLimiter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.availability.ApplicationAvailability;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.lang.Nullable;
+import org.springframework.web.servlet.handler.MappedInterceptor;
+
+import java.time.Duration;
+import java.util.Set;
+
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(name = "inbound-limit.enabled", havingValue = "true", matchIfMissing = true)
+public class InboundLimitConfig {
+
+    @Value("${inbound-limit.client-key-header:X-API-Key}")
+    private String clientKeyHeader;
+
+    @Value("${inbound-limit.max-clients:10000}")
+    private long maxClients;
+
+    @Value("${inbound-limit.full-list.capacity:10}")
+    private double fullListCapacity;
+
+    @Value("${inbound-limit.full-list.refill-per-second:1}")
+    private double fullListRefillPerSecond;
+
+    @Value("${inbound-limit.paginated.capacity:100}")
+    private double paginatedCapacity;
+
+    @Value("${inbound-limit.paginated.refill-per-second:50}")
+    private double paginatedRefillPerSecond;
+
+    @Value("${inbound-limit.shedding.max-concurrent:64}")
+    private int sheddingMaxConcurrent;
+
+    @Value("${inbound-limit.shedding.max-queue-wait:500ms}")
+    private Duration sheddingMaxQueueWait;
+
+    @Value("${inbound-limit.shedding.target-queue-delay:50ms}")
+    private Duration sheddingTargetQueueDelay;
+
+    @Value("${inbound-limit.shedding.interval:1s}")
+    private Duration sheddingInterval;
+
+    @Value("${inbound-limit.shedding.retry-after:1s}")
+    private Duration sheddingRetryAfter;
+
+    @Bean
+    public LoadShedder inboundLoadShedder(MeterRegistry meterRegistry) {
+        LoadShedder loadShedder = new LoadShedder(sheddingMaxConcurrent, sheddingMaxQueueWait,
+                sheddingTargetQueueDelay, sheddingInterval);
+
+        Gauge.builder("kenect.inbound.in-flight", loadShedder, LoadShedder::getInFlight)
+                .description("Inbound /contacts requests currently being served")
+                .register(meterRegistry);
+        Gauge.builder("kenect.inbound.overloaded", loadShedder, shedder -> shedder.isOverloaded() ? 1 : 0)
+                .description("Whether inbound requests are being shed because of a standing queue")
+                .register(meterRegistry);
+
+        return loadShedder;
+    }
+
+    /**
+     * Covers every {@code /contacts} endpoint. Export, sync and the change feed draw from the full-list
+     * bucket, since each can return the whole snapshot. The change feed is exempt from load shedding
+     * only: it is rate limited on connect, but an open SSE connection holds no in-flight permit.
+     */
+    @Bean
+    public MappedInterceptor inboundLimitInterceptor(LoadShedder inboundLoadShedder,
+                                                     @Nullable ApplicationAvailability availability,
+                                                     MeterRegistry meterRegistry) {
+        InboundLimitInterceptor interceptor = new InboundLimitInterceptor(
+                new TokenBucketRateLimiter(fullListCapacity, fullListRefillPerSecond, maxClients),
+                new TokenBucketRateLimiter(paginatedCapacity, paginatedRefillPerSecond, maxClients),
+                inboundLoadShedder,
+                availability,
+                Set.of("/contacts/changes"),
+                clientKeyHeader,
+                sheddingRetryAfter,
+                meterRegistry);
+        return new MappedInterceptor(new String[] {"/contacts/**"}, interceptor);
+    }
+}
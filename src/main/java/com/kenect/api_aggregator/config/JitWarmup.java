@@ -0,0 +1,141 @@
+package com.kenect.api_aggregator.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Sends synthetic requests for every query shape and serializer to the local server until the JIT has
+ * compiled the request path, so the first real requests are not served by interpreted code. Runs as an
+ * {@link ApplicationRunner}, which Spring Boot completes before readiness becomes ACCEPTING_TRAFFIC.
+ * Each round sends a batch of requests and the warm-up stops once the 90th percentile of a round is
+ * within the latency target, or when the iteration or time limit is hit.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "warmup.jit.enabled", havingValue = "true")
+public class JitWarmup implements ApplicationRunner {
+
+    static final String DURATION_METRIC = "kenect.warmup.duration";
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private static final List<WarmupRequest> REQUESTS = List.of(
+            new WarmupRequest("/contacts", MediaType.APPLICATION_JSON),
+            new WarmupRequest("/contacts?page=1&size=20", MediaType.APPLICATION_JSON),
+            new WarmupRequest("/contacts?page=1&size=100", MediaType.APPLICATION_JSON),
+            new WarmupRequest("/contacts?page=1&size=20&source=KENECT_LABS", MediaType.APPLICATION_JSON),
+            new WarmupRequest("/contacts?page=1&size=20", MediaType.valueOf(BinaryFormatsConfig.PROTOBUF_VALUE)),
+            new WarmupRequest("/contacts?page=1&size=20", MediaType.valueOf(BinaryFormatsConfig.SMILE_VALUE)),
+            new WarmupRequest("/contacts?page=1&size=20", MediaType.valueOf(BinaryFormatsConfig.CBOR_VALUE)));
+
+    private final WebServerApplicationContext context;
+    private final MeterRegistry meterRegistry;
+    private final int maxIterations;
+    private final int batchSize;
+    private final Duration targetLatency;
+    private final Duration maxDuration;
+
+    public JitWarmup(WebServerApplicationContext context,
+                     MeterRegistry meterRegistry,
+                     @Value("${warmup.jit.max-iterations:5000}") int maxIterations,
+                     @Value("${warmup.jit.batch-size:200}") int batchSize,
+                     @Value("${warmup.jit.target-latency:5ms}") Duration targetLatency,
+                     @Value("${warmup.jit.max-duration:60s}") Duration maxDuration) {
+        this.context = context;
+        this.meterRegistry = meterRegistry;
+        this.maxIterations = maxIterations;
+        this.batchSize = Math.max(1, batchSize);
+        this.targetLatency = targetLatency;
+        this.maxDuration = maxDuration;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        WebClient client = WebClient.create("http://localhost:" + context.getWebServer().getPort());
+        long startTime = System.nanoTime();
+        long deadline = startTime + maxDuration.toNanos();
+        int iterations = 0;
+        String outcome = "iteration-limit";
+
+        long[] latencies = new long[batchSize];
+        rounds:
+        while (iterations < maxIterations) {
+            if (System.nanoTime() > deadline) {
+                outcome = "time-limit";
+                break;
+            }
+
+            int count = 0;
+            while (count < batchSize && iterations < maxIterations) {
+                WarmupRequest request = REQUESTS.get(iterations % REQUESTS.size());
+                long requestStart = System.nanoTime();
+                if (!send(client, request)) {
+                    outcome = "failed";
+                    break rounds;
+                }
+                latencies[count++] = System.nanoTime() - requestStart;
+                iterations++;
+            }
+
+            long p90 = percentile(latencies, count, 0.9);
+            log.debug("JIT warm-up round finished after {} requests, p90 {} us", iterations, p90 / 1000);
+            if (count == batchSize && p90 <= targetLatency.toNanos()) {
+                outcome = "target-reached";
+                break;
+            }
+        }
+
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - startTime);
+        Timer.builder(DURATION_METRIC)
+                .description("Time spent warming up the request path before accepting traffic")
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .record(elapsed);
+        log.info("JIT warm-up finished ({}) after {} requests in {} ms", outcome, iterations, elapsed.toMillis());
+    }
+
+    private boolean send(WebClient client, WarmupRequest request) {
+        try {
+            Boolean ok = client.get()
+                    .uri(request.path())
+                    .accept(request.accept())
+                    .exchangeToMono(response -> response.releaseBody()
+                            .thenReturn(response.statusCode().is2xxSuccessful()))
+                    .block(REQUEST_TIMEOUT);
+            if (!Boolean.TRUE.equals(ok)) {
+                log.warn("JIT warm-up request {} ({}) was not successful, stopping warm-up",
+                        request.path(), request.accept());
+                return false;
+            }
+            return true;
+        } catch (RuntimeException ex) {
+            log.warn("JIT warm-up request {} failed, stopping warm-up: {}", request.path(), ex.getMessage());
+            return false;
+        }
+    }
+
+    static long percentile(long[] values, int count, double quantile) {
+        if (count == 0) {
+            return 0;
+        }
+        long[] sorted = Arrays.copyOf(values, count);
+        Arrays.sort(sorted);
+        return sorted[(int) Math.ceil(quantile * count) - 1];
+    }
+
+    private record WarmupRequest(String path, MediaType accept) {
+    }
+}
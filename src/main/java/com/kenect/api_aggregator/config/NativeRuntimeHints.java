@@ -0,0 +1,41 @@
+package com.kenect.api_aggregator.config;
+
+import com.kenect.api_aggregator.dto.ContactChangeSet;
+import com.kenect.api_aggregator.dto.ContactQueryParams;
+import com.kenect.api_aggregator.dto.ContactSyncResponse;
+import com.kenect.api_aggregator.dto.ExternalContactDto;
+import com.kenect.api_aggregator.dto.ExternalContactResponse;
+import com.kenect.api_aggregator.dto.PaginatedResponse;
+import com.kenect.api_aggregator.dto.PaginationMetadata;
+import com.kenect.api_aggregator.model.Contact;
+import com.kenect.api_aggregator.model.ContactSource;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+
+/**
+ * Reflection and resource hints for the native image. Controllers return {@code ResponseEntity<?>},
+ * so AOT cannot infer the Jackson-bound types on its own.
+ */
+public class NativeRuntimeHints implements RuntimeHintsRegistrar {
+
+    private static final Class<?>[] JSON_TYPES = {
+            Contact.class,
+            ContactSource.class,
+            ContactQueryParams.class,
+            PaginatedResponse.class,
+            ExternalContactDto.class,
+            ExternalContactResponse.class,
+            PaginationMetadata.class,
+            ContactChangeSet.class,
+            ContactSyncResponse.class
+    };
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        new BindingReflectionHintsRegistrar().registerReflectionHints(hints.reflection(), JSON_TYPES);
+        hints.reflection().registerType(BinaryFormatsConfig.EpochTimestamps.class, MemberCategory.DECLARED_FIELDS);
+        hints.resources().registerPattern(ContactProtobufHttpMessageConverter.SCHEMA_LOCATION);
+    }
+}
@@ -0,0 +1,273 @@
+package com.kenect.api_aggregator.config;
+
+import com.kenect.api_aggregator.exception.DeadlineExceededException;
+import com.kenect.api_aggregator.exception.ExternalApiException;
+import com.kenect.api_aggregator.exception.UpstreamUnavailableException;
+import com.kenect.api_aggregator.resilience.AdaptiveConcurrencyLimiter;
+import com.kenect.api_aggregator.resilience.CallPriority;
+import com.kenect.api_aggregator.resilience.CircuitBreaker;
+import com.kenect.api_aggregator.resilience.FailureBackoff;
+import com.kenect.api_aggregator.resilience.HedgingPolicy;
+import com.kenect.api_aggregator.resilience.LatencyTracker;
+import com.kenect.api_aggregator.resilience.RequestBudget;
+import com.kenect.api_aggregator.resilience.UpstreamRatePacer;
+import com.kenect.api_aggregator.resilience.UpstreamRetryPolicy;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.Set;
+
+@Configuration
+public class ResilienceConfig {
+
+    @Value("${retry.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${retry.initial-delay:1000}")
+    private long initialDelay;
+
+    @Value("${retry.max-delay:5000}")
+    private long maxDelay;
+
+    @Value("${retry.multiplier:2.0}")
+    private double multiplier;
+
+    @Value("${retry.retryable-statuses:408,429,500,502,503,504}")
+    private Set<Integer> retryableStatuses;
+
+    @Value("${retry.max-retry-after:10000}")
+    private long maxRetryAfter;
+
+    @Value("${retry.budget.ratio:0.1}")
+    private double budgetRatio;
+
+    @Value("${retry.budget.min-per-second:1.0}")
+    private double budgetMinPerSecond;
+
+    @Value("${retry.budget.max-balance:20}")
+    private double budgetMaxBalance;
+
+    @Value("${circuit-breaker.sliding-window-size:20}")
+    private int cbSlidingWindowSize;
+
+    @Value("${circuit-breaker.minimum-number-of-calls:10}")
+    private int cbMinimumNumberOfCalls;
+
+    @Value("${circuit-breaker.failure-rate-threshold:50}")
+    private double cbFailureRateThreshold;
+
+    @Value("${circuit-breaker.slow-call-rate-threshold:80}")
+    private double cbSlowCallRateThreshold;
+
+    @Value("${circuit-breaker.slow-call-duration-threshold:5000}")
+    private long cbSlowCallDurationThreshold;
+
+    @Value("${circuit-breaker.wait-duration-in-open-state:30000}")
+    private long cbWaitDurationInOpenState;
+
+    @Value("${circuit-breaker.permitted-calls-in-half-open-state:3}")
+    private int cbPermittedCallsInHalfOpenState;
+
+    @Value("${hedging.enabled:false}")
+    private boolean hedgingEnabled;
+
+    @Value("${hedging.percentile:95}")
+    private double hedgingPercentile;
+
+    @Value("${hedging.min-delay:50}")
+    private long hedgingMinDelay;
+
+    @Value("${hedging.max-delay:5000}")
+    private long hedgingMaxDelay;
+
+    @Value("${hedging.min-samples:20}")
+    private int hedgingMinSamples;
+
+    @Value("${hedging.window-size:256}")
+    private int hedgingWindowSize;
+
+    @Value("${hedging.budget.ratio:0.05}")
+    private double hedgingBudgetRatio;
+
+    @Value("${hedging.budget.min-per-second:0.5}")
+    private double hedgingBudgetMinPerSecond;
+
+    @Value("${hedging.budget.max-balance:5}")
+    private double hedgingBudgetMaxBalance;
+
+    @Value("${concurrency-limit.initial-limit:10}")
+    private int concurrencyInitialLimit;
+
+    @Value("${concurrency-limit.min-limit:1}")
+    private int concurrencyMinLimit;
+
+    @Value("${concurrency-limit.max-limit:50}")
+    private int concurrencyMaxLimit;
+
+    @Value("${concurrency-limit.backoff-ratio:0.9}")
+    private double concurrencyBackoffRatio;
+
+    @Value("${concurrency-limit.latency-tolerance:2.0}")
+    private double concurrencyLatencyTolerance;
+
+    @Value("${concurrency-limit.max-queue-size:100}")
+    private int concurrencyMaxQueueSize;
+
+    @Value("${concurrency-limit.max-queue-wait:10000}")
+    private long concurrencyMaxQueueWait;
+
+    @Value("${upstream-rate.rate-per-second:50}")
+    private double upstreamRatePerSecond;
+
+    @Value("${upstream-rate.min-rate-per-second:0.5}")
+    private double upstreamMinRatePerSecond;
+
+    @Value("${upstream-rate.burst:50}")
+    private double upstreamRateBurst;
+
+    @Value("${upstream-rate.max-wait:10000}")
+    private long upstreamRateMaxWait;
+
+    @Value("${failure-backoff.initial-delay:1000}")
+    private long failureBackoffInitialDelay;
+
+    @Value("${failure-backoff.max-delay:30000}")
+    private long failureBackoffMaxDelay;
+
+    @Value("${failure-backoff.multiplier:2.0}")
+    private double failureBackoffMultiplier;
+
+    @Bean
+    public RequestBudget retryBudget() {
+        return new RequestBudget(budgetRatio, budgetMinPerSecond, budgetMaxBalance);
+    }
+
+    @Bean
+    public UpstreamRetryPolicy upstreamRetryPolicy(RequestBudget retryBudget) {
+        return UpstreamRetryPolicy.builder()
+                .maxAttempts(maxAttempts)
+                .initialDelay(Duration.ofMillis(initialDelay))
+                .maxDelay(Duration.ofMillis(maxDelay))
+                .multiplier(multiplier)
+                .retryableStatuses(retryableStatuses)
+                .maxRetryAfter(Duration.ofMillis(maxRetryAfter))
+                .budget(retryBudget)
+                .build();
+    }
+
+    @Bean
+    public CircuitBreaker upstreamCircuitBreaker(UpstreamRetryPolicy upstreamRetryPolicy) {
+        return CircuitBreaker.builder()
+                .name("kenect-api")
+                .slidingWindowSize(cbSlidingWindowSize)
+                .minimumNumberOfCalls(cbMinimumNumberOfCalls)
+                .failureRateThreshold(cbFailureRateThreshold)
+                .slowCallRateThreshold(cbSlowCallRateThreshold)
+                .slowCallDurationThreshold(Duration.ofMillis(cbSlowCallDurationThreshold))
+                .waitDurationInOpenState(Duration.ofMillis(cbWaitDurationInOpenState))
+                .permittedCallsInHalfOpenState(cbPermittedCallsInHalfOpenState)
+                .recordFailure(upstreamRetryPolicy::isRetryable)
+                .build();
+    }
+
+    @Bean
+    public HedgingPolicy upstreamHedgingPolicy(MeterRegistry meterRegistry) {
+        HedgingPolicy hedgingPolicy = HedgingPolicy.builder()
+                .enabled(hedgingEnabled)
+                .percentile(hedgingPercentile)
+                .minDelay(Duration.ofMillis(hedgingMinDelay))
+                .maxDelay(Duration.ofMillis(hedgingMaxDelay))
+                .minSamples(hedgingMinSamples)
+                .budget(new RequestBudget(hedgingBudgetRatio, hedgingBudgetMinPerSecond, hedgingBudgetMaxBalance))
+                .latencyTracker(new LatencyTracker(hedgingWindowSize))
+                .build();
+
+        FunctionCounter.builder("kenect.upstream.hedges.sent", hedgingPolicy, HedgingPolicy::getHedgesSent)
+                .description("Hedged duplicate requests sent to the upstream")
+                .register(meterRegistry);
+        FunctionCounter.builder("kenect.upstream.hedges.won", hedgingPolicy, HedgingPolicy::getHedgesWon)
+                .description("Hedged requests that answered before the original")
+                .register(meterRegistry);
+
+        return hedgingPolicy;
+    }
+
+    @Bean
+    public AdaptiveConcurrencyLimiter upstreamConcurrencyLimiter(UpstreamRetryPolicy upstreamRetryPolicy,
+                                                                 MeterRegistry meterRegistry) {
+        AdaptiveConcurrencyLimiter limiter = AdaptiveConcurrencyLimiter.builder()
+                .name("kenect-api")
+                .initialLimit(concurrencyInitialLimit)
+                .minLimit(concurrencyMinLimit)
+                .maxLimit(concurrencyMaxLimit)
+                .backoffRatio(concurrencyBackoffRatio)
+                .latencyTolerance(concurrencyLatencyTolerance)
+                .maxQueueSize(concurrencyMaxQueueSize)
+                .maxQueueWait(Duration.ofMillis(concurrencyMaxQueueWait))
+                .recordFailure(upstreamRetryPolicy::isRetryable)
+                .build();
+
+        Gauge.builder("kenect.upstream.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                .description("Current adaptive concurrency limit for upstream calls")
+                .register(meterRegistry);
+        Gauge.builder("kenect.upstream.concurrency.in-flight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                .description("Upstream calls currently holding a concurrency permit")
+                .register(meterRegistry);
+        for (CallPriority priority : CallPriority.values()) {
+            Gauge.builder("kenect.upstream.concurrency.queue", limiter, l -> l.getQueueDepth(priority))
+                    .description("Upstream calls waiting for a concurrency permit")
+                    .tag("priority", priority.name().toLowerCase())
+                    .register(meterRegistry);
+        }
+
+        return limiter;
+    }
+
+    @Bean
+    public UpstreamRatePacer upstreamRatePacer(MeterRegistry meterRegistry) {
+        UpstreamRatePacer ratePacer = UpstreamRatePacer.builder()
+                .name("kenect-api")
+                .ratePerSecond(upstreamRatePerSecond)
+                .minRatePerSecond(upstreamMinRatePerSecond)
+                .burst(upstreamRateBurst)
+                .maxWait(Duration.ofMillis(upstreamRateMaxWait))
+                .build();
+
+        Gauge.builder("kenect.upstream.rate.limit", ratePacer, UpstreamRatePacer::getRate)
+                .description("Current pacing rate for upstream calls in requests per second")
+                .register(meterRegistry);
+        Gauge.builder("kenect.upstream.rate.remaining", ratePacer, UpstreamRatePacer::getRemainingQuota)
+                .description("Remaining upstream quota from the last rate-limit response headers")
+                .register(meterRegistry);
+
+        return ratePacer;
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "failure-backoff.enabled", havingValue = "true", matchIfMissing = true)
+    public FailureBackoff upstreamFailureBackoff(MeterRegistry meterRegistry) {
+        // Circuit-open, pacing and backoff rejections never reached the upstream, and an expired deadline
+        // is the caller's budget running out, so none of them count as upstream failures.
+        FailureBackoff failureBackoff = FailureBackoff.builder()
+                .name("kenect-api")
+                .initialDelay(Duration.ofMillis(failureBackoffInitialDelay))
+                .maxDelay(Duration.ofMillis(failureBackoffMaxDelay))
+                .multiplier(failureBackoffMultiplier)
+                .recordFailure(ex -> ex instanceof ExternalApiException
+                        && !(ex instanceof UpstreamUnavailableException)
+                        && !(ex instanceof DeadlineExceededException))
+                .build();
+
+        Gauge.builder("kenect.upstream.backoff.active", failureBackoff, FailureBackoff::getBackingOffCount)
+                .description("Upstream calls currently failing fast after recent failures")
+                .register(meterRegistry);
+
+        return failureBackoff;
+    }
+}
@@ -0,0 +1,94 @@
+package com.kenect.api_aggregator.config;
+
+import com.github.benmanes.caffeine.cache.Weigher;
+import com.kenect.api_aggregator.dto.ContactChangeSet;
+import com.kenect.api_aggregator.dto.PaginatedResponse;
+import com.kenect.api_aggregator.model.Contact;
+import com.kenect.api_aggregator.service.ContactSnapshot;
+import com.kenect.api_aggregator.service.OffHeapContactList;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Weighs cache entries by an estimate of their retained heap size in bytes, so cache bounds
+ * track memory rather than entry counts. The estimate assumes compressed oops and compact strings.
+ */
+public class RetainedSizeWeigher implements Weigher<Object, Object> {
+
+    static final int OBJECT_HEADER = 16;
+    static final int REFERENCE = 4;
+    static final int STRING = 56;
+    static final int BOXED_LONG = 16;
+    static final int INSTANT = 24;
+    static final int CONTACT = OBJECT_HEADER + 6 * REFERENCE;
+    static final int LIST = OBJECT_HEADER + 24;
+    static final int PAGINATED_RESPONSE = OBJECT_HEADER + 40;
+    static final int SNAPSHOT = OBJECT_HEADER + 32;
+    static final int CHANGE_SET = OBJECT_HEADER + 40;
+    static final int OFF_HEAP_VIEW = OBJECT_HEADER + 128;
+    static final int UNKNOWN = 64;
+
+    @Override
+    public int weigh(Object key, Object value) {
+        long size = estimate(key) + estimate(value);
+        return (int) Math.min(Integer.MAX_VALUE, Math.max(1, size));
+    }
+
+    public static long estimate(Object value) {
+        if (value == null) {
+            return 0;
+        }
+        if (value instanceof OffHeapContactList) {
+            return OFF_HEAP_VIEW;
+        }
+        if (value instanceof ContactSnapshot snapshot) {
+            return SNAPSHOT + estimate(snapshot.contacts())
+                    + (long) snapshot.indexCount() * (LIST + (long) REFERENCE * snapshot.contacts().size());
+        }
+        if (value instanceof ContactChangeSet changes) {
+            return CHANGE_SET + estimate(changes.getAdded()) + estimate(changes.getUpdated())
+                    + estimate(changes.getRemoved());
+        }
+        if (value instanceof Contact contact) {
+            return estimate(contact);
+        }
+        if (value instanceof Long) {
+            return BOXED_LONG;
+        }
+        if (value instanceof CharSequence text) {
+            return STRING + text.length();
+        }
+        if (value instanceof byte[] bytes) {
+            return OBJECT_HEADER + bytes.length;
+        }
+        if (value instanceof Collection<?> items) {
+            long size = LIST + (long) REFERENCE * items.size();
+            for (Object item : items) {
+                size += estimate(item);
+            }
+            return size;
+        }
+        if (value instanceof Map<?, ?> map) {
+            long size = LIST + (long) (OBJECT_HEADER + 4 * REFERENCE) * map.size();
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                size += estimate(entry.getKey()) + estimate(entry.getValue());
+            }
+            return size;
+        }
+        if (value instanceof PaginatedResponse<?> page) {
+            return PAGINATED_RESPONSE + estimate(page.getContent());
+        }
+        return UNKNOWN;
+    }
+
+    private static long estimate(Contact contact) {
+        return CONTACT
+                + (contact.getId() != null ? BOXED_LONG : 0)
+                + estimate(contact.getName())
+                + estimate(contact.getEmail())
+                + estimate(contact.getSource())
+                + (contact.getCreatedAt() != null ? INSTANT : 0)
+                + (contact.getUpdatedAt() != null ? INSTANT : 0);
+    }
+}
@@ -0,0 +1,33 @@
+package com.kenect.api_aggregator.config;
+
+import com.kenect.api_aggregator.client.KenectLabsApiClient;
+import com.kenect.api_aggregator.controller.ContactController;
+import com.kenect.api_aggregator.controller.ReactiveContactController;
+import com.kenect.api_aggregator.service.ContactChangeFeed;
+import com.kenect.api_aggregator.service.ContactService;
+import com.kenect.api_aggregator.service.ContactSnapshotHolder;
+import com.kenect.api_aggregator.service.ReactiveContactService;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * With {@code spring.main.lazy-initialization} enabled (the {@code fast-startup} profile), keeps the
+ * {@code /contacts} request path eager so the first request does not pay for creating it. Everything
+ * else, such as the export and sync endpoints, is created on first use.
+ */
+@Configuration
+public class StartupConfig {
+
+    @Bean
+    static LazyInitializationExcludeFilter contactsRequestPathExcludeFilter() {
+        return LazyInitializationExcludeFilter.forBeanTypes(
+                ContactController.class,
+                ContactService.class,
+                ReactiveContactController.class,
+                ReactiveContactService.class,
+                KenectLabsApiClient.class,
+                ContactSnapshotHolder.class,
+                ContactChangeFeed.class);
+    }
+}
@@ -0,0 +1,50 @@
+package com.kenect.api_aggregator.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.support.AsyncHandlerMethodReturnValueHandler;
+import org.springframework.web.method.support.HandlerMethodReturnValueHandler;
+import org.springframework.web.method.support.ModelAndViewContainer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBodyReturnValueHandler;
+
+import java.util.List;
+
+/**
+ * Lets a handler declared as {@code ResponseEntity<?>} return a {@link StreamingResponseBody}. Spring
+ * only streams when the declared body type is {@code StreamingResponseBody}, but {@code /contacts}
+ * decides between a buffered and a streamed body from the size of the list it loaded.
+ */
+@Configuration
+public class StreamingConfig implements WebMvcConfigurer {
+
+    @Override
+    public void addReturnValueHandlers(List<HandlerMethodReturnValueHandler> handlers) {
+        handlers.add(new StreamingResponseEntityReturnValueHandler());
+    }
+
+    static class StreamingResponseEntityReturnValueHandler implements AsyncHandlerMethodReturnValueHandler {
+
+        private final StreamingResponseBodyReturnValueHandler delegate = new StreamingResponseBodyReturnValueHandler();
+
+        @Override
+        public boolean isAsyncReturnValue(@Nullable Object returnValue, MethodParameter returnType) {
+            return returnValue instanceof ResponseEntity<?> entity && entity.getBody() instanceof StreamingResponseBody;
+        }
+
+        @Override
+        public boolean supportsReturnType(MethodParameter returnType) {
+            return ResponseEntity.class.isAssignableFrom(returnType.getParameterType());
+        }
+
+        @Override
+        public void handleReturnValue(@Nullable Object returnValue, MethodParameter returnType,
+                                      ModelAndViewContainer mavContainer, NativeWebRequest webRequest) throws Exception {
+            delegate.handleReturnValue(returnValue, returnType, mavContainer, webRequest);
+        }
+    }
+}
@@ -1,5 +1,9 @@
 package com.kenect.api_aggregator.config;
 
+import com.kenect.api_aggregator.resilience.EndpointRouter;
+import com.kenect.api_aggregator.resilience.UpstreamRetryPolicy;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 import io.netty.channel.ChannelOption;
 import io.netty.handler.timeout.ReadTimeoutHandler;
 import io.netty.handler.timeout.WriteTimeoutHandler;
@@ -8,17 +12,40 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.Http2AllocationStrategy;
 import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
 
+import java.net.URI;
 import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.TreeSet;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 @Configuration
 public class WebClientConfig {
 
-    @Value("${kenect.api.base-url}")
+    private static final String CONNECTION_PROVIDER_NAME = "kenect-api";
+
+    @Value("${kenect.api.base-url:}")
     private String baseUrl;
 
+    @Value("${kenect.api.base-urls:}")
+    private List<String> baseUrls;
+
+    @Value("${kenect.api.endpoints.ewma-alpha:0.3}")
+    private double endpointEwmaAlpha;
+
+    @Value("${kenect.api.endpoints.failure-threshold:3}")
+    private int endpointFailureThreshold;
+
+    @Value("${kenect.api.endpoints.eject-duration:30000}")
+    private long endpointEjectDuration;
+
     @Value("${kenect.api.bearer-token}")
     private String bearerToken;
 
@@ -31,19 +58,127 @@ public class WebClientConfig {
     @Value("${kenect.api.timeout.write:30000}")
     private int writeTimeout;
 
+    @Value("${kenect.api.pool.max-connections:50}")
+    private int maxConnections;
+
+    @Value("${kenect.api.pool.pending-acquire-max-count:500}")
+    private int pendingAcquireMaxCount;
+
+    @Value("${kenect.api.pool.pending-acquire-timeout:10000}")
+    private long pendingAcquireTimeout;
+
+    @Value("${kenect.api.pool.max-idle-time:30000}")
+    private long maxIdleTime;
+
+    @Value("${kenect.api.pool.max-life-time:300000}")
+    private long maxLifeTime;
+
+    @Value("${kenect.api.pool.evict-in-background:60000}")
+    private long evictInBackground;
+
+    @Value("${kenect.api.pool.metrics-enabled:true}")
+    private boolean poolMetricsEnabled;
+
+    @Value("${kenect.api.http2.enabled:false}")
+    private boolean http2Enabled;
+
+    @Value("${kenect.api.http2.max-concurrent-streams:100}")
+    private long http2MaxConcurrentStreams;
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider kenectApiConnectionProvider() {
+        ConnectionProvider.Builder builder = ConnectionProvider.builder(CONNECTION_PROVIDER_NAME)
+                .maxConnections(maxConnections)
+                .pendingAcquireMaxCount(pendingAcquireMaxCount)
+                .pendingAcquireTimeout(Duration.ofMillis(pendingAcquireTimeout))
+                .maxIdleTime(Duration.ofMillis(maxIdleTime))
+                .maxLifeTime(Duration.ofMillis(maxLifeTime))
+                .evictInBackground(Duration.ofMillis(evictInBackground))
+                .metrics(poolMetricsEnabled);
+
+        if (http2Enabled) {
+            builder.allocationStrategy(Http2AllocationStrategy.builder()
+                    .maxConnections(maxConnections)
+                    .maxConcurrentStreams(http2MaxConcurrentStreams)
+                    .build());
+        }
+
+        return builder.build();
+    }
+
     @Bean
-    public WebClient kenectApiWebClient() {
-        HttpClient httpClient = HttpClient.create()
+    public HttpClient kenectApiHttpClient(ConnectionProvider kenectApiConnectionProvider) {
+        HttpClient httpClient = HttpClient.create(kenectApiConnectionProvider)
+                .keepAlive(true)
                 .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeout)
+                .option(ChannelOption.SO_KEEPALIVE, true)
                 .responseTimeout(Duration.ofMillis(readTimeout))
                 .doOnConnected(conn ->
                         conn.addHandlerLast(new ReadTimeoutHandler(readTimeout, TimeUnit.MILLISECONDS))
                                 .addHandlerLast(new WriteTimeoutHandler(writeTimeout, TimeUnit.MILLISECONDS)));
 
+        if (http2Enabled) {
+            // One client serves every endpoint, so h2 (TLS) versus h2c must hold for all of them.
+            HttpProtocol cleartextOrTls = "https".equals(endpointScheme()) ? HttpProtocol.H2 : HttpProtocol.H2C;
+            httpClient = httpClient.protocol(cleartextOrTls, HttpProtocol.HTTP11);
+        }
+
+        return httpClient;
+    }
+
+    @Bean
+    public WebClient kenectApiWebClient(HttpClient kenectApiHttpClient) {
         return WebClient.builder()
-                .baseUrl(baseUrl)
+                .baseUrl(endpointUrls().get(0))
                 .defaultHeader("Authorization", "Bearer " + bearerToken)
-                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .clientConnector(new ReactorClientHttpConnector(kenectApiHttpClient))
+                .build();
+    }
+
+    @Bean
+    public EndpointRouter kenectApiEndpointRouter(UpstreamRetryPolicy upstreamRetryPolicy, MeterRegistry meterRegistry) {
+        EndpointRouter router = EndpointRouter.builder()
+                .name(CONNECTION_PROVIDER_NAME)
+                .baseUrls(endpointUrls())
+                .ewmaAlpha(endpointEwmaAlpha)
+                .failureThreshold(endpointFailureThreshold)
+                .ejectDuration(Duration.ofMillis(endpointEjectDuration))
+                .recordFailure(upstreamRetryPolicy::isRetryable)
                 .build();
+
+        for (EndpointRouter.Endpoint endpoint : router.getEndpoints()) {
+            Gauge.builder("kenect.upstream.endpoint.latency", endpoint, EndpointRouter.Endpoint::getLatencyMillis)
+                    .description("EWMA latency of upstream calls to the endpoint in milliseconds")
+                    .tag("endpoint", endpoint.getBaseUrl())
+                    .register(meterRegistry);
+            Gauge.builder("kenect.upstream.endpoint.healthy", endpoint, e -> e.isHealthy() ? 1 : 0)
+                    .description("Whether the endpoint is currently receiving calls (1) or ejected (0)")
+                    .tag("endpoint", endpoint.getBaseUrl())
+                    .register(meterRegistry);
+        }
+
+        return router;
+    }
+
+    private String endpointScheme() {
+        Set<String> schemes = endpointUrls().stream()
+                .map(url -> String.valueOf(URI.create(url).getScheme()).toLowerCase(Locale.ROOT))
+                .collect(Collectors.toCollection(TreeSet::new));
+        if (schemes.size() > 1) {
+            throw new IllegalStateException("kenect.api.http2.enabled requires every upstream endpoint to use the same scheme, "
+                    + "but kenect.api.base-urls mixes " + schemes);
+        }
+        return schemes.iterator().next();
+    }
+
+    private List<String> endpointUrls() {
+        List<String> urls = baseUrls.stream().map(String::trim).filter(url -> !url.isEmpty()).toList();
+        if (!urls.isEmpty()) {
+            return urls;
+        }
+        if (baseUrl.isBlank()) {
+            throw new IllegalStateException("Either kenect.api.base-url or kenect.api.base-urls must be set");
+        }
+        return List.of(baseUrl);
     }
 }
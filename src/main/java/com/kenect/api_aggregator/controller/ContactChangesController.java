@@ -0,0 +1,73 @@
+package com.kenect.api_aggregator.controller;
+
+import com.kenect.api_aggregator.dto.ContactChangeSet;
+import com.kenect.api_aggregator.dto.ContactSyncResponse;
+import com.kenect.api_aggregator.service.ContactChangeFeed;
+import com.kenect.api_aggregator.service.ContactChangeFeed.SlowSubscriberException;
+import com.kenect.api_aggregator.service.ContactService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+
+@Slf4j
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class ContactChangesController {
+
+    private final ContactChangeFeed changeFeed;
+    private final ContactService contactService;
+    private final Duration heartbeatInterval;
+
+    public ContactChangesController(ContactChangeFeed changeFeed,
+                                    ContactService contactService,
+                                    @Value("${changes.heartbeat-interval:15s}") Duration heartbeatInterval) {
+        this.changeFeed = changeFeed;
+        this.contactService = contactService;
+        this.heartbeatInterval = heartbeatInterval;
+    }
+
+    @GetMapping(value = "/contacts/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<ContactChangeSet>> streamChanges(
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        log.info("Change feed subscription - last event id: {}", lastEventId);
+
+        Flux<ServerSentEvent<ContactChangeSet>> changes = changeFeed.subscribe(lastEventId)
+                .map(this::toEvent)
+                .onErrorResume(SlowSubscriberException.class, ex -> Flux.just(toEvent(ex.toReset())));
+        Flux<ServerSentEvent<ContactChangeSet>> heartbeats = Flux.interval(heartbeatInterval)
+                .onBackpressureDrop()
+                .map(tick -> ServerSentEvent.<ContactChangeSet>builder().comment("heartbeat").build());
+
+        return changes.publish(shared -> Flux.merge(1, shared, heartbeats.takeUntilOther(shared.ignoreElements())), 1);
+    }
+
+    @GetMapping(value = "/contacts/sync", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ContactSyncResponse> sync(@RequestParam(required = false) String token) {
+        log.info("Received sync request - token: {}", token);
+
+        contactService.getAllContacts(null);
+        ContactSyncResponse response = changeFeed.sync(token);
+
+        log.info("Returning sync at version {} - full resync: {}, {} upserts, {} tombstones",
+                response.getVersion(), response.isFullResync(), response.getUpserts().size(), response.getTombstones().size());
+        return ResponseEntity.ok(response);
+    }
+
+    private ServerSentEvent<ContactChangeSet> toEvent(ContactChangeSet changes) {
+        return ServerSentEvent.<ContactChangeSet>builder()
+                .id(String.valueOf(changes.getVersion()))
+                .event(changes.isReset() ? "reset" : "changes")
+                .data(changes)
+                .build();
+    }
+}
@@ -1,17 +1,26 @@
 package com.kenect.api_aggregator.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kenect.api_aggregator.config.BinaryFormatsConfig;
 import com.kenect.api_aggregator.dto.ContactQueryParams;
 import com.kenect.api_aggregator.dto.PaginatedResponse;
 import com.kenect.api_aggregator.model.Contact;
 import com.kenect.api_aggregator.service.ContactService;
+import com.kenect.api_aggregator.service.ContactsResult;
+import com.kenect.api_aggregator.service.PageLayout;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -19,27 +28,43 @@ import java.util.List;
 @RestController
 @RequestMapping
 @Validated
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class ContactController {
 
     private final ContactService contactService;
+    private final ContactJsonStreamWriter streamWriter;
+    private final int streamingThreshold;
 
-    public ContactController(ContactService contactService) {
+    public ContactController(ContactService contactService,
+                             ObjectMapper objectMapper,
+                             @Value("${streaming.threshold:1000}") int streamingThreshold,
+                             @Value("${streaming.chunk-size:500}") int streamingChunkSize) {
         this.contactService = contactService;
+        this.streamWriter = new ContactJsonStreamWriter(objectMapper, streamingChunkSize);
+        this.streamingThreshold = streamingThreshold;
     }
 
-    @GetMapping(value = "/contacts", produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<?> getAllContacts(@Valid ContactQueryParams params) {
+    @GetMapping(value = "/contacts", produces = {
+            MediaType.APPLICATION_JSON_VALUE,
+            BinaryFormatsConfig.SMILE_VALUE,
+            BinaryFormatsConfig.CBOR_VALUE,
+            BinaryFormatsConfig.PROTOBUF_VALUE
+    })
+    public ResponseEntity<?> getAllContacts(@Valid ContactQueryParams params,
+                                            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
         
         if (params.hasPaginationParams()) {
             log.info("Received request to fetch contacts - page: {}, size: {}, source: {}", 
                     params.getPageOrDefault(), params.getSizeOrDefault(), params.getSource());
             
-            PaginatedResponse<Contact> response = contactService.getContactsPaginated(params);
+            ContactsResult<PaginatedResponse<Contact>> result = contactService.getContactsPaginated(params);
+            PaginatedResponse<Contact> response = result.data();
             
             log.info("Returning page {} with {} contacts out of {} total", 
                     response.getPage(), response.getContent().size(), response.getTotalElements());
             
             return ResponseEntity.ok()
+                    .headers(dataQualityHeaders(result))
                     .header("X-Total-Count", String.valueOf(response.getTotalElements()))
                     .header("X-Total-Pages", String.valueOf(response.getTotalPages()))
                     .header("X-Current-Page", String.valueOf(response.getPage()))
@@ -47,11 +72,46 @@ public class ContactController {
         } else {
             log.info("Received request to fetch all contacts - source: {}", params.getSource());
             
-            List<Contact> contacts = contactService.getAllContacts(params.getSource());
+            ContactsResult<List<Contact>> result = contactService.getAllContacts(params.getSource());
+            List<Contact> contacts = result.data();
             
             log.info("Returning {} contacts", contacts.size());
             
-            return ResponseEntity.ok(contacts);
+            if (contacts.size() >= streamingThreshold && !acceptsBinary(accept)) {
+                return ResponseEntity.ok()
+                        .headers(dataQualityHeaders(result))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body((StreamingResponseBody) out -> streamWriter.write(contacts, out));
+            }
+            
+            return ResponseEntity.ok().headers(dataQualityHeaders(result)).body(contacts);
+        }
+    }
+
+    private boolean acceptsBinary(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return false;
         }
+        return MediaType.parseMediaTypes(accept).stream()
+                .filter(mediaType -> !mediaType.isWildcardType())
+                .anyMatch(mediaType -> BinaryFormatsConfig.BINARY_MEDIA_TYPES.stream().anyMatch(mediaType::isCompatibleWith));
+    }
+
+    private HttpHeaders dataQualityHeaders(ContactsResult<?> result) {
+        HttpHeaders headers = new HttpHeaders();
+        result.staleSince().ifPresent(asOf -> {
+            headers.set("X-Data-Stale", "true");
+            headers.set("X-Data-As-Of", asOf.toString());
+        });
+        result.partial().ifPresent(layout -> {
+            headers.set("X-Partial-Content", "true");
+            if (!layout.missingPages().isEmpty()) {
+                headers.set("X-Missing-Pages", PageLayout.ranges(layout.missingPages()));
+            }
+            if (!layout.stalePages().isEmpty()) {
+                headers.set("X-Stale-Pages", PageLayout.ranges(layout.stalePages()));
+            }
+        });
+        return headers;
     }
 }
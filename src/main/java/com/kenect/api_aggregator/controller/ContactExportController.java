@@ -0,0 +1,121 @@
+package com.kenect.api_aggregator.controller;
+
+import com.kenect.api_aggregator.model.ExportFormat;
+import com.kenect.api_aggregator.service.ContactExportService;
+import com.kenect.api_aggregator.service.ContactExportService.ExportFile;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+@Slf4j
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class ContactExportController {
+
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private final ContactExportService exportService;
+
+    public ContactExportController(ContactExportService exportService) {
+        this.exportService = exportService;
+    }
+
+    @GetMapping("/contacts/export")
+    public void export(@RequestParam(defaultValue = "csv") String format,
+                       @RequestHeader(value = HttpHeaders.RANGE, required = false) String range,
+                       @RequestHeader(value = HttpHeaders.IF_RANGE, required = false) String ifRange,
+                       HttpServletRequest request,
+                       HttpServletResponse response) throws IOException {
+        ExportFile export = exportService.acquire(ExportFormat.fromValue(format), range != null ? ifRange : null);
+        try {
+            serve(export, range, ifRange, request, response);
+        } finally {
+            exportService.release(export);
+        }
+    }
+
+    private void serve(ExportFile export, String range, String ifRange,
+                       HttpServletRequest request, HttpServletResponse response) throws IOException {
+        long length = export.size();
+        long start = 0;
+        long end = length - 1;
+
+        response.setContentType(export.format().getContentType());
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader(HttpHeaders.ETAG, export.etag());
+        response.setDateHeader(HttpHeaders.LAST_MODIFIED, export.lastModified().toEpochMilli());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename("contacts." + export.format().getValue())
+                .build()
+                .toString());
+
+        if (range != null && (ifRange == null || ifRange.equals(export.etag()))) {
+            List<HttpRange> ranges;
+            try {
+                ranges = HttpRange.parseRanges(range);
+            } catch (IllegalArgumentException ex) {
+                ranges = List.of();
+            }
+
+            if (ranges.size() == 1) {
+                HttpRange httpRange = ranges.get(0);
+                try {
+                    start = httpRange.getRangeStart(length);
+                    end = httpRange.getRangeEnd(length);
+                } catch (IllegalArgumentException ex) {
+                    start = length;
+                }
+                if (start >= length || start > end) {
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                    response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                    return;
+                }
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+            }
+        }
+
+        long count = Math.max(0, end - start + 1);
+        response.setContentLengthLong(count);
+        log.info("Serving {} export: {} bytes from offset {}", export.format(), count, start);
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, export.path().toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, start + count);
+            return;
+        }
+
+        try (FileChannel file = FileChannel.open(export.path(), StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            long remaining = count;
+            while (remaining > 0) {
+                long transferred = file.transferTo(position, remaining, out);
+                if (transferred <= 0) {
+                    break;
+                }
+                position += transferred;
+                remaining -= transferred;
+            }
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.kenect.api_aggregator.controller;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.kenect.api_aggregator.model.Contact;
+import com.kenect.api_aggregator.service.OffHeapContactList;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * Writes a contact list as a JSON array straight to the response stream, flushing every chunk
+ * instead of buffering the whole document. Off-heap snapshots are copied out as pre-rendered
+ * fragments without decoding.
+ */
+public class ContactJsonStreamWriter {
+
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter contactWriter;
+    private final int chunkSize;
+
+    public ContactJsonStreamWriter(ObjectMapper objectMapper, int chunkSize) {
+        this.objectMapper = objectMapper;
+        this.contactWriter = objectMapper.writerFor(Contact.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.chunkSize = Math.max(1, chunkSize);
+    }
+
+    public void write(List<Contact> contacts, OutputStream outputStream) throws IOException {
+        if (contacts instanceof OffHeapContactList snapshot) {
+            writeFragments(snapshot, outputStream);
+            return;
+        }
+
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream, JsonEncoding.UTF8)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.writeStartArray();
+
+            int written = 0;
+            for (Contact contact : contacts) {
+                contactWriter.writeValue(generator, contact);
+                if (++written % chunkSize == 0) {
+                    generator.flush();
+                }
+            }
+
+            generator.writeEndArray();
+        }
+    }
+
+    private void writeFragments(OffHeapContactList snapshot, OutputStream outputStream) throws IOException {
+        outputStream.write('[');
+        for (int i = 0; i < snapshot.size(); i++) {
+            if (i > 0) {
+                outputStream.write(',');
+            }
+            snapshot.writeJson(i, outputStream);
+            if ((i + 1) % chunkSize == 0) {
+                outputStream.flush();
+            }
+        }
+        outputStream.write(']');
+        outputStream.flush();
+    }
+}
@@ -0,0 +1,117 @@
+package com.kenect.api_aggregator.controller;
+
+import com.kenect.api_aggregator.exception.RateLimitExceededException;
+import com.kenect.api_aggregator.exception.ServerOverloadedException;
+import com.kenect.api_aggregator.resilience.LoadShedder;
+import com.kenect.api_aggregator.resilience.TokenBucketRateLimiter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.availability.ApplicationAvailability;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.lang.Nullable;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Per-client rate limits and load shedding for {@code /contacts} and its sub-resources. Full-list
+ * requests and paginated requests draw from separate token buckets, because a full list costs far more
+ * to serialize than a page. Requests within their rate then pass through the {@link LoadShedder}, except
+ * on long-lived paths such as the change feed, whose connections would otherwise hold a permit for as
+ * long as they stay open. Limits apply only once the instance is ready, so the startup warm-up is not
+ * throttled.
+ */
+public class InboundLimitInterceptor implements HandlerInterceptor {
+
+    private static final String PERMIT_ATTRIBUTE = InboundLimitInterceptor.class.getName() + ".permit";
+
+    private final TokenBucketRateLimiter fullListLimiter;
+    private final TokenBucketRateLimiter paginatedLimiter;
+    private final LoadShedder loadShedder;
+    private final ApplicationAvailability availability;
+    private final Set<String> longLivedPaths;
+    private final String clientKeyHeader;
+    private final Duration shedRetryAfter;
+    private final Counter fullListRejections;
+    private final Counter paginatedRejections;
+    private final Counter shedRequests;
+
+    public InboundLimitInterceptor(TokenBucketRateLimiter fullListLimiter,
+                                   TokenBucketRateLimiter paginatedLimiter,
+                                   LoadShedder loadShedder,
+                                   @Nullable ApplicationAvailability availability,
+                                   Set<String> longLivedPaths,
+                                   String clientKeyHeader,
+                                   Duration shedRetryAfter,
+                                   MeterRegistry meterRegistry) {
+        this.fullListLimiter = fullListLimiter;
+        this.paginatedLimiter = paginatedLimiter;
+        this.loadShedder = loadShedder;
+        this.availability = availability;
+        this.longLivedPaths = longLivedPaths;
+        this.clientKeyHeader = clientKeyHeader;
+        this.shedRetryAfter = shedRetryAfter;
+        this.fullListRejections = rejections(meterRegistry, "rate-limit", "full-list");
+        this.paginatedRejections = rejections(meterRegistry, "rate-limit", "paginated");
+        this.shedRequests = rejections(meterRegistry, "overload", "any");
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+            throws InterruptedException {
+        // A streamed response comes back on an async dispatch that already holds its token and permit.
+        if (request.getDispatcherType() == DispatcherType.ASYNC) {
+            return true;
+        }
+        if (availability != null && availability.getReadinessState() != ReadinessState.ACCEPTING_TRAFFIC) {
+            return true;
+        }
+
+        boolean fullList = request.getParameter("page") == null && request.getParameter("size") == null;
+        String clientKey = clientKey(request);
+        Duration retryAfter = (fullList ? fullListLimiter : paginatedLimiter).tryAcquire(clientKey);
+        if (!retryAfter.isZero()) {
+            (fullList ? fullListRejections : paginatedRejections).increment();
+            throw new RateLimitExceededException(
+                    "Rate limit exceeded for " + (fullList ? "full-list" : "paginated") + " contacts requests",
+                    retryAfter);
+        }
+
+        if (longLivedPaths.contains(request.getRequestURI().substring(request.getContextPath().length()))) {
+            return true;
+        }
+        if (!loadShedder.tryAcquire()) {
+            shedRequests.increment();
+            throw new ServerOverloadedException("Too many requests in flight", shedRetryAfter);
+        }
+        request.setAttribute(PERMIT_ATTRIBUTE, Boolean.TRUE);
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                @Nullable Exception ex) {
+        if (request.getAttribute(PERMIT_ATTRIBUTE) != null) {
+            request.removeAttribute(PERMIT_ATTRIBUTE);
+            loadShedder.release();
+        }
+    }
+
+    // The remote address is already resolved from X-Forwarded-For by server.forward-headers-strategy.
+    private String clientKey(HttpServletRequest request) {
+        String apiKey = request.getHeader(clientKeyHeader);
+        return apiKey != null && !apiKey.isBlank() ? "key:" + apiKey : "ip:" + request.getRemoteAddr();
+    }
+
+    private static Counter rejections(MeterRegistry meterRegistry, String reason, String kind) {
+        return Counter.builder("kenect.inbound.rejected")
+                .description("Inbound /contacts requests rejected before reaching the controller")
+                .tag("reason", reason)
+                .tag("kind", kind)
+                .register(meterRegistry);
+    }
+}
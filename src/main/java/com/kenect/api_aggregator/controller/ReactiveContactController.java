@@ -0,0 +1,68 @@
+package com.kenect.api_aggregator.controller;
+
+import com.kenect.api_aggregator.dto.ContactQueryParams;
+import com.kenect.api_aggregator.dto.PaginatedResponse;
+import com.kenect.api_aggregator.model.Contact;
+import com.kenect.api_aggregator.service.ContactsResult;
+import com.kenect.api_aggregator.service.ReactiveContactService;
+import jakarta.validation.Valid;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+@Slf4j
+@RestController
+@RequestMapping
+@Validated
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveContactController {
+
+    private final ReactiveContactService contactService;
+
+    public ReactiveContactController(ReactiveContactService contactService) {
+        this.contactService = contactService;
+    }
+
+    @GetMapping(value = "/contacts", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<?>> getAllContacts(@Valid ContactQueryParams params) {
+
+        if (params.hasPaginationParams()) {
+            log.info("Received request to fetch contacts - page: {}, size: {}, source: {}",
+                    params.getPageOrDefault(), params.getSizeOrDefault(), params.getSource());
+
+            return contactService.getContactsPaginated(params)
+                    .map(result -> {
+                        PaginatedResponse<Contact> response = result.data();
+                        log.info("Returning page {} with {} contacts out of {} total",
+                                response.getPage(), response.getContent().size(), response.getTotalElements());
+
+                        return withStalenessHeaders(ResponseEntity.ok(), result)
+                                .header("X-Total-Count", String.valueOf(response.getTotalElements()))
+                                .header("X-Total-Pages", String.valueOf(response.getTotalPages()))
+                                .header("X-Current-Page", String.valueOf(response.getPage()))
+                                .body(response);
+                    });
+        }
+
+        log.info("Received request to fetch all contacts - source: {}", params.getSource());
+
+        return contactService.getAllContacts(params.getSource())
+                .map(result -> {
+                    log.info("Returning {} contacts", result.data().size());
+                    return withStalenessHeaders(ResponseEntity.ok(), result).body(result.data());
+                });
+    }
+
+    private ResponseEntity.BodyBuilder withStalenessHeaders(ResponseEntity.BodyBuilder builder, ContactsResult<?> result) {
+        result.staleSince().ifPresent(asOf -> builder
+                .header("X-Data-Stale", "true")
+                .header("X-Data-As-Of", asOf.toString()));
+        return builder;
+    }
+}
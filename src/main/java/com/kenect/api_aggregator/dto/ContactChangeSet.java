@@ -0,0 +1,46 @@
+package com.kenect.api_aggregator.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.kenect.api_aggregator.model.Contact;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ContactChangeSet {
+
+    private long fromVersion;
+    private long version;
+    private Instant asOf;
+    private boolean reset;
+
+    @Builder.Default
+    private List<Contact> added = List.of();
+
+    @Builder.Default
+    private List<Contact> updated = List.of();
+
+    @Builder.Default
+    private List<Long> removed = List.of();
+
+    public static ContactChangeSet reset(long version, Instant asOf) {
+        return ContactChangeSet.builder()
+                .fromVersion(version)
+                .version(version)
+                .asOf(asOf)
+                .reset(true)
+                .build();
+    }
+
+    @JsonIgnore
+    public boolean isEmpty() {
+        return !reset && added.isEmpty() && updated.isEmpty() && removed.isEmpty();
+    }
+}
@@ -0,0 +1,28 @@
+package com.kenect.api_aggregator.dto;
+
+import com.kenect.api_aggregator.model.Contact;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ContactSyncResponse {
+
+    private String token;
+    private long version;
+    private Instant asOf;
+    private boolean fullResync;
+
+    @Builder.Default
+    private List<Contact> upserts = List.of();
+
+    @Builder.Default
+    private List<Long> tombstones = List.of();
+}
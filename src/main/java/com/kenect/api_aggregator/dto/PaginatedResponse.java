@@ -5,6 +5,7 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.ArrayList;
 import java.util.List;
 
 @Data
@@ -22,4 +23,28 @@ public class PaginatedResponse<T> {
     private boolean hasPrevious;
     private boolean isFirst;
     private boolean isLast;
+
+    public static <T> PaginatedResponse<T> of(List<T> items, int page, int size) {
+        int totalElements = items.size();
+        int totalPages = (int) Math.ceil((double) totalElements / size);
+
+        int startIndex = (page - 1) * size;
+        int endIndex = Math.min(startIndex + size, totalElements);
+
+        List<T> pageContent = startIndex < totalElements
+                ? items.subList(startIndex, endIndex)
+                : new ArrayList<>();
+
+        return PaginatedResponse.<T>builder()
+                .content(pageContent)
+                .page(page)
+                .size(size)
+                .totalElements(totalElements)
+                .totalPages(totalPages)
+                .hasNext(page < totalPages)
+                .hasPrevious(page > 1)
+                .isFirst(page == 1)
+                .isLast(page >= totalPages)
+                .build();
+    }
 }
@@ -0,0 +1,10 @@
+package com.kenect.api_aggregator.exception;
+
+import java.time.Duration;
+
+public class ConcurrencyLimitExceededException extends UpstreamUnavailableException {
+
+    public ConcurrencyLimitExceededException(String message, Duration retryAfter) {
+        super(message, retryAfter);
+    }
+}
@@ -0,0 +1,8 @@
+package com.kenect.api_aggregator.exception;
+
+public class DeadlineExceededException extends ExternalApiException {
+
+    public DeadlineExceededException(String message) {
+        super(message);
+    }
+}
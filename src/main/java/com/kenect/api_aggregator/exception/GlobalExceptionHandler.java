@@ -3,17 +3,22 @@ package com.kenect.api_aggregator.exception;
 import jakarta.validation.ConstraintViolation;
 import jakarta.validation.ConstraintViolationException;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.support.WebExchangeBindException;
 import org.springframework.web.method.annotation.HandlerMethodValidationException;
 import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 
@@ -31,6 +36,46 @@ public class GlobalExceptionHandler {
         );
     }
 
+    @ExceptionHandler(DeadlineExceededException.class)
+    public ResponseEntity<Map<String, Object>> handleDeadlineExceededException(DeadlineExceededException ex) {
+        log.warn("Deadline exceeded: {}", ex.getMessage());
+        return buildErrorResponse(
+                HttpStatus.GATEWAY_TIMEOUT,
+                "Request deadline exceeded",
+                ex.getMessage()
+        );
+    }
+
+    @ExceptionHandler(UpstreamUnavailableException.class)
+    public ResponseEntity<Map<String, Object>> handleUpstreamUnavailableException(UpstreamUnavailableException ex) {
+        log.warn("External API unavailable: {}", ex.getMessage());
+        return withRetryAfter(buildErrorResponse(
+                HttpStatus.SERVICE_UNAVAILABLE,
+                "External service is temporarily unavailable",
+                ex.getMessage()
+        ), ex.getRetryAfter());
+    }
+
+    @ExceptionHandler(RateLimitExceededException.class)
+    public ResponseEntity<Map<String, Object>> handleRateLimitExceededException(RateLimitExceededException ex) {
+        log.warn("Rate limit exceeded: {}", ex.getMessage());
+        return withRetryAfter(buildErrorResponse(
+                HttpStatus.TOO_MANY_REQUESTS,
+                "Too many requests",
+                ex.getMessage()
+        ), ex.getRetryAfter());
+    }
+
+    @ExceptionHandler(ServerOverloadedException.class)
+    public ResponseEntity<Map<String, Object>> handleServerOverloadedException(ServerOverloadedException ex) {
+        log.warn("Shedding request: {}", ex.getMessage());
+        return withRetryAfter(buildErrorResponse(
+                HttpStatus.SERVICE_UNAVAILABLE,
+                "Server is temporarily overloaded",
+                ex.getMessage()
+        ), ex.getRetryAfter());
+    }
+
     @ExceptionHandler(ConstraintViolationException.class)
     public ResponseEntity<Map<String, Object>> handleConstraintViolationException(ConstraintViolationException ex) {
         String details = ex.getConstraintViolations().stream()
@@ -72,22 +117,12 @@ public class GlobalExceptionHandler {
 
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<Map<String, Object>> handleMethodArgumentNotValidException(MethodArgumentNotValidException ex) {
-        String details = ex.getBindingResult().getFieldErrors().stream()
-                .map(error -> {
-                    String defaultMessage = error.getDefaultMessage();
-                    if (defaultMessage != null && defaultMessage.contains("Failed to convert property value")) {
-                        return extractUserFriendlyMessage(defaultMessage);
-                    }
-                    return defaultMessage != null ? defaultMessage : "Validation failed";
-                })
-                .collect(Collectors.joining(", "));
-        
-        log.warn("Validation error: {}", details);
-        return buildErrorResponse(
-                HttpStatus.BAD_REQUEST,
-                "Invalid request parameters",
-                details
-        );
+        return handleFieldErrors(ex.getBindingResult().getFieldErrors());
+    }
+
+    @ExceptionHandler(WebExchangeBindException.class)
+    public ResponseEntity<Map<String, Object>> handleWebExchangeBindException(WebExchangeBindException ex) {
+        return handleFieldErrors(ex.getFieldErrors());
     }
 
     @ExceptionHandler(MethodArgumentTypeMismatchException.class)
@@ -153,6 +188,25 @@ public class GlobalExceptionHandler {
         );
     }
 
+    private ResponseEntity<Map<String, Object>> handleFieldErrors(List<FieldError> fieldErrors) {
+        String details = fieldErrors.stream()
+                .map(error -> {
+                    String defaultMessage = error.getDefaultMessage();
+                    if (defaultMessage != null && defaultMessage.contains("Failed to convert property value")) {
+                        return extractUserFriendlyMessage(defaultMessage);
+                    }
+                    return defaultMessage != null ? defaultMessage : "Validation failed";
+                })
+                .collect(Collectors.joining(", "));
+        
+        log.warn("Validation error: {}", details);
+        return buildErrorResponse(
+                HttpStatus.BAD_REQUEST,
+                "Invalid request parameters",
+                details
+        );
+    }
+
     private String extractUserFriendlyMessage(String errorMessage) {
         try {
             if (errorMessage.contains("ContactSource")) {
@@ -218,6 +272,14 @@ public class GlobalExceptionHandler {
         return "unknown";
     }
 
+    private ResponseEntity<Map<String, Object>> withRetryAfter(
+            ResponseEntity<Map<String, Object>> response, Duration retryAfter) {
+        long seconds = Math.max(1, (retryAfter.toMillis() + 999) / 1000);
+        return ResponseEntity.status(response.getStatusCode())
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(seconds))
+                .body(response.getBody());
+    }
+
     private ResponseEntity<Map<String, Object>> buildErrorResponse(
             HttpStatus status, String message, String details) {
         Map<String, Object> body = new LinkedHashMap<>();
@@ -0,0 +1,17 @@
+package com.kenect.api_aggregator.exception;
+
+import java.time.Duration;
+
+public class ServerOverloadedException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public ServerOverloadedException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -0,0 +1,17 @@
+package com.kenect.api_aggregator.exception;
+
+import java.time.Duration;
+
+public class UpstreamUnavailableException extends ExternalApiException {
+
+    private final Duration retryAfter;
+
+    public UpstreamUnavailableException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -1,6 +1,7 @@
 package com.kenect.api_aggregator.health;
 
 import com.kenect.api_aggregator.client.KenectLabsApiClient;
+import com.kenect.api_aggregator.resilience.CallPriority;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.actuate.health.Health;
 import org.springframework.boot.actuate.health.HealthIndicator;
@@ -19,7 +20,7 @@ public class ExternalApiHealthIndicator implements HealthIndicator {
     @Override
     public Health health() {
         try {
-            apiClient.fetchContactsPage(1);
+            apiClient.fetchContactsPage(1, CallPriority.BACKGROUND);
             return Health.up()
                     .withDetail("externalApi", "Kenect Labs API")
                     .withDetail("status", "reachable")
@@ -0,0 +1,39 @@
+package com.kenect.api_aggregator.model;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+public enum ExportFormat {
+    CSV("csv", "text/csv"),
+    NDJSON("ndjson", "application/x-ndjson");
+
+    private final String value;
+    private final String contentType;
+
+    ExportFormat(String value, String contentType) {
+        this.value = value;
+        this.contentType = contentType;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public static ExportFormat fromValue(String value) {
+        return Arrays.stream(values())
+                .filter(format -> format.value.equalsIgnoreCase(value))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException(String.format(
+                        "Invalid value '%s' for parameter 'format'. Valid values are: %s", value,
+                        Arrays.stream(values()).map(ExportFormat::getValue).collect(Collectors.joining(", ")))));
+    }
+
+    @Override
+    public String toString() {
+        return value;
+    }
+}
@@ -0,0 +1,230 @@
+package com.kenect.api_aggregator.resilience;
+
+import com.kenect.api_aggregator.exception.ConcurrencyLimitExceededException;
+import lombok.Builder;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.publisher.SignalType;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+
+/**
+ * AIMD concurrency limit for upstream calls. The limit grows by one per window of successful calls
+ * and shrinks multiplicatively on failures or when latency drifts above the smoothed baseline.
+ * Waiting callers are served strictly by priority.
+ */
+@Slf4j
+public class AdaptiveConcurrencyLimiter {
+
+    private static final double BASELINE_SMOOTHING = 0.05;
+
+    private final String name;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final double latencyTolerance;
+    private final int maxQueueSize;
+    private final Duration maxQueueWait;
+    private final Predicate<Throwable> recordFailure;
+    private final LongSupplier nanoClock;
+
+    private final Map<CallPriority, ArrayDeque<Waiter>> queues = new EnumMap<>(CallPriority.class);
+
+    private double limit;
+    private double baselineNanos;
+    private int inFlight;
+
+    @Builder
+    private AdaptiveConcurrencyLimiter(String name,
+                                       int initialLimit,
+                                       int minLimit,
+                                       int maxLimit,
+                                       double backoffRatio,
+                                       double latencyTolerance,
+                                       int maxQueueSize,
+                                       Duration maxQueueWait,
+                                       Predicate<Throwable> recordFailure,
+                                       LongSupplier nanoClock) {
+        this.name = name;
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.limit = Math.max(this.minLimit, Math.min(this.maxLimit, initialLimit));
+        this.backoffRatio = backoffRatio;
+        this.latencyTolerance = latencyTolerance;
+        this.maxQueueSize = maxQueueSize;
+        this.maxQueueWait = maxQueueWait;
+        this.recordFailure = recordFailure != null ? recordFailure : ex -> true;
+        this.nanoClock = nanoClock != null ? nanoClock : System::nanoTime;
+        for (CallPriority priority : CallPriority.values()) {
+            queues.put(priority, new ArrayDeque<>());
+        }
+    }
+
+    public <T> Mono<T> limit(Mono<T> call, CallPriority priority) {
+        return acquire(priority).flatMap(permit -> call
+                .doOnSuccess(value -> permit.release(true))
+                .doOnError(ex -> permit.release(!recordFailure.test(ex)))
+                .doFinally(signal -> {
+                    if (signal == SignalType.CANCEL) {
+                        permit.releaseWithoutSample();
+                    }
+                }));
+    }
+
+    public Mono<Permit> acquire(CallPriority priority) {
+        return Mono.<Permit>create(sink -> {
+                    ArrayDeque<Waiter> queue = queues.get(priority);
+                    Waiter waiter = null;
+                    Permit granted = null;
+
+                    synchronized (this) {
+                        if (inFlight < (int) limit && waitingAhead(priority) == 0) {
+                            inFlight++;
+                            granted = new Permit();
+                        } else if (queue.size() < maxQueueSize) {
+                            waiter = new Waiter(sink);
+                            queue.addLast(waiter);
+                        }
+                    }
+
+                    if (granted != null) {
+                        sink.success(granted);
+                    } else if (waiter == null) {
+                        sink.error(rejection(priority + " queue is full"));
+                    } else {
+                        Waiter queued = waiter;
+                        sink.onCancel(() -> cancel(priority, queued));
+                    }
+                })
+                .timeout(maxQueueWait, Mono.error(() -> rejection("Timed out waiting for a " + priority + " permit")));
+    }
+
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+
+    public synchronized int getQueueDepth(CallPriority priority) {
+        return queues.get(priority).size();
+    }
+
+    private int waitingAhead(CallPriority priority) {
+        int waiting = 0;
+        for (CallPriority other : CallPriority.values()) {
+            if (other.ordinal() <= priority.ordinal()) {
+                waiting += queues.get(other).size();
+            }
+        }
+        return waiting;
+    }
+
+    private void cancel(CallPriority priority, Waiter waiter) {
+        Permit granted;
+        synchronized (this) {
+            if (queues.get(priority).remove(waiter)) {
+                return;
+            }
+            granted = waiter.permit;
+        }
+
+        if (granted != null) {
+            granted.releaseWithoutSample();
+        }
+    }
+
+    private ConcurrencyLimitExceededException rejection(String reason) {
+        return new ConcurrencyLimitExceededException(
+                "Concurrency limit '" + name + "' reached: " + reason, Duration.ofSeconds(1));
+    }
+
+    private void onComplete(long latencyNanos, boolean success, boolean sample) {
+        Waiter next;
+        synchronized (this) {
+            inFlight--;
+            if (sample) {
+                adjustLimit(latencyNanos, success);
+            }
+            next = pollNext();
+            if (next != null) {
+                inFlight++;
+                next.permit = new Permit();
+            }
+        }
+
+        if (next != null) {
+            next.sink.success(next.permit);
+        }
+    }
+
+    private void adjustLimit(long latencyNanos, boolean success) {
+        boolean slow = baselineNanos > 0 && latencyNanos > baselineNanos * latencyTolerance;
+
+        if (!success || slow) {
+            double reduced = Math.max(minLimit, limit * backoffRatio);
+            if ((int) reduced < (int) limit) {
+                log.debug("Concurrency limit '{}' decreased to {} ({})", name, (int) reduced,
+                        success ? "latency " + latencyNanos / 1_000_000 + " ms" : "failure");
+            }
+            limit = reduced;
+        } else if (inFlight + 1 >= limit / 2) {
+            limit = Math.min(maxLimit, limit + 1.0 / limit);
+        }
+
+        if (success) {
+            baselineNanos = baselineNanos == 0
+                    ? latencyNanos
+                    : baselineNanos + BASELINE_SMOOTHING * (latencyNanos - baselineNanos);
+        }
+    }
+
+    private Waiter pollNext() {
+        if (inFlight >= (int) limit) {
+            return null;
+        }
+        for (CallPriority priority : CallPriority.values()) {
+            Waiter waiter = queues.get(priority).pollFirst();
+            if (waiter != null) {
+                return waiter;
+            }
+        }
+        return null;
+    }
+
+    private final class Waiter {
+
+        private final MonoSink<Permit> sink;
+        private Permit permit;
+
+        private Waiter(MonoSink<Permit> sink) {
+            this.sink = sink;
+        }
+    }
+
+    public final class Permit {
+
+        private final long startNanos = nanoClock.getAsLong();
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        public void release(boolean success) {
+            if (released.compareAndSet(false, true)) {
+                onComplete(nanoClock.getAsLong() - startNanos, success, true);
+            }
+        }
+
+        public void releaseWithoutSample() {
+            if (released.compareAndSet(false, true)) {
+                onComplete(0, true, false);
+            }
+        }
+    }
+}
@@ -0,0 +1,6 @@
+package com.kenect.api_aggregator.resilience;
+
+public enum CallPriority {
+    INTERACTIVE,
+    BACKGROUND
+}
@@ -0,0 +1,213 @@
+package com.kenect.api_aggregator.resilience;
+
+import com.kenect.api_aggregator.exception.CircuitBreakerOpenException;
+import lombok.Builder;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+
+@Slf4j
+public class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private static final byte SUCCESS = 0;
+    private static final byte FAILURE = 1;
+    private static final byte SLOW = 2;
+    private static final byte SLOW_FAILURE = FAILURE | SLOW;
+
+    private final String name;
+    private final int slidingWindowSize;
+    private final int minimumNumberOfCalls;
+    private final double failureRateThreshold;
+    private final double slowCallRateThreshold;
+    private final long slowCallDurationNanos;
+    private final long waitInOpenStateNanos;
+    private final int permittedCallsInHalfOpenState;
+    private final Predicate<Throwable> recordFailure;
+    private final LongSupplier nanoClock;
+
+    private final byte[] outcomes;
+    private int windowIndex;
+    private int windowCount;
+    private int failedCalls;
+    private int slowCalls;
+
+    private State state = State.CLOSED;
+    private long openedAtNanos;
+    private int halfOpenPermitsIssued;
+    private int halfOpenCallsCompleted;
+    private int halfOpenFailedCalls;
+    private int halfOpenSlowCalls;
+
+    @Builder
+    private CircuitBreaker(String name,
+                           int slidingWindowSize,
+                           int minimumNumberOfCalls,
+                           double failureRateThreshold,
+                           double slowCallRateThreshold,
+                           Duration slowCallDurationThreshold,
+                           Duration waitDurationInOpenState,
+                           int permittedCallsInHalfOpenState,
+                           Predicate<Throwable> recordFailure,
+                           LongSupplier nanoClock) {
+        this.name = name;
+        this.slidingWindowSize = slidingWindowSize;
+        this.minimumNumberOfCalls = Math.min(minimumNumberOfCalls, slidingWindowSize);
+        this.failureRateThreshold = failureRateThreshold;
+        this.slowCallRateThreshold = slowCallRateThreshold;
+        this.slowCallDurationNanos = slowCallDurationThreshold.toNanos();
+        this.waitInOpenStateNanos = waitDurationInOpenState.toNanos();
+        this.permittedCallsInHalfOpenState = permittedCallsInHalfOpenState;
+        this.recordFailure = recordFailure != null ? recordFailure : ex -> true;
+        this.nanoClock = nanoClock != null ? nanoClock : System::nanoTime;
+        this.outcomes = new byte[slidingWindowSize];
+    }
+
+    public <T> Mono<T> protect(Mono<T> call) {
+        return Mono.defer(() -> {
+            if (!tryAcquirePermission()) {
+                return Mono.error(new CircuitBreakerOpenException(
+                        "Circuit breaker '" + name + "' is open. Failing fast.", remainingOpenDuration()));
+            }
+
+            long startNanos = nanoClock.getAsLong();
+            AtomicBoolean recorded = new AtomicBoolean();
+            return call
+                    .doOnSuccess(value -> {
+                        if (recorded.compareAndSet(false, true)) {
+                            onSuccess(nanoClock.getAsLong() - startNanos);
+                        }
+                    })
+                    .doOnError(ex -> {
+                        if (recorded.compareAndSet(false, true)) {
+                            if (recordFailure.test(ex)) {
+                                onError(nanoClock.getAsLong() - startNanos);
+                            } else {
+                                onSuccess(nanoClock.getAsLong() - startNanos);
+                            }
+                        }
+                    })
+                    .doFinally(signal -> {
+                        if (signal == SignalType.CANCEL && recorded.compareAndSet(false, true)) {
+                            releasePermission();
+                        }
+                    });
+        });
+    }
+
+    public synchronized boolean tryAcquirePermission() {
+        if (state == State.OPEN) {
+            if (nanoClock.getAsLong() - openedAtNanos < waitInOpenStateNanos) {
+                return false;
+            }
+            transitionTo(State.HALF_OPEN);
+        }
+
+        if (state == State.HALF_OPEN) {
+            if (halfOpenPermitsIssued >= permittedCallsInHalfOpenState) {
+                return false;
+            }
+            halfOpenPermitsIssued++;
+        }
+
+        return true;
+    }
+
+    public synchronized void onSuccess(long durationNanos) {
+        record(durationNanos >= slowCallDurationNanos ? SLOW : SUCCESS);
+    }
+
+    public synchronized void onError(long durationNanos) {
+        record(durationNanos >= slowCallDurationNanos ? SLOW_FAILURE : FAILURE);
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    public synchronized Duration remainingOpenDuration() {
+        if (state != State.OPEN) {
+            return Duration.ZERO;
+        }
+        long remaining = waitInOpenStateNanos - (nanoClock.getAsLong() - openedAtNanos);
+        return Duration.ofNanos(Math.max(0, remaining));
+    }
+
+    private synchronized void releasePermission() {
+        if (state == State.HALF_OPEN && halfOpenPermitsIssued > halfOpenCallsCompleted) {
+            halfOpenPermitsIssued--;
+        }
+    }
+
+    private void record(byte outcome) {
+        if (state == State.OPEN) {
+            return;
+        }
+
+        if (state == State.HALF_OPEN) {
+            halfOpenCallsCompleted++;
+            halfOpenFailedCalls += outcome & FAILURE;
+            halfOpenSlowCalls += (outcome & SLOW) >> 1;
+            if (halfOpenCallsCompleted >= permittedCallsInHalfOpenState) {
+                boolean healthy = !exceedsThresholds(halfOpenFailedCalls, halfOpenSlowCalls, halfOpenCallsCompleted);
+                transitionTo(healthy ? State.CLOSED : State.OPEN);
+            }
+            return;
+        }
+
+        if (windowCount == slidingWindowSize) {
+            byte evicted = outcomes[windowIndex];
+            failedCalls -= evicted & FAILURE;
+            slowCalls -= (evicted & SLOW) >> 1;
+        } else {
+            windowCount++;
+        }
+        outcomes[windowIndex] = outcome;
+        failedCalls += outcome & FAILURE;
+        slowCalls += (outcome & SLOW) >> 1;
+        windowIndex = (windowIndex + 1) % slidingWindowSize;
+
+        if (windowCount < minimumNumberOfCalls) {
+            return;
+        }
+
+        if (exceedsThresholds(failedCalls, slowCalls, windowCount)) {
+            log.warn("Circuit breaker '{}' opening - failure rate: {}%, slow call rate: {}%",
+                    name, failedCalls * 100 / windowCount, slowCalls * 100 / windowCount);
+            transitionTo(State.OPEN);
+        }
+    }
+
+    private boolean exceedsThresholds(int failed, int slow, int total) {
+        return failed * 100.0 / total >= failureRateThreshold
+                || slow * 100.0 / total >= slowCallRateThreshold;
+    }
+
+    private void transitionTo(State newState) {
+        if (state == newState) {
+            return;
+        }
+
+        log.info("Circuit breaker '{}' transitioning from {} to {}", name, state, newState);
+        state = newState;
+        halfOpenPermitsIssued = 0;
+        halfOpenCallsCompleted = 0;
+        halfOpenFailedCalls = 0;
+        halfOpenSlowCalls = 0;
+
+        if (newState == State.OPEN) {
+            openedAtNanos = nanoClock.getAsLong();
+        } else if (newState == State.CLOSED) {
+            windowIndex = 0;
+            windowCount = 0;
+            failedCalls = 0;
+            slowCalls = 0;
+        }
+    }
+}
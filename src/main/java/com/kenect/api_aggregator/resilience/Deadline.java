@@ -0,0 +1,83 @@
+package com.kenect.api_aggregator.resilience;
+
+import com.kenect.api_aggregator.exception.DeadlineExceededException;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+import java.time.Duration;
+
+/**
+ * Point in time by which the caller needs an answer. Blocking code finds the current request's deadline
+ * in a thread-local and reactive code in the subscriber context, so upstream calls made on behalf of a
+ * request can give up, and cancel their in-flight work, once nobody is waiting for the result.
+ */
+public final class Deadline {
+
+    public static final String CONTEXT_KEY = Deadline.class.getName();
+
+    private static final ThreadLocal<Deadline> CURRENT = new ThreadLocal<>();
+
+    private final long deadlineNanos;
+
+    private Deadline(long deadlineNanos) {
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    public static Deadline after(Duration timeout) {
+        return new Deadline(System.nanoTime() + timeout.toNanos());
+    }
+
+    public static Deadline current() {
+        return CURRENT.get();
+    }
+
+    public static void set(Deadline deadline) {
+        if (deadline == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(deadline);
+        }
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    public static Deadline from(ContextView context) {
+        return context.getOrDefault(CONTEXT_KEY, null);
+    }
+
+    /**
+     * Fails {@code call} with {@link DeadlineExceededException}, cancelling it, if the deadline in the
+     * subscriber context passes first. Without a deadline in the context the call is returned unchanged.
+     */
+    public static <T> Mono<T> enforce(Mono<T> call, String operation) {
+        return Mono.deferContextual(context -> {
+            Deadline deadline = from(context);
+            if (deadline == null) {
+                return call;
+            }
+            if (deadline.isExpired()) {
+                return Mono.error(deadline.exceeded(operation));
+            }
+            return call.timeout(deadline.remaining(), Mono.error(() -> deadline.exceeded(operation)));
+        });
+    }
+
+    public Duration remaining() {
+        return Duration.ofNanos(Math.max(0, deadlineNanos - System.nanoTime()));
+    }
+
+    public boolean isExpired() {
+        return deadlineNanos - System.nanoTime() <= 0;
+    }
+
+    public Context writeTo(Context context) {
+        return context.put(CONTEXT_KEY, this);
+    }
+
+    public DeadlineExceededException exceeded(String operation) {
+        return new DeadlineExceededException("Request deadline exceeded while " + operation);
+    }
+}
@@ -0,0 +1,204 @@
+package com.kenect.api_aggregator.resilience;
+
+import lombok.Builder;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+
+/**
+ * Routes each upstream call to the best of several equivalent endpoints. An endpoint's cost is its EWMA
+ * latency multiplied by the calls it already has in flight, so a single call goes to the fastest
+ * endpoint while the parallel pages of a crawl spread across endpoints of similar speed. Endpoints that
+ * have no samples yet are costed optimistically so they get probed. A failed call fails over to the next
+ * best endpoint it has not tried. An endpoint that fails several times in a row is ejected for a while and
+ * is skipped until then, unless every other endpoint is ejected too.
+ */
+@Slf4j
+public class EndpointRouter {
+
+    private final String name;
+    private final List<Endpoint> endpoints;
+    private final double ewmaAlpha;
+    private final int failureThreshold;
+    private final long ejectNanos;
+    private final Predicate<Throwable> recordFailure;
+    private final LongSupplier nanoClock;
+
+    @Builder
+    private EndpointRouter(String name,
+                           List<String> baseUrls,
+                           double ewmaAlpha,
+                           int failureThreshold,
+                           Duration ejectDuration,
+                           Predicate<Throwable> recordFailure,
+                           LongSupplier nanoClock) {
+        if (baseUrls == null || baseUrls.isEmpty()) {
+            throw new IllegalArgumentException("Endpoint router '" + name + "' needs at least one base URL");
+        }
+        this.name = name;
+        this.endpoints = baseUrls.stream().map(Endpoint::new).toList();
+        this.ewmaAlpha = ewmaAlpha > 0 && ewmaAlpha <= 1 ? ewmaAlpha : 0.3;
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.ejectNanos = ejectDuration.toNanos();
+        this.recordFailure = recordFailure != null ? recordFailure : ex -> true;
+        this.nanoClock = nanoClock != null ? nanoClock : System::nanoTime;
+    }
+
+    public <T> Mono<T> route(Function<String, Mono<T>> call) {
+        return Mono.defer(() -> attempt(call, new HashSet<>()));
+    }
+
+    public List<Endpoint> getEndpoints() {
+        return endpoints;
+    }
+
+    private <T> Mono<T> attempt(Function<String, Mono<T>> call, Set<Endpoint> tried) {
+        Endpoint endpoint = acquire(tried);
+        tried.add(endpoint);
+        long startNanos = nanoClock.getAsLong();
+        AtomicBoolean done = new AtomicBoolean();
+
+        return call.apply(endpoint.baseUrl)
+                .doOnSuccess(value -> {
+                    if (done.compareAndSet(false, true)) {
+                        onSuccess(endpoint, nanoClock.getAsLong() - startNanos);
+                    }
+                })
+                .doOnCancel(() -> {
+                    if (done.compareAndSet(false, true)) {
+                        release(endpoint);
+                    }
+                })
+                .onErrorResume(ex -> {
+                    if (!done.compareAndSet(false, true)) {
+                        return Mono.error(ex);
+                    }
+                    if (!recordFailure.test(ex)) {
+                        onSuccess(endpoint, nanoClock.getAsLong() - startNanos);
+                        return Mono.error(ex);
+                    }
+
+                    onFailure(endpoint, nanoClock.getAsLong() - startNanos);
+                    if (tried.size() >= endpoints.size()) {
+                        return Mono.error(ex);
+                    }
+                    log.debug("Upstream call to {} failed ({}), failing over", endpoint.baseUrl, ex.getMessage());
+                    return attempt(call, tried);
+                });
+    }
+
+    synchronized Endpoint acquire(Set<Endpoint> excluded) {
+        long now = nanoClock.getAsLong();
+        double unsampledCost = endpoints.stream()
+                .filter(endpoint -> !Double.isNaN(endpoint.ewmaNanos))
+                .mapToDouble(endpoint -> endpoint.ewmaNanos)
+                .min()
+                .orElse(0);
+
+        Endpoint best = null;
+        double bestCost = Double.MAX_VALUE;
+        for (Endpoint endpoint : endpoints) {
+            if (excluded.contains(endpoint) || !endpoint.isAvailable(now)) {
+                continue;
+            }
+            double latency = Double.isNaN(endpoint.ewmaNanos) ? unsampledCost : endpoint.ewmaNanos;
+            double cost = latency * (endpoint.inFlight + 1);
+            if (best == null || cost < bestCost || (cost == bestCost && breaksTie(endpoint, best))) {
+                best = endpoint;
+                bestCost = cost;
+            }
+        }
+
+        if (best == null) {
+            // Every remaining endpoint is ejected: use the one that comes back first rather than failing.
+            for (Endpoint endpoint : endpoints) {
+                if (!excluded.contains(endpoint)
+                        && (best == null || endpoint.ejectedUntilNanos - best.ejectedUntilNanos < 0)) {
+                    best = endpoint;
+                }
+            }
+        }
+
+        best.inFlight++;
+        return best;
+    }
+
+    // On equal cost, probe an endpoint without samples first, then take the one with fewer calls in flight.
+    private static boolean breaksTie(Endpoint candidate, Endpoint best) {
+        boolean candidateUnsampled = Double.isNaN(candidate.ewmaNanos);
+        if (candidateUnsampled != Double.isNaN(best.ewmaNanos)) {
+            return candidateUnsampled;
+        }
+        return candidate.inFlight < best.inFlight;
+    }
+
+    private synchronized void release(Endpoint endpoint) {
+        endpoint.inFlight--;
+    }
+
+    private synchronized void onSuccess(Endpoint endpoint, long latencyNanos) {
+        endpoint.inFlight--;
+        endpoint.consecutiveFailures = 0;
+        endpoint.ejected = false;
+        endpoint.ewmaNanos = Double.isNaN(endpoint.ewmaNanos)
+                ? latencyNanos
+                : ewmaAlpha * latencyNanos + (1 - ewmaAlpha) * endpoint.ewmaNanos;
+    }
+
+    private synchronized void onFailure(Endpoint endpoint, long latencyNanos) {
+        endpoint.inFlight--;
+        endpoint.consecutiveFailures++;
+        // A failure must never make an endpoint look faster, even when it fails quickly.
+        endpoint.ewmaNanos = Double.isNaN(endpoint.ewmaNanos)
+                ? latencyNanos
+                : Math.max(endpoint.ewmaNanos * 2, latencyNanos);
+        if (endpoint.consecutiveFailures >= failureThreshold) {
+            endpoint.ejected = true;
+            endpoint.ejectedUntilNanos = nanoClock.getAsLong() + ejectNanos;
+            log.warn("Ejecting upstream endpoint {} of '{}' for {} ms after {} consecutive failures",
+                    endpoint.baseUrl, name, ejectNanos / 1_000_000, endpoint.consecutiveFailures);
+        }
+    }
+
+    public final class Endpoint {
+
+        private final String baseUrl;
+        private double ewmaNanos = Double.NaN;
+        private int inFlight;
+        private int consecutiveFailures;
+        private boolean ejected;
+        private long ejectedUntilNanos;
+
+        private Endpoint(String baseUrl) {
+            this.baseUrl = baseUrl;
+        }
+
+        public String getBaseUrl() {
+            return baseUrl;
+        }
+
+        public double getLatencyMillis() {
+            synchronized (EndpointRouter.this) {
+                return Double.isNaN(ewmaNanos) ? 0 : ewmaNanos / 1_000_000;
+            }
+        }
+
+        public boolean isHealthy() {
+            synchronized (EndpointRouter.this) {
+                return isAvailable(nanoClock.getAsLong());
+            }
+        }
+
+        private boolean isAvailable(long now) {
+            return !ejected || now - ejectedUntilNanos >= 0;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.kenect.api_aggregator.resilience;
+
+import com.kenect.api_aggregator.exception.UpstreamBackoffException;
+import lombok.Builder;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Negative cache for upstream failures. After a call for a key fails, further calls for that key fail
+ * fast with an {@link UpstreamBackoffException} until the backoff passes, so concurrent requests do not
+ * each start their own retry cycle against an upstream that is already failing. The backoff grows
+ * exponentially with consecutive failures and is cleared by the first success.
+ */
+@Slf4j
+public class FailureBackoff {
+
+    private final String name;
+    private final long initialDelayNanos;
+    private final long maxDelayNanos;
+    private final double multiplier;
+    private final Predicate<Throwable> recordFailure;
+    private final LongSupplier nanoClock;
+    private final Map<Object, Failures> failures = new ConcurrentHashMap<>();
+
+    @Builder
+    private FailureBackoff(String name,
+                           Duration initialDelay,
+                           Duration maxDelay,
+                           double multiplier,
+                           Predicate<Throwable> recordFailure,
+                           LongSupplier nanoClock) {
+        this.name = name;
+        this.initialDelayNanos = initialDelay.toNanos();
+        this.maxDelayNanos = Math.max(initialDelayNanos, maxDelay.toNanos());
+        this.multiplier = Math.max(1, multiplier);
+        this.recordFailure = recordFailure != null ? recordFailure : ex -> true;
+        this.nanoClock = nanoClock != null ? nanoClock : System::nanoTime;
+    }
+
+    public <T> T call(Object key, Supplier<T> call) {
+        UpstreamBackoffException backingOff = backingOff(key);
+        if (backingOff != null) {
+            throw backingOff;
+        }
+
+        T result;
+        try {
+            result = call.get();
+        } catch (RuntimeException ex) {
+            onFailure(key, ex);
+            throw ex;
+        }
+        failures.remove(key);
+        return result;
+    }
+
+    /**
+     * Reactive counterpart of {@link #call(Object, Supplier)}: the backoff is checked on subscription.
+     */
+    public <T> Mono<T> call(Object key, Mono<T> call) {
+        return Mono.defer(() -> {
+            UpstreamBackoffException backingOff = backingOff(key);
+            if (backingOff != null) {
+                return Mono.error(backingOff);
+            }
+            return call
+                    .doOnSuccess(value -> failures.remove(key))
+                    .doOnError(ex -> onFailure(key, ex));
+        });
+    }
+
+    public void reset() {
+        failures.clear();
+    }
+
+    public int getBackingOffCount() {
+        long now = nanoClock.getAsLong();
+        return (int) failures.values().stream().filter(recent -> recent.retryAtNanos() > now).count();
+    }
+
+    private UpstreamBackoffException backingOff(Object key) {
+        Failures recent = failures.get(key);
+        if (recent == null) {
+            return null;
+        }
+        long remainingNanos = recent.retryAtNanos() - nanoClock.getAsLong();
+        if (remainingNanos <= 0) {
+            return null;
+        }
+        return new UpstreamBackoffException("Upstream call '" + key + "' to '" + name + "' failed "
+                + recent.count() + " time(s) in a row (" + recent.lastError() + "). Backing off.",
+                Duration.ofNanos(remainingNanos));
+    }
+
+    private void onFailure(Object key, Throwable ex) {
+        if (!recordFailure.test(ex)) {
+            return;
+        }
+        Failures recorded = failures.compute(key, (k, previous) -> {
+            int count = previous != null ? previous.count() + 1 : 1;
+            double delay = initialDelayNanos * Math.pow(multiplier, count - 1);
+            long delayNanos = (long) Math.min(maxDelayNanos, delay);
+            return new Failures(count, nanoClock.getAsLong() + delayNanos, ex.getMessage());
+        });
+        log.warn("Upstream call '{}' to '{}' failed {} time(s) in a row; backing off for {} ms",
+                key, name, recorded.count(), (recorded.retryAtNanos() - nanoClock.getAsLong()) / 1_000_000);
+    }
+
+    private record Failures(int count, long retryAtNanos, String lastError) {
+    }
+}
@@ -0,0 +1,95 @@
+package com.kenect.api_aggregator.resilience;
+
+import lombok.Builder;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.UnaryOperator;
+
+@Slf4j
+public class HedgingPolicy {
+
+    private final boolean enabled;
+    private final double percentile;
+    private final Duration minDelay;
+    private final Duration maxDelay;
+    private final int minSamples;
+    private final RequestBudget budget;
+    private final LatencyTracker latencyTracker;
+
+    private final AtomicLong hedgesSent = new AtomicLong();
+    private final AtomicLong hedgesWon = new AtomicLong();
+
+    @Builder
+    private HedgingPolicy(boolean enabled, double percentile, Duration minDelay, Duration maxDelay,
+                          int minSamples, RequestBudget budget, LatencyTracker latencyTracker) {
+        this.enabled = enabled;
+        this.percentile = percentile;
+        this.minDelay = minDelay;
+        this.maxDelay = maxDelay;
+        this.minSamples = minSamples;
+        this.budget = budget;
+        this.latencyTracker = latencyTracker;
+    }
+
+    public <T> Mono<T> apply(Mono<T> call) {
+        return apply(call, UnaryOperator.identity());
+    }
+
+    /**
+     * Like {@link #apply(Mono)}, but the hedged request is first passed through {@code hedgeAdmission},
+     * e.g. to take a rate token. Only the request itself is timed, not the wait for admission.
+     */
+    public <T> Mono<T> apply(Mono<T> call, UnaryOperator<Mono<T>> hedgeAdmission) {
+        if (!enabled) {
+            return timed(call);
+        }
+
+        return Mono.defer(() -> {
+            budget.recordRequest();
+            Duration delay = hedgeDelay();
+            if (delay == null) {
+                return timed(call);
+            }
+
+            Mono<T> hedge = Mono.delay(delay)
+                    .then(Mono.defer(() -> {
+                        if (!budget.tryWithdraw()) {
+                            return Mono.<T>never();
+                        }
+                        hedgesSent.incrementAndGet();
+                        log.debug("No response after {} ms. Sending hedged request", delay.toMillis());
+                        return hedgeAdmission.apply(timed(call)).doOnNext(value -> hedgesWon.incrementAndGet());
+                    }));
+
+            return Mono.firstWithSignal(timed(call), hedge);
+        });
+    }
+
+    public Duration hedgeDelay() {
+        if (latencyTracker.getSampleCount() < minSamples) {
+            return null;
+        }
+
+        long delayNanos = latencyTracker.percentileNanos(percentile);
+        delayNanos = Math.max(minDelay.toNanos(), Math.min(maxDelay.toNanos(), delayNanos));
+        return Duration.ofNanos(delayNanos);
+    }
+
+    public long getHedgesSent() {
+        return hedgesSent.get();
+    }
+
+    public long getHedgesWon() {
+        return hedgesWon.get();
+    }
+
+    private <T> Mono<T> timed(Mono<T> call) {
+        return Mono.defer(() -> {
+            long startNanos = System.nanoTime();
+            return call.doOnNext(value -> latencyTracker.record(System.nanoTime() - startNanos));
+        });
+    }
+}
@@ -0,0 +1,40 @@
+package com.kenect.api_aggregator.resilience;
+
+import java.util.Arrays;
+
+public class LatencyTracker {
+
+    private final long[] samples;
+    private int index;
+    private int count;
+
+    public LatencyTracker(int windowSize) {
+        this.samples = new long[windowSize];
+    }
+
+    public synchronized void record(long latencyNanos) {
+        samples[index] = latencyNanos;
+        index = (index + 1) % samples.length;
+        if (count < samples.length) {
+            count++;
+        }
+    }
+
+    public synchronized int getSampleCount() {
+        return count;
+    }
+
+    public long percentileNanos(double percentile) {
+        long[] snapshot;
+        synchronized (this) {
+            if (count == 0) {
+                return 0;
+            }
+            snapshot = Arrays.copyOf(samples, count);
+        }
+
+        Arrays.sort(snapshot);
+        int rank = (int) Math.ceil(percentile / 100.0 * snapshot.length) - 1;
+        return snapshot[Math.max(0, Math.min(rank, snapshot.length - 1))];
+    }
+}
@@ -0,0 +1,82 @@
+package com.kenect.api_aggregator.resilience;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Bounds concurrent inbound requests and sheds load once requests start queueing persistently.
+ * Up to {@code maxConcurrent} requests run at once and the rest wait up to {@code maxQueueWait} for a
+ * slot. As in CoDel, if even the shortest queue wait seen during an interval exceeded
+ * {@code targetQueueDelay}, the queue is standing rather than absorbing a burst. Until an interval
+ * passes without that, requests that cannot run immediately are rejected instead of queued.
+ */
+public class LoadShedder {
+
+    private final Semaphore permits;
+    private final int maxConcurrent;
+    private final long maxQueueWaitNanos;
+    private final long targetQueueDelayNanos;
+    private final long intervalNanos;
+    private final LongSupplier nanoClock;
+
+    private volatile boolean overloaded;
+    private long intervalStartNanos;
+    private long intervalMinDelayNanos = Long.MAX_VALUE;
+
+    public LoadShedder(int maxConcurrent, Duration maxQueueWait, Duration targetQueueDelay, Duration interval) {
+        this(maxConcurrent, maxQueueWait, targetQueueDelay, interval, System::nanoTime);
+    }
+
+    LoadShedder(int maxConcurrent, Duration maxQueueWait, Duration targetQueueDelay, Duration interval,
+                LongSupplier nanoClock) {
+        this.maxConcurrent = Math.max(1, maxConcurrent);
+        this.permits = new Semaphore(this.maxConcurrent, true);
+        this.maxQueueWaitNanos = maxQueueWait.toNanos();
+        this.targetQueueDelayNanos = targetQueueDelay.toNanos();
+        this.intervalNanos = interval.toNanos();
+        this.nanoClock = nanoClock;
+        this.intervalStartNanos = nanoClock.getAsLong();
+    }
+
+    /**
+     * Returns {@code true} when the caller may proceed and must call {@link #release()} afterwards.
+     */
+    public boolean tryAcquire() throws InterruptedException {
+        if (permits.tryAcquire(0, TimeUnit.NANOSECONDS)) {
+            recordQueueDelay(0);
+            return true;
+        }
+        if (overloaded) {
+            return false;
+        }
+
+        long start = nanoClock.getAsLong();
+        boolean acquired = permits.tryAcquire(maxQueueWaitNanos, TimeUnit.NANOSECONDS);
+        recordQueueDelay(acquired ? nanoClock.getAsLong() - start : maxQueueWaitNanos);
+        return acquired;
+    }
+
+    public void release() {
+        permits.release();
+    }
+
+    public int getInFlight() {
+        return maxConcurrent - permits.availablePermits();
+    }
+
+    public boolean isOverloaded() {
+        return overloaded;
+    }
+
+    private synchronized void recordQueueDelay(long delayNanos) {
+        intervalMinDelayNanos = Math.min(intervalMinDelayNanos, delayNanos);
+        long now = nanoClock.getAsLong();
+        if (now - intervalStartNanos >= intervalNanos) {
+            overloaded = intervalMinDelayNanos > targetQueueDelayNanos;
+            intervalStartNanos = now;
+            intervalMinDelayNanos = Long.MAX_VALUE;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.kenect.api_aggregator.resilience;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Caps extra upstream traffic (retries, hedges) to a fraction of regular requests.
+ * Every regular request deposits {@code ratio} tokens, every extra request withdraws one,
+ * and a small reserve refills over time so low-traffic periods can still retry.
+ */
+public class RequestBudget {
+
+    private static final double NANOS_PER_SECOND = 1_000_000_000d;
+    private static final double EPSILON = 1e-9;
+
+    private final double ratio;
+    private final double minPerSecond;
+    private final double maxBalance;
+    private final LongSupplier nanoClock;
+
+    private double balance;
+    private long lastRefillNanos;
+
+    public RequestBudget(double ratio, double minPerSecond, double maxBalance) {
+        this(ratio, minPerSecond, maxBalance, System::nanoTime);
+    }
+
+    RequestBudget(double ratio, double minPerSecond, double maxBalance, LongSupplier nanoClock) {
+        this.ratio = ratio;
+        this.minPerSecond = minPerSecond;
+        this.maxBalance = maxBalance;
+        this.nanoClock = nanoClock;
+        this.balance = maxBalance;
+        this.lastRefillNanos = nanoClock.getAsLong();
+    }
+
+    public synchronized void recordRequest() {
+        refill();
+        balance = Math.min(maxBalance, balance + ratio);
+    }
+
+    public synchronized boolean tryWithdraw() {
+        refill();
+        if (balance < 1 - EPSILON) {
+            return false;
+        }
+        balance = Math.max(0, balance - 1);
+        return true;
+    }
+
+    public synchronized double getBalance() {
+        refill();
+        return balance;
+    }
+
+    private void refill() {
+        long now = nanoClock.getAsLong();
+        double elapsedSeconds = (now - lastRefillNanos) / NANOS_PER_SECOND;
+        lastRefillNanos = now;
+        balance = Math.min(maxBalance, balance + elapsedSeconds * minPerSecond);
+    }
+}
@@ -0,0 +1,67 @@
+package com.kenect.api_aggregator.resilience;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * Token bucket per client key. Each client starts with {@code capacity} tokens, which refill at
+ * {@code refillPerSecond}. A bucket idle long enough to be full again is dropped, and at most
+ * {@code maxClients} buckets are kept, so a flood of distinct keys cannot grow the map without bound.
+ */
+public class TokenBucketRateLimiter {
+
+    private static final double NANOS_PER_SECOND = 1_000_000_000d;
+
+    private final double capacity;
+    private final double refillPerSecond;
+    private final LongSupplier nanoClock;
+    private final Cache<String, Bucket> buckets;
+
+    public TokenBucketRateLimiter(double capacity, double refillPerSecond, long maxClients) {
+        this(capacity, refillPerSecond, maxClients, System::nanoTime);
+    }
+
+    TokenBucketRateLimiter(double capacity, double refillPerSecond, long maxClients, LongSupplier nanoClock) {
+        this.capacity = Math.max(1, capacity);
+        this.refillPerSecond = refillPerSecond;
+        this.nanoClock = nanoClock;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxClients)
+                .expireAfterAccess(Duration.ofNanos((long) Math.ceil(this.capacity / refillPerSecond * NANOS_PER_SECOND)))
+                .ticker(nanoClock::getAsLong)
+                .build();
+    }
+
+    /**
+     * Takes a token for the client. Returns {@link Duration#ZERO} when one was available, otherwise
+     * how long until the next token is.
+     */
+    public Duration tryAcquire(String clientKey) {
+        long now = nanoClock.getAsLong();
+        return buckets.get(clientKey, key -> new Bucket(capacity, now)).tryTake(now);
+    }
+
+    private final class Bucket {
+
+        private double tokens;
+        private long lastRefillNanos;
+
+        private Bucket(double tokens, long now) {
+            this.tokens = tokens;
+            this.lastRefillNanos = now;
+        }
+
+        private synchronized Duration tryTake(long now) {
+            tokens = Math.min(capacity, tokens + (now - lastRefillNanos) / NANOS_PER_SECOND * refillPerSecond);
+            lastRefillNanos = now;
+            if (tokens >= 1) {
+                tokens -= 1;
+                return Duration.ZERO;
+            }
+            return Duration.ofNanos((long) Math.ceil((1 - tokens) / refillPerSecond * NANOS_PER_SECOND));
+        }
+    }
+}
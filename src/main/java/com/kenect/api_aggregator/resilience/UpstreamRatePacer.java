@@ -0,0 +1,163 @@
+package com.kenect.api_aggregator.resilience;
+
+import com.kenect.api_aggregator.exception.UpstreamUnavailableException;
+import lombok.Builder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * Client-side token bucket that spreads upstream calls over time instead of bursting into the upstream
+ * quota and being throttled. The rate starts at the configured maximum and follows the quota the
+ * upstream reports: the remaining requests are spread evenly over the time left until the window resets.
+ * A 429 pauses every call until its Retry-After and halves the rate, which then recovers additively
+ * while responses carry no quota headers.
+ */
+@Slf4j
+public class UpstreamRatePacer {
+
+    private static final double NANOS_PER_SECOND = 1_000_000_000d;
+    private static final long EPOCH_SECONDS_THRESHOLD = 1_000_000_000L;
+    private static final Duration DEFAULT_PAUSE = Duration.ofSeconds(1);
+    private static final String[] REMAINING_HEADERS = {"RateLimit-Remaining", "X-RateLimit-Remaining"};
+    private static final String[] RESET_HEADERS = {"RateLimit-Reset", "X-RateLimit-Reset"};
+
+    private final String name;
+    private final double maxRate;
+    private final double minRate;
+    private final double burst;
+    private final double recoveryStep;
+    private final long maxWaitNanos;
+    private final LongSupplier nanoClock;
+
+    private double rate;
+    private double tokens;
+    private long lastRefillNanos;
+    private long pausedUntilNanos;
+    private double remainingQuota = Double.NaN;
+
+    @Builder
+    private UpstreamRatePacer(String name,
+                              double ratePerSecond,
+                              double minRatePerSecond,
+                              double burst,
+                              Duration maxWait,
+                              LongSupplier nanoClock) {
+        this.name = name;
+        this.maxRate = ratePerSecond;
+        this.minRate = Math.min(ratePerSecond, minRatePerSecond > 0 ? minRatePerSecond : ratePerSecond / 100);
+        this.burst = Math.max(1, burst);
+        this.recoveryStep = ratePerSecond / 20;
+        this.maxWaitNanos = maxWait.toNanos();
+        this.nanoClock = nanoClock != null ? nanoClock : System::nanoTime;
+        this.rate = ratePerSecond;
+        this.tokens = this.burst;
+        this.lastRefillNanos = this.nanoClock.getAsLong();
+        this.pausedUntilNanos = lastRefillNanos;
+    }
+
+    public <T> Mono<T> pace(Mono<T> call) {
+        return Mono.defer(() -> {
+            long waitNanos = reserve();
+            if (waitNanos < 0) {
+                return Mono.error(new UpstreamUnavailableException(
+                        "Upstream rate limit '" + name + "' would delay the call beyond " + maxWaitNanos / 1_000_000 + " ms",
+                        Duration.ofNanos(-waitNanos)));
+            }
+            if (waitNanos == 0) {
+                return call;
+            }
+            return Mono.delay(Duration.ofNanos(waitNanos))
+                    .doOnCancel(this::refund)
+                    .then(call);
+        });
+    }
+
+    public synchronized void onResponse(int status, HttpHeaders headers) {
+        long now = nanoClock.getAsLong();
+        refill(now);
+
+        Double remaining = header(headers, REMAINING_HEADERS);
+        Double reset = header(headers, RESET_HEADERS);
+        if (remaining != null) {
+            remainingQuota = remaining;
+        }
+
+        if (status == 429) {
+            Duration pause = UpstreamRetryPolicy.parseRetryAfter(headers.getFirst(HttpHeaders.RETRY_AFTER));
+            pauseFor(now, pause != null ? pause : DEFAULT_PAUSE);
+            rate = Math.max(minRate, rate / 2);
+            log.debug("Upstream rate limit '{}' throttled; pacing at {} req/s", name, rate);
+        } else if (remaining != null && reset != null) {
+            double resetSeconds = reset >= EPOCH_SECONDS_THRESHOLD
+                    ? reset - System.currentTimeMillis() / 1000d
+                    : reset;
+            resetSeconds = Math.max(1, resetSeconds);
+            if (remaining < 1) {
+                pauseFor(now, Duration.ofMillis((long) (resetSeconds * 1000)));
+            } else {
+                rate = Math.max(minRate, Math.min(maxRate, remaining / resetSeconds));
+                tokens = Math.min(tokens, remaining);
+            }
+        } else if (status < 400) {
+            rate = Math.min(maxRate, rate + recoveryStep);
+        }
+    }
+
+    public synchronized double getRate() {
+        return rate;
+    }
+
+    public synchronized double getRemainingQuota() {
+        return remainingQuota;
+    }
+
+    synchronized long reserve() {
+        long now = nanoClock.getAsLong();
+        refill(now);
+
+        long pauseNanos = Math.max(0, pausedUntilNanos - now);
+        double deficit = 1 - tokens;
+        long waitNanos = pauseNanos + (deficit > 0 ? (long) Math.ceil(deficit / rate * NANOS_PER_SECOND) : 0);
+        if (waitNanos > maxWaitNanos) {
+            return -waitNanos;
+        }
+
+        tokens -= 1;
+        return waitNanos;
+    }
+
+    private synchronized void refund() {
+        tokens = Math.min(burst, tokens + 1);
+    }
+
+    private void refill(long now) {
+        long from = Math.max(lastRefillNanos, pausedUntilNanos);
+        if (now > from) {
+            tokens = Math.min(burst, tokens + (now - from) / NANOS_PER_SECOND * rate);
+        }
+        lastRefillNanos = Math.max(lastRefillNanos, now);
+    }
+
+    private void pauseFor(long now, Duration pause) {
+        pausedUntilNanos = Math.max(pausedUntilNanos, now + pause.toNanos());
+        tokens = Math.min(tokens, 0);
+    }
+
+    private static Double header(HttpHeaders headers, String[] names) {
+        for (String headerName : names) {
+            String value = headers.getFirst(headerName);
+            if (value != null) {
+                try {
+                    return Double.parseDouble(value.trim());
+                } catch (NumberFormatException ex) {
+                    log.debug("Ignoring unparseable {} header: {}", headerName, value);
+                }
+            }
+        }
+        return null;
+    }
+}
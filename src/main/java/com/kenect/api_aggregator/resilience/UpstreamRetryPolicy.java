@@ -0,0 +1,119 @@
+package com.kenect.api_aggregator.resilience;
+
+import lombok.Builder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeoutException;
+
+@Slf4j
+@Builder
+public class UpstreamRetryPolicy {
+
+    private static final Set<Integer> RETRY_AFTER_STATUSES = Set.of(429, 503);
+
+    private final int maxAttempts;
+    private final Duration initialDelay;
+    private final Duration maxDelay;
+    private final double multiplier;
+    private final Set<Integer> retryableStatuses;
+    private final Duration maxRetryAfter;
+    private final RequestBudget budget;
+
+    public <T> Mono<T> apply(Mono<T> call) {
+        return Mono.deferContextual(context -> {
+            budget.recordRequest();
+            Deadline deadline = Deadline.from(context);
+            return call.retryWhen(Retry.from(signals -> signals.concatMap(signal -> nextAttempt(signal, deadline))));
+        });
+    }
+
+    public boolean isRetryable(Throwable failure) {
+        if (failure instanceof WebClientResponseException responseException) {
+            return retryableStatuses.contains(responseException.getStatusCode().value());
+        }
+        return failure instanceof WebClientRequestException || failure instanceof TimeoutException;
+    }
+
+    Duration backoff(long retryNumber, Throwable failure) {
+        double exponential = initialDelay.toMillis() * Math.pow(multiplier, retryNumber);
+        long cap = (long) Math.min(maxDelay.toMillis(), exponential);
+        long jittered = cap > 0 ? ThreadLocalRandom.current().nextLong(cap + 1) : 0;
+
+        Duration retryAfter = retryAfter(failure);
+        if (retryAfter != null && retryAfter.toMillis() > jittered) {
+            return retryAfter;
+        }
+        return Duration.ofMillis(jittered);
+    }
+
+    Duration retryAfter(Throwable failure) {
+        if (!(failure instanceof WebClientResponseException responseException)
+                || !RETRY_AFTER_STATUSES.contains(responseException.getStatusCode().value())) {
+            return null;
+        }
+
+        return parseRetryAfter(responseException.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+    }
+
+    static Duration parseRetryAfter(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+
+        try {
+            return Duration.ofSeconds(Long.parseLong(value.trim()));
+        } catch (NumberFormatException ignored) {
+            // not delta-seconds, try HTTP-date
+        }
+
+        try {
+            ZonedDateTime retryAt = ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME);
+            Duration delay = Duration.between(ZonedDateTime.now(retryAt.getZone()), retryAt);
+            return delay.isNegative() ? Duration.ZERO : delay;
+        } catch (DateTimeParseException ex) {
+            log.debug("Ignoring unparseable Retry-After header: {}", value);
+            return null;
+        }
+    }
+
+    private Mono<Long> nextAttempt(Retry.RetrySignal signal, Deadline deadline) {
+        Throwable failure = signal.failure();
+        long retryNumber = signal.totalRetries();
+
+        if (!isRetryable(failure) || retryNumber + 1 >= maxAttempts) {
+            return Mono.error(failure);
+        }
+
+        Duration delay = backoff(retryNumber, failure);
+        if (delay.compareTo(maxRetryAfter) > 0) {
+            log.warn("Upstream asked to retry after {} ms, above the {} ms limit. Giving up.",
+                    delay.toMillis(), maxRetryAfter.toMillis());
+            return Mono.error(failure);
+        }
+
+        if (deadline != null && delay.compareTo(deadline.remaining()) >= 0) {
+            log.warn("Not retrying: request deadline expires before the next attempt in {} ms", delay.toMillis());
+            return Mono.error(failure);
+        }
+
+        if (!budget.tryWithdraw()) {
+            log.warn("Retry budget exhausted. Not retrying: {}", failure.getMessage());
+            return Mono.error(failure);
+        }
+
+        log.warn("Retrying upstream call in {} ms (attempt {}/{}): {}",
+                delay.toMillis(), retryNumber + 2, maxAttempts, failure.getMessage());
+        return Mono.delay(delay);
+    }
+}
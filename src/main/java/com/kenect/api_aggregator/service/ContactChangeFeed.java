@@ -0,0 +1,266 @@
+package com.kenect.api_aggregator.service;
+
+import com.kenect.api_aggregator.config.CacheMemoryBudget;
+import com.kenect.api_aggregator.config.RetainedSizeWeigher;
+import com.kenect.api_aggregator.dto.ContactChangeSet;
+import com.kenect.api_aggregator.dto.ContactSyncResponse;
+import com.kenect.api_aggregator.model.Contact;
+import com.kenect.api_aggregator.service.ContactStampsIndex.Stamps;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Turns every new contacts snapshot into a change set against the previous version and pushes it to
+ * subscribers. A partial snapshot is skipped, so its missing pages are not reported as removals; the
+ * next complete snapshot is diffed against the last complete one. Recent change sets are kept for resuming from a last seen version and for delta sync
+ * tokens, up to {@code changes.history-size} change sets or the change history share of the
+ * {@link CacheMemoryBudget}, whichever is reached first. Each subscriber has a bounded buffer; a
+ * subscriber that falls behind is told to reset instead of buffering without limit.
+ */
+@Slf4j
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class ContactChangeFeed {
+
+    static final ContactStampsIndex STAMPS = new ContactStampsIndex();
+
+    private final long epoch = System.currentTimeMillis();
+    private final int historySize;
+    private final int subscriberBufferSize;
+    private final long maxHistoryBytes;
+    private final ArrayDeque<ContactChangeSet> history = new ArrayDeque<>();
+    private long historyBytes;
+    private final Set<Sinks.Many<ContactChangeSet>> subscribers = ConcurrentHashMap.newKeySet();
+    private ContactSnapshot previous;
+
+    public ContactChangeFeed(ContactSnapshotHolder snapshotHolder, CacheMemoryBudget memoryBudget,
+                             @Value("${changes.history-size:64}") int historySize,
+                             @Value("${changes.subscriber-buffer-size:16}") int subscriberBufferSize) {
+        this.historySize = Math.max(1, historySize);
+        this.subscriberBufferSize = Math.max(1, subscriberBufferSize);
+        this.maxHistoryBytes = memoryBudget.changeHistoryBytes();
+        snapshotHolder.register(STAMPS);
+    }
+
+    @EventListener
+    public synchronized void onSnapshot(ContactSnapshotEvent event) {
+        ContactSnapshot current = event.snapshot();
+        if (previous != null && current.version() <= previous.version()) {
+            return;
+        }
+        if (previous != null && current.layout().isPartial()) {
+            // Contacts on missing pages would look removed and come back as added once the snapshot is
+            // repaired. Wait for a complete snapshot and diff it against the last complete one instead.
+            log.debug("Not diffing partial contacts snapshot version {} against version {}",
+                    current.version(), previous.version());
+            return;
+        }
+
+        if (previous != null) {
+            ContactChangeSet changes = diff(previous, current);
+            record(changes);
+            if (!changes.isEmpty()) {
+                log.info("Contacts changed between versions {} and {}: {} added, {} updated, {} removed",
+                        changes.getFromVersion(), changes.getVersion(),
+                        changes.getAdded().size(), changes.getUpdated().size(), changes.getRemoved().size());
+                subscribers.forEach(subscriber -> offer(subscriber, changes));
+            }
+        }
+        previous = current;
+    }
+
+    private void record(ContactChangeSet changes) {
+        history.addLast(changes);
+        historyBytes += RetainedSizeWeigher.estimate(changes);
+        while (!history.isEmpty() && (history.size() > historySize || historyBytes > maxHistoryBytes)) {
+            historyBytes -= RetainedSizeWeigher.estimate(history.removeFirst());
+        }
+    }
+
+    public synchronized Flux<ContactChangeSet> subscribe(Long lastEventId) {
+        List<ContactChangeSet> replay = replay(lastEventId);
+        Sinks.Many<ContactChangeSet> subscriber = Sinks.many().unicast()
+                .onBackpressureBuffer(new ArrayBlockingQueue<>(subscriberBufferSize + replay.size()));
+        replay.forEach(changes -> subscriber.tryEmitNext(changes));
+        subscribers.add(subscriber);
+
+        return subscriber.asFlux()
+                .doFinally(signal -> subscribers.remove(subscriber));
+    }
+
+    public synchronized ContactSyncResponse sync(String token) {
+        long currentVersion = previous != null ? previous.version() : 0;
+        Long since = token != null ? parseToken(token) : null;
+        ContactChangeSet oldest = history.peekFirst();
+
+        if (since == null || since > currentVersion || (since < currentVersion
+                && (oldest == null || since < oldest.getFromVersion()))) {
+            log.info("Sync token {} cannot be served from history. Sending full resync at version {}", token, currentVersion);
+            return ContactSyncResponse.builder()
+                    .token(token(currentVersion))
+                    .version(currentVersion)
+                    .asOf(previous != null ? previous.fetchedAt() : null)
+                    .fullResync(true)
+                    .upserts(previous != null ? previous.contacts() : List.of())
+                    .build();
+        }
+
+        Map<Long, Contact> upserts = new LinkedHashMap<>();
+        Set<Long> tombstones = new LinkedHashSet<>();
+        for (ContactChangeSet changes : history) {
+            if (changes.getVersion() <= since) {
+                continue;
+            }
+            for (Contact contact : changes.getAdded()) {
+                upserts.put(contact.getId(), contact);
+                tombstones.remove(contact.getId());
+            }
+            for (Contact contact : changes.getUpdated()) {
+                upserts.put(contact.getId(), contact);
+                tombstones.remove(contact.getId());
+            }
+            for (Long id : changes.getRemoved()) {
+                upserts.remove(id);
+                tombstones.add(id);
+            }
+        }
+
+        return ContactSyncResponse.builder()
+                .token(token(currentVersion))
+                .version(currentVersion)
+                .asOf(previous != null ? previous.fetchedAt() : null)
+                .upserts(List.copyOf(upserts.values()))
+                .tombstones(List.copyOf(tombstones))
+                .build();
+    }
+
+    public synchronized int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    private List<ContactChangeSet> replay(Long lastEventId) {
+        long currentVersion = previous != null ? previous.version() : 0;
+        if (lastEventId == null || lastEventId == currentVersion) {
+            return List.of();
+        }
+
+        ContactChangeSet oldest = history.peekFirst();
+        if (oldest == null || lastEventId < oldest.getFromVersion() || lastEventId > currentVersion) {
+            log.info("Cannot resume change feed from version {}. Sending reset at version {}", lastEventId, currentVersion);
+            return List.of(ContactChangeSet.reset(currentVersion, previous != null ? previous.fetchedAt() : Instant.now()));
+        }
+
+        List<ContactChangeSet> replay = new ArrayList<>();
+        for (ContactChangeSet changes : history) {
+            if (changes.getVersion() > lastEventId && !changes.isEmpty()) {
+                replay.add(changes);
+            }
+        }
+        return replay;
+    }
+
+    private void offer(Sinks.Many<ContactChangeSet> subscriber, ContactChangeSet changes) {
+        Sinks.EmitResult result = subscriber.tryEmitNext(changes);
+        if (result == Sinks.EmitResult.FAIL_OVERFLOW || result == Sinks.EmitResult.FAIL_ZERO_SUBSCRIBER) {
+            log.warn("Change feed subscriber fell more than {} change sets behind. Resetting it.", subscriberBufferSize);
+            subscribers.remove(subscriber);
+            subscriber.tryEmitError(new SlowSubscriberException(changes.getVersion(), changes.getAsOf()));
+        } else if (result.isFailure()) {
+            subscribers.remove(subscriber);
+        }
+    }
+
+    private String token(long version) {
+        String value = Long.toString(epoch, Character.MAX_RADIX) + "." + version;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Long parseToken(String token) {
+        String value;
+        try {
+            value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Invalid sync token", ex);
+        }
+
+        int separator = value.indexOf('.');
+        if (separator < 0) {
+            throw new IllegalArgumentException("Invalid sync token");
+        }
+        try {
+            long tokenEpoch = Long.parseLong(value.substring(0, separator), Character.MAX_RADIX);
+            long version = Long.parseLong(value.substring(separator + 1));
+            return tokenEpoch == epoch ? version : null;
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("Invalid sync token", ex);
+        }
+    }
+
+    static ContactChangeSet diff(ContactSnapshot from, ContactSnapshot to) {
+        Stamps before = from.index(STAMPS);
+        Stamps after = to.index(STAMPS);
+        List<Contact> contacts = to.contacts();
+        List<Contact> added = new ArrayList<>();
+        List<Contact> updated = new ArrayList<>();
+        List<Long> removed = new ArrayList<>();
+
+        int i = 0;
+        int j = 0;
+        while (i < before.size() || j < after.size()) {
+            if (j == after.size() || (i < before.size() && before.ids()[i] < after.ids()[j])) {
+                removed.add(before.ids()[i++]);
+            } else if (i == before.size() || before.ids()[i] > after.ids()[j]) {
+                added.add(contacts.get(after.positions()[j++]));
+            } else {
+                if (before.updatedAt()[i] != after.updatedAt()[j]) {
+                    updated.add(contacts.get(after.positions()[j]));
+                }
+                i++;
+                j++;
+            }
+        }
+
+        return ContactChangeSet.builder()
+                .fromVersion(from.version())
+                .version(to.version())
+                .asOf(to.fetchedAt())
+                .added(added)
+                .updated(updated)
+                .removed(removed)
+                .build();
+    }
+
+    public static class SlowSubscriberException extends RuntimeException {
+
+        private final long version;
+        private final Instant asOf;
+
+        public SlowSubscriberException(long version, Instant asOf) {
+            super("Change feed subscriber is too slow");
+            this.version = version;
+            this.asOf = asOf;
+        }
+
+        public ContactChangeSet toReset() {
+            return ContactChangeSet.reset(version, asOf);
+        }
+    }
+}
@@ -0,0 +1,264 @@
+package com.kenect.api_aggregator.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.kenect.api_aggregator.model.Contact;
+import com.kenect.api_aggregator.model.ExportFormat;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Renders every new contacts snapshot once per export format to local disk, so downloads can be served
+ * straight from the file. Downloads {@link #acquire} the file they serve and {@link #release} it when the
+ * response is handed to the container. A superseded file is deleted only once nothing holds it and the
+ * grace period since its last release has passed, because Tomcat's sendfile still reads it after that.
+ */
+@Slf4j
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class ContactExportService {
+
+    private static final String CSV_HEADER = "id,name,email,source,created_at,updated_at";
+
+    private final ContactService contactService;
+    private final ObjectWriter ndjsonWriter;
+    private final TaskExecutor renderExecutor;
+    private final Path directory;
+    private final long gracePeriodNanos;
+
+    private final Map<ExportFormat, ExportFile> current = new EnumMap<>(ExportFormat.class);
+    private final Map<ExportFormat, ExportFile> previous = new EnumMap<>(ExportFormat.class);
+    private final Map<Path, Usage> usage = new HashMap<>();
+    private final List<ExportFile> retired = new ArrayList<>();
+    private List<Contact> lastRendered;
+    private long generation;
+    private long published;
+
+    public ContactExportService(ContactService contactService,
+                                ObjectMapper objectMapper,
+                                @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+                                TaskExecutor renderExecutor,
+                                @Value("${export.directory:${java.io.tmpdir}/api-aggregator-export}") Path directory,
+                                @Value("${export.download-grace-period:10m}") Duration gracePeriod) {
+        this.contactService = contactService;
+        this.ndjsonWriter = objectMapper.writerFor(Contact.class)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.renderExecutor = renderExecutor;
+        this.directory = directory;
+        this.gracePeriodNanos = gracePeriod.toNanos();
+    }
+
+    @EventListener
+    public void onSnapshot(ContactSnapshotEvent event) {
+        renderExecutor.execute(() -> {
+            try {
+                render(event.contacts(), event.fetchedAt());
+            } catch (RuntimeException ex) {
+                log.warn("Failed to render contacts export: {}", ex.getMessage(), ex);
+            }
+        });
+    }
+
+    public ExportFile getExport(ExportFormat format) {
+        synchronized (this) {
+            ExportFile export = current.get(format);
+            if (export != null) {
+                return export;
+            }
+        }
+
+        render(contactService.getAllContacts(null).data(), Instant.now());
+        synchronized (this) {
+            return current.get(format);
+        }
+    }
+
+    /**
+     * Returns the export to serve and keeps its file on disk until {@link #release}. A resumed download
+     * whose {@code If-Range} names the previous generation gets that generation while it is still on disk.
+     */
+    public ExportFile acquire(ExportFormat format, String ifRange) {
+        ExportFile export = getExport(format);
+        synchronized (this) {
+            ExportFile older = previous.get(format);
+            if (ifRange != null && older != null && ifRange.equals(older.etag())) {
+                export = older;
+            } else {
+                export = current.get(format);
+            }
+            Usage used = usage.computeIfAbsent(export.path(), path -> new Usage());
+            used.leases++;
+            used.lastReleasedNanos = System.nanoTime();
+            return export;
+        }
+    }
+
+    public synchronized void release(ExportFile export) {
+        Usage used = usage.get(export.path());
+        if (used != null) {
+            used.leases = Math.max(0, used.leases - 1);
+            used.lastReleasedNanos = System.nanoTime();
+        }
+        deleteRetired();
+    }
+
+    /**
+     * Writes the files without holding the lock, so downloads can start and finish while a large export
+     * renders. The lock is taken only to swap the new files in. A render that finishes after a newer one
+     * has been swapped in is discarded.
+     */
+    void render(List<Contact> contacts, Instant fetchedAt) {
+        long version;
+        synchronized (this) {
+            if (contacts == lastRendered) {
+                return;
+            }
+            version = ++generation;
+        }
+
+        long startTime = System.currentTimeMillis();
+        Map<ExportFormat, ExportFile> rendered = new EnumMap<>(ExportFormat.class);
+        try {
+            Files.createDirectories(directory);
+            for (ExportFormat format : ExportFormat.values()) {
+                rendered.put(format, renderFile(contacts, format, version, fetchedAt));
+            }
+        } catch (IOException ex) {
+            rendered.values().forEach(this::delete);
+            throw new UncheckedIOException("Failed to render contacts export", ex);
+        }
+
+        synchronized (this) {
+            if (version < published) {
+                rendered.values().forEach(this::delete);
+                return;
+            }
+            rendered.forEach((format, export) -> {
+                ExportFile superseded = previous.put(format, current.put(format, export));
+                if (superseded != null) {
+                    retired.add(superseded);
+                }
+            });
+            published = version;
+            lastRendered = contacts;
+            deleteRetired();
+        }
+
+        log.info("Rendered contacts export #{} ({} contacts) in {} ms",
+                version, contacts.size(), System.currentTimeMillis() - startTime);
+    }
+
+    private void deleteRetired() {
+        long now = System.nanoTime();
+        for (Iterator<ExportFile> it = retired.iterator(); it.hasNext(); ) {
+            ExportFile export = it.next();
+            Usage used = usage.get(export.path());
+            if (used != null && (used.leases > 0 || now - used.lastReleasedNanos < gracePeriodNanos)) {
+                continue;
+            }
+            if (delete(export)) {
+                usage.remove(export.path());
+                it.remove();
+            }
+        }
+    }
+
+    private boolean delete(ExportFile export) {
+        try {
+            Files.deleteIfExists(export.path());
+            return true;
+        } catch (IOException ex) {
+            log.warn("Failed to delete superseded export {}: {}", export.path(), ex.getMessage());
+            return false;
+        }
+    }
+
+    private ExportFile renderFile(List<Contact> contacts, ExportFormat format, long version, Instant fetchedAt)
+            throws IOException {
+        Path target = directory.resolve("contacts-" + version + "." + format.getValue());
+        Path temp = Files.createTempFile(directory, "contacts-", ".tmp");
+
+        try (BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+            if (format == ExportFormat.CSV) {
+                writeCsv(contacts, writer);
+            } else {
+                writeNdjson(contacts, writer);
+            }
+        }
+
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        return new ExportFile(format, target, Files.size(target), "\"" + version + "-" + format.getValue() + "\"", fetchedAt);
+    }
+
+    private void writeCsv(List<Contact> contacts, BufferedWriter writer) throws IOException {
+        writer.write(CSV_HEADER);
+        writer.newLine();
+        for (Contact contact : contacts) {
+            writer.write(csvField(contact.getId()));
+            writer.write(',');
+            writer.write(csvField(contact.getName()));
+            writer.write(',');
+            writer.write(csvField(contact.getEmail()));
+            writer.write(',');
+            writer.write(csvField(contact.getSource()));
+            writer.write(',');
+            writer.write(csvField(contact.getCreatedAt()));
+            writer.write(',');
+            writer.write(csvField(contact.getUpdatedAt()));
+            writer.newLine();
+        }
+    }
+
+    private void writeNdjson(List<Contact> contacts, Writer writer) throws IOException {
+        for (Contact contact : contacts) {
+            ndjsonWriter.writeValue(writer, contact);
+            writer.write('\n');
+        }
+    }
+
+    private String csvField(Object value) {
+        if (value == null) {
+            return "";
+        }
+
+        String text = value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return "\"" + text.replace("\"", "\"\"") + "\"";
+    }
+
+    public record ExportFile(ExportFormat format, Path path, long size, String etag, Instant lastModified) {
+    }
+
+    private static final class Usage {
+        private int leases;
+        private long lastReleasedNanos;
+    }
+}
@@ -4,109 +4,427 @@ import com.kenect.api_aggregator.client.KenectLabsApiClient;
 import com.kenect.api_aggregator.dto.ContactQueryParams;
 import com.kenect.api_aggregator.dto.ExternalContactResponse;
 import com.kenect.api_aggregator.dto.PaginatedResponse;
+import com.kenect.api_aggregator.exception.CircuitBreakerOpenException;
+import com.kenect.api_aggregator.exception.DeadlineExceededException;
+import com.kenect.api_aggregator.exception.ExternalApiException;
+import com.kenect.api_aggregator.exception.UpstreamBackoffException;
 import com.kenect.api_aggregator.mapper.ContactMapper;
 import com.kenect.api_aggregator.model.Contact;
 import com.kenect.api_aggregator.model.ContactSource;
+import com.kenect.api_aggregator.resilience.CallPriority;
+import com.kenect.api_aggregator.resilience.Deadline;
+import com.kenect.api_aggregator.resilience.FailureBackoff;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.task.SimpleAsyncTaskExecutorBuilder;
+import org.springframework.cache.Cache;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 
 import static com.kenect.api_aggregator.config.CacheConfig.CONTACTS_CACHE;
+import static com.kenect.api_aggregator.config.CacheConfig.CONTACT_QUERIES_CACHE;
 
 @Slf4j
 @Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class ContactService {
 
+    private static final String ALL_CONTACTS_KEY = "all";
+    private static final String CRAWL_BACKOFF_KEY = "crawl";
+    private static final ContactsBySourceIndex CONTACTS_BY_SOURCE = new ContactsBySourceIndex();
+
     private final KenectLabsApiClient apiClient;
     private final ContactMapper contactMapper;
+    private final CacheManager cacheManager;
+    private final OffHeapSnapshotEncoder snapshotEncoder;
+    private final FailureBackoff failureBackoff;
+    private final ContactSnapshotHolder snapshotHolder;
+    private final AsyncTaskExecutor crawlExecutor;
+    private final AsyncTaskExecutor cacheFillExecutor;
+    private final int maxParallelism;
+    private final Duration fillTimeout;
+    private final ApplicationEventPublisher eventPublisher;
+    private final boolean partialResults;
+    private final Duration repairDelay;
+    private final int repairAttempts;
 
-    public ContactService(KenectLabsApiClient apiClient, ContactMapper contactMapper) {
+    public ContactService(KenectLabsApiClient apiClient, ContactMapper contactMapper,
+                          @Nullable CacheManager cacheManager,
+                          @Nullable OffHeapSnapshotEncoder snapshotEncoder,
+                          @Nullable FailureBackoff failureBackoff,
+                          ContactSnapshotHolder snapshotHolder,
+                          @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+                          AsyncTaskExecutor crawlExecutor,
+                          SimpleAsyncTaskExecutorBuilder fillExecutorBuilder,
+                          @Value("${crawl.max-parallelism:8}") int maxParallelism,
+                          @Value("${crawl.fill-timeout:60s}") Duration fillTimeout,
+                          @Value("${crawl.fill-concurrency:2}") int fillConcurrency,
+                          ApplicationEventPublisher eventPublisher,
+                          @Value("${crawl.partial.enabled:false}") boolean partialResults,
+                          @Value("${crawl.partial.repair-delay:5s}") Duration repairDelay,
+                          @Value("${crawl.partial.repair-attempts:3}") int repairAttempts) {
         this.apiClient = apiClient;
         this.contactMapper = contactMapper;
+        this.cacheManager = cacheManager;
+        this.snapshotEncoder = snapshotEncoder;
+        this.failureBackoff = failureBackoff;
+        this.snapshotHolder = snapshotHolder;
+        this.snapshotHolder.register(CONTACTS_BY_SOURCE);
+        this.crawlExecutor = crawlExecutor;
+        // Boot's builder follows spring.threads.virtual.enabled, so fills run on virtual threads when the rest
+        // of the application does.
+        this.cacheFillExecutor = fillExecutorBuilder
+                .threadNamePrefix("contacts-fill-")
+                .concurrencyLimit(Math.max(1, fillConcurrency))
+                .build();
+        this.maxParallelism = Math.max(1, maxParallelism);
+        this.fillTimeout = fillTimeout;
+        this.eventPublisher = eventPublisher;
+        this.partialResults = partialResults;
+        this.repairDelay = repairDelay;
+        this.repairAttempts = repairAttempts;
     }
 
-    @Cacheable(value = CONTACTS_CACHE, key = "'all'")
     public List<Contact> fetchAllContacts() {
+        return refreshSnapshot().contacts();
+    }
+
+    public ContactsResult<List<Contact>> getAllContacts(ContactSource source) {
+        return loadSnapshot().map(snapshot -> contactsFor(snapshot, source));
+    }
+
+    public ContactsResult<PaginatedResponse<Contact>> getContactsPaginated(ContactQueryParams params) {
+        int page = params.getPageOrDefault();
+        int size = params.getSizeOrDefault();
+        ContactSource source = params.getSource();
+        
+        log.info("Fetching paginated contacts - page: {}, size: {}, source: {}", page, size, source);
+        
+        Cache queryCache = cacheManager != null ? cacheManager.getCache(CONTACT_QUERIES_CACHE) : null;
+        return loadSnapshot().map(snapshot -> {
+            if (queryCache == null) {
+                return PaginatedResponse.of(contactsFor(snapshot, source), page, size);
+            }
+
+            QueryKey key = new QueryKey(snapshot.version(), page, size, source);
+            return queryCache.get(key, () -> {
+                // A subList view would keep the whole snapshot reachable for as long as the page is cached.
+                PaginatedResponse<Contact> response = PaginatedResponse.of(contactsFor(snapshot, source), page, size);
+                response.setContent(List.copyOf(response.getContent()));
+                return response;
+            });
+        });
+    }
+
+    public void evictContactsCache() {
+        log.info("Evicting contacts cache");
+        snapshotHolder.invalidate();
+        if (failureBackoff != null) {
+            failureBackoff.reset();
+        }
+        Cache cache = contactsCache();
+        if (cache != null) {
+            cache.evict(ALL_CONTACTS_KEY);
+        }
+    }
+
+    private ContactSnapshot refreshSnapshot() {
+        return withBackoff(CRAWL_BACKOFF_KEY, this::crawl);
+    }
+
+    private ContactSnapshot crawl() {
         log.info("Cache miss - Starting to fetch all contacts from external API");
         long startTime = System.currentTimeMillis();
 
+        ExternalContactResponse firstPage = fetchPage(1, () -> apiClient.fetchContactsPage(1));
+        List<List<Contact>> pages = new ArrayList<>();
+        pages.add(toContacts(firstPage, 1));
+
+        Set<Integer> failedPages = new ConcurrentSkipListSet<>();
+        if (firstPage.getPagination() != null && firstPage.getPagination().hasNextPage()) {
+            pages.addAll(fetchPagesInParallel(2, firstPage.getPagination().getTotalPages(), failedPages));
+        }
+        PageLayout layout = failedPages.isEmpty() ? PageLayout.of(pages) : fillFromPreviousSnapshot(pages, failedPages);
+
+        long duration = System.currentTimeMillis() - startTime;
+        log.info("Successfully fetched {} contacts in {} ms", pages.stream().mapToInt(List::size).sum(), duration);
+
+        ContactSnapshot snapshot = publish(pages, layout);
+        if (layout.isPartial()) {
+            scheduleRepair(snapshot, 1);
+        }
+        return snapshot;
+    }
+
+    private ContactSnapshot publish(List<List<Contact>> pages, PageLayout layout) {
         List<Contact> allContacts = new ArrayList<>();
-        int currentPage = 1;
-        boolean hasMorePages = true;
+        pages.forEach(allContacts::addAll);
 
-        while (hasMorePages) {
-            ExternalContactResponse response = apiClient.fetchContactsPage(currentPage);
+        ContactSnapshot snapshot = snapshotHolder.publish(
+                snapshotEncoder != null ? snapshotEncoder.encode(allContacts) : allContacts, layout);
+        eventPublisher.publishEvent(new ContactSnapshotEvent(snapshot));
+        return snapshot;
+    }
 
-            if (response.getContacts() != null && !response.getContacts().isEmpty()) {
-                List<Contact> pageContacts = response.getContacts().stream()
-                        .map(dto -> contactMapper.toContact(dto, ContactSource.KENECT_LABS))
-                        .toList();
+    /**
+     * In partial mode a page that fails to load does not fail the crawl. Each failed page is filled with
+     * the same page of the previous snapshot when that snapshot has it, and is reported missing otherwise.
+     */
+    private PageLayout fillFromPreviousSnapshot(List<List<Contact>> pages, Set<Integer> failedPages) {
+        ContactSnapshot previous = snapshotHolder.latest();
+        SortedSet<Integer> missingPages = new TreeSet<>();
+        SortedSet<Integer> stalePages = new TreeSet<>();
+        for (int page : failedPages) {
+            List<Contact> fallback = previous != null ? previous.layout().page(previous.contacts(), page) : null;
+            if (fallback != null) {
+                pages.set(page - 1, fallback);
+                stalePages.add(page);
+            } else {
+                missingPages.add(page);
+            }
+        }
 
-                allContacts.addAll(pageContacts);
-                log.debug("Added {} contacts from page {}", pageContacts.size(), currentPage);
+        log.warn("Contacts crawl is partial - missing pages: [{}], pages from the previous snapshot: [{}]",
+                PageLayout.ranges(missingPages), PageLayout.ranges(stalePages));
+        return PageLayout.of(pages, missingPages, stalePages);
+    }
+
+    private void scheduleRepair(ContactSnapshot partial, int attempt) {
+        if (attempt > repairAttempts) {
+            log.warn("Giving up repairing contacts snapshot version {} after {} attempts", partial.version(), repairAttempts);
+            return;
+        }
+        CompletableFuture.runAsync(() -> repair(partial, attempt),
+                CompletableFuture.delayedExecutor(repairDelay.toMillis() * attempt, TimeUnit.MILLISECONDS, crawlExecutor));
+    }
+
+    /**
+     * Re-fetches only the missing and stale pages of a partial snapshot and publishes the result, unless a
+     * newer crawl has replaced the snapshot in the meantime.
+     */
+    private void repair(ContactSnapshot partial, int attempt) {
+        if (snapshotHolder.latest() != partial) {
+            return;
+        }
+
+        PageLayout layout = partial.layout();
+        List<List<Contact>> pages = layout.pages(partial.contacts());
+        SortedSet<Integer> missingPages = new TreeSet<>(layout.missingPages());
+        SortedSet<Integer> stalePages = new TreeSet<>(layout.stalePages());
+        SortedSet<Integer> gaps = new TreeSet<>(missingPages);
+        gaps.addAll(stalePages);
+
+        for (int page : gaps) {
+            try {
+                int background = page;
+                ExternalContactResponse response = fetchPage(page,
+                        () -> apiClient.fetchContactsPage(background, CallPriority.BACKGROUND));
+                pages.set(page - 1, toContacts(response, page));
+                missingPages.remove(page);
+                stalePages.remove(page);
+            } catch (ExternalApiException ex) {
+                log.debug("Repair attempt {} could not fetch contacts page {}: {}", attempt, page, ex.getMessage());
             }
+        }
 
-            hasMorePages = response.getPagination() != null && response.getPagination().hasNextPage();
-            currentPage++;
+        if (snapshotHolder.latest() != partial) {
+            return;
+        }
+        if (missingPages.size() + stalePages.size() == gaps.size()) {
+            scheduleRepair(partial, attempt + 1);
+            return;
         }
 
-        long duration = System.currentTimeMillis() - startTime;
-        log.info("Successfully fetched {} contacts in {} ms", allContacts.size(), duration);
+        ContactSnapshot repaired = publish(pages, PageLayout.of(pages, missingPages, stalePages));
+        Cache cache = contactsCache();
+        if (cache != null) {
+            cache.put(ALL_CONTACTS_KEY, repaired);
+        }
+        log.info("Repaired {} of {} pages of contacts snapshot version {} as version {}",
+                gaps.size() - missingPages.size() - stalePages.size(), gaps.size(), partial.version(), repaired.version());
+        if (repaired.layout().isPartial()) {
+            scheduleRepair(repaired, attempt + 1);
+        }
+    }
+
+    private List<List<Contact>> fetchPagesInParallel(int firstPage, int lastPage, Set<Integer> failedPages) {
+        int pageCount = lastPage - firstPage + 1;
+        List<List<Contact>> pages = new ArrayList<>(Collections.nCopies(pageCount, List.of()));
+        AtomicInteger nextPage = new AtomicInteger(firstPage);
+        CompletionService<Void> completionService = new ExecutorCompletionService<>(crawlExecutor);
+        List<Future<Void>> workers = new ArrayList<>();
+        Deadline deadline = Deadline.current();
+
+        try {
+            for (int i = 0; i < Math.min(maxParallelism, pageCount); i++) {
+                workers.add(completionService.submit(() -> {
+                    Deadline.set(deadline);
+                    try {
+                        int page;
+                        while ((page = nextPage.getAndIncrement()) <= lastPage) {
+                            int current = page;
+                            try {
+                                ExternalContactResponse response = fetchPage(page, () -> apiClient.fetchContactsPage(current));
+                                pages.set(page - firstPage, toContacts(response, page));
+                            } catch (ExternalApiException ex) {
+                                if (!partialResults || ex instanceof DeadlineExceededException) {
+                                    throw ex;
+                                }
+                                log.warn("Failed to fetch contacts page {}, continuing with a partial result: {}",
+                                        page, ex.getMessage());
+                                failedPages.add(page);
+                            }
+                        }
+                        return null;
+                    } finally {
+                        Deadline.clear();
+                    }
+                }));
+            }
+
+            for (int i = 0; i < workers.size(); i++) {
+                Future<Void> worker = deadline != null
+                        ? completionService.poll(deadline.remaining().toNanos(), TimeUnit.NANOSECONDS)
+                        : completionService.take();
+                if (worker == null) {
+                    throw deadline.exceeded("fetching contacts pages");
+                }
+                worker.get();
+            }
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new ExternalApiException("Failed to fetch contacts pages", ex.getCause());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new ExternalApiException("Interrupted while fetching contacts pages", ex);
+        } finally {
+            workers.forEach(worker -> worker.cancel(true));
+        }
 
-        return allContacts;
+        return pages;
     }
 
-    public List<Contact> getAllContacts(ContactSource source) {
-        List<Contact> allContacts = fetchAllContacts();
-        
+    private ExternalContactResponse fetchPage(int page, Supplier<ExternalContactResponse> fetch) {
+        return withBackoff("page " + page, fetch);
+    }
+
+    private <T> T withBackoff(String key, Supplier<T> call) {
+        return failureBackoff != null ? failureBackoff.call(key, call) : call.get();
+    }
+
+    private List<Contact> toContacts(ExternalContactResponse response, int page) {
+        if (response.getContacts() == null || response.getContacts().isEmpty()) {
+            return List.of();
+        }
+
+        List<Contact> pageContacts = response.getContacts().stream()
+                .map(dto -> contactMapper.toContact(dto, ContactSource.KENECT_LABS))
+                .toList();
+        log.debug("Added {} contacts from page {}", pageContacts.size(), page);
+        return pageContacts;
+    }
+
+    private List<Contact> contactsFor(ContactSnapshot snapshot, ContactSource source) {
         if (source != null) {
             log.debug("Filtering contacts by source: {}", source);
-            return allContacts.stream()
-                    .filter(contact -> source.getValue().equals(contact.getSource()))
-                    .toList();
+            return snapshot.index(CONTACTS_BY_SOURCE).getOrDefault(source.getValue(), List.of());
         }
         
-        return allContacts;
+        return snapshot.contacts();
     }
 
-    public PaginatedResponse<Contact> getContactsPaginated(ContactQueryParams params) {
-        int page = params.getPageOrDefault();
-        int size = params.getSizeOrDefault();
-        ContactSource source = params.getSource();
-        
-        log.info("Fetching paginated contacts - page: {}, size: {}, source: {}", page, size, source);
-        
-        List<Contact> allContacts = getAllContacts(source);
-        
-        int totalElements = allContacts.size();
-        int totalPages = (int) Math.ceil((double) totalElements / size);
-        
-        int startIndex = (page - 1) * size;
-        int endIndex = Math.min(startIndex + size, totalElements);
-        
-        List<Contact> pageContent = startIndex < totalElements 
-                ? allContacts.subList(startIndex, endIndex)
-                : new ArrayList<>();
-        
-        return PaginatedResponse.<Contact>builder()
-                .content(pageContent)
-                .page(page)
-                .size(size)
-                .totalElements(totalElements)
-                .totalPages(totalPages)
-                .hasNext(page < totalPages)
-                .hasPrevious(page > 1)
-                .isFirst(page == 1)
-                .isLast(page >= totalPages)
-                .build();
+    private ContactsResult<ContactSnapshot> loadSnapshot() {
+        ContactSnapshot fresh = snapshotHolder.fresh();
+        if (fresh != null) {
+            return serve(fresh, null);
+        }
+
+        try {
+            return serve(fetchThroughCache(), null);
+        } catch (CircuitBreakerOpenException | UpstreamBackoffException ex) {
+            ContactSnapshot snapshot = snapshotHolder.latest();
+            if (snapshot == null) {
+                log.warn("Upstream is unavailable ({}) and no previous snapshot exists. Failing fast.", ex.getMessage());
+                throw ex;
+            }
+
+            log.warn("Upstream is unavailable ({}). Serving last known good snapshot from {}", ex.getMessage(), snapshot.fetchedAt());
+            return serve(snapshot, snapshot.fetchedAt());
+        }
     }
 
-    @CacheEvict(value = CONTACTS_CACHE, key = "'all'")
-    public void evictContactsCache() {
-        log.info("Evicting contacts cache");
+    private ContactsResult<ContactSnapshot> serve(ContactSnapshot snapshot, Instant staleAsOf) {
+        return new ContactsResult<>(snapshot, staleAsOf, snapshot.layout());
+    }
+
+    private ContactSnapshot fetchThroughCache() {
+        Cache cache = contactsCache();
+        if (cache == null) {
+            return refreshSnapshot();
+        }
+
+        // The fill is shared by every caller that misses, so it runs under its own deadline rather than
+        // the one of the request that happened to start it. Each caller's deadline bounds only its own wait.
+        // The fill waits on page workers from the crawl executor, so it must not hold one of that pool's
+        // threads itself.
+        Deadline deadline = Deadline.current();
+        CompletableFuture<ContactSnapshot> fill = cache.retrieve(ALL_CONTACTS_KEY,
+                () -> cacheFillExecutor.submitCompletable(() -> {
+                    Deadline.set(Deadline.after(fillTimeout));
+                    try {
+                        return refreshSnapshot();
+                    } finally {
+                        Deadline.clear();
+                    }
+                }));
+        try {
+            return deadline != null
+                    ? fill.get(deadline.remaining().toNanos(), TimeUnit.NANOSECONDS)
+                    : fill.get();
+        } catch (TimeoutException ex) {
+            throw deadline.exceeded("waiting for the contacts crawl");
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new ExternalApiException("Failed to fetch contacts", ex.getCause());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new ExternalApiException("Interrupted while waiting for the contacts crawl", ex);
+        }
+    }
+
+    private Cache contactsCache() {
+        return cacheManager != null ? cacheManager.getCache(CONTACTS_CACHE) : null;
+    }
+
+    private record QueryKey(long version, int page, int size, ContactSource source) {
     }
 }
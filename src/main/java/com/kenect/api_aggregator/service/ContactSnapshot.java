@@ -0,0 +1,59 @@
+package com.kenect.api_aggregator.service;
+
+import com.kenect.api_aggregator.model.Contact;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable, versioned view of the contacts fetched in one crawl, together with every derived index
+ * built for it. Readers holding a snapshot always see contacts and indexes from the same version. The
+ * {@link PageLayout} records which upstream page each contact came from and whether any page is missing.
+ */
+public final class ContactSnapshot {
+
+    private final long version;
+    private final List<Contact> contacts;
+    private final Instant fetchedAt;
+    private final Map<SnapshotIndex<?>, Object> indexes;
+    private final PageLayout layout;
+
+    ContactSnapshot(long version, List<Contact> contacts, Instant fetchedAt, Map<SnapshotIndex<?>, Object> indexes,
+                    PageLayout layout) {
+        this.version = version;
+        this.contacts = contacts;
+        this.fetchedAt = fetchedAt;
+        this.indexes = Map.copyOf(indexes);
+        this.layout = layout;
+    }
+
+    public long version() {
+        return version;
+    }
+
+    public List<Contact> contacts() {
+        return contacts;
+    }
+
+    public Instant fetchedAt() {
+        return fetchedAt;
+    }
+
+    public PageLayout layout() {
+        return layout;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T index(SnapshotIndex<T> index) {
+        Object value = indexes.get(index);
+        if (value == null) {
+            throw new IllegalStateException("Index " + index + " is not registered with the snapshot holder");
+        }
+        return (T) value;
+    }
+
+    public int indexCount() {
+        return indexes.size();
+    }
+}
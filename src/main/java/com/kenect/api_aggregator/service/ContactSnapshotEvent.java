@@ -0,0 +1,17 @@
+package com.kenect.api_aggregator.service;
+
+import com.kenect.api_aggregator.model.Contact;
+
+import java.time.Instant;
+import java.util.List;
+
+public record ContactSnapshotEvent(ContactSnapshot snapshot) {
+
+    public List<Contact> contacts() {
+        return snapshot.contacts();
+    }
+
+    public Instant fetchedAt() {
+        return snapshot.fetchedAt();
+    }
+}
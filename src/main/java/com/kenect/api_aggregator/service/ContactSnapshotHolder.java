@@ -0,0 +1,106 @@
+package com.kenect.api_aggregator.service;
+
+import com.kenect.api_aggregator.config.CacheMemoryBudget;
+import com.kenect.api_aggregator.config.RetainedSizeWeigher;
+import com.kenect.api_aggregator.model.Contact;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Publishes contact snapshots by atomically swapping an immutable {@link ContactSnapshot}. Registered
+ * indexes are built before a new version becomes visible, so readers never lock and never observe an
+ * index from a different version than the contacts.
+ * <p>
+ * Only the latest snapshot is retained. It serves fresh reads and is the last known good copy, so it is
+ * checked against the snapshot share of the {@link CacheMemoryBudget} on publish. The contacts cache evicts
+ * a snapshot above that share, but the holder logs and keeps it: dropping it would only make every request
+ * crawl the upstream again.
+ */
+@Slf4j
+@Component
+public class ContactSnapshotHolder {
+
+    private final Duration maxAge;
+    private final long maxMemoryBytes;
+    private final Clock clock;
+    private final CopyOnWriteArrayList<SnapshotIndex<?>> indexes = new CopyOnWriteArrayList<>();
+    private final AtomicReference<ContactSnapshot> current = new AtomicReference<>();
+    private final AtomicLong versions = new AtomicLong();
+    private volatile long invalidatedVersion;
+
+    @Autowired
+    public ContactSnapshotHolder(@Value("${cache.enabled:true}") boolean cacheEnabled,
+                                 @Value("${cache.expire-after-write:5m}") Duration maxAge,
+                                 CacheMemoryBudget memoryBudget) {
+        this(cacheEnabled ? maxAge : Duration.ZERO, DataSize.ofBytes(memoryBudget.snapshotBytes()), Clock.systemUTC());
+    }
+
+    ContactSnapshotHolder(Duration maxAge, DataSize maxMemory, Clock clock) {
+        this.maxAge = maxAge;
+        this.maxMemoryBytes = maxMemory.toBytes();
+        this.clock = clock;
+    }
+
+    public void register(SnapshotIndex<?> index) {
+        indexes.addIfAbsent(index);
+    }
+
+    public ContactSnapshot publish(List<Contact> contacts) {
+        return publish(contacts, PageLayout.UNKNOWN);
+    }
+
+    public ContactSnapshot publish(List<Contact> contacts, PageLayout layout) {
+        Map<SnapshotIndex<?>, Object> built = new HashMap<>();
+        for (SnapshotIndex<?> index : indexes) {
+            built.put(index, index.build(contacts));
+        }
+
+        List<Contact> readOnly = contacts instanceof OffHeapContactList ? contacts : Collections.unmodifiableList(contacts);
+        ContactSnapshot snapshot = new ContactSnapshot(versions.incrementAndGet(), readOnly, clock.instant(), built, layout);
+        current.accumulateAndGet(snapshot, (previous, next) ->
+                previous == null || next.version() > previous.version() ? next : previous);
+        log.debug("Published contacts snapshot version {} with {} contacts", snapshot.version(), contacts.size());
+
+        long retainedBytes = RetainedSizeWeigher.estimate(snapshot);
+        if (retainedBytes > maxMemoryBytes) {
+            log.warn("Contacts snapshot version {} retains about {} bytes, above its share of the cache.max-memory budget ({} bytes). "
+                    + "Keeping it; raise the budget or enable the off-heap snapshot encoding",
+                    snapshot.version(), retainedBytes, maxMemoryBytes);
+        }
+        return snapshot;
+    }
+
+    public ContactSnapshot fresh() {
+        ContactSnapshot snapshot = current.get();
+        if (snapshot == null || snapshot.version() <= invalidatedVersion) {
+            return null;
+        }
+        Instant expiresAt = snapshot.fetchedAt().plus(maxAge);
+        return clock.instant().isBefore(expiresAt) ? snapshot : null;
+    }
+
+    public ContactSnapshot latest() {
+        return current.get();
+    }
+
+    public void invalidate() {
+        ContactSnapshot snapshot = current.get();
+        if (snapshot != null) {
+            invalidatedVersion = snapshot.version();
+        }
+    }
+}
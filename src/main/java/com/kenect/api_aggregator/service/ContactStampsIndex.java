@@ -0,0 +1,75 @@
+package com.kenect.api_aggregator.service;
+
+import com.kenect.api_aggregator.model.Contact;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Compact id-sorted table of {@code (id, updatedAt, position)} per contact, so two snapshot versions
+ * can be diffed with a single merge pass and without keeping either version's contacts in a map.
+ */
+public class ContactStampsIndex implements SnapshotIndex<ContactStampsIndex.Stamps> {
+
+    @Override
+    public Stamps build(List<Contact> contacts) {
+        long[] ids = new long[contacts.size()];
+        long[] updatedAt = new long[contacts.size()];
+        int[] positions = new int[contacts.size()];
+        int count = 0;
+        boolean sorted = true;
+        for (int i = 0; i < contacts.size(); i++) {
+            Contact contact = contacts.get(i);
+            if (contact.getId() == null) {
+                continue;
+            }
+            ids[count] = contact.getId();
+            updatedAt[count] = stamp(contact.getUpdatedAt());
+            positions[count] = i;
+            sorted &= count == 0 || ids[count - 1] <= ids[count];
+            count++;
+        }
+
+        if (sorted) {
+            return new Stamps(Arrays.copyOf(ids, count), Arrays.copyOf(updatedAt, count), Arrays.copyOf(positions, count));
+        }
+
+        int[] order = IntStream.range(0, count)
+                .boxed()
+                .sorted(Comparator.comparingLong(slot -> ids[slot]))
+                .mapToInt(Integer::intValue)
+                .toArray();
+        long[] sortedIds = new long[count];
+        long[] sortedUpdatedAt = new long[count];
+        int[] sortedPositions = new int[count];
+        for (int i = 0; i < count; i++) {
+            sortedIds[i] = ids[order[i]];
+            sortedUpdatedAt[i] = updatedAt[order[i]];
+            sortedPositions[i] = positions[order[i]];
+        }
+        return new Stamps(sortedIds, sortedUpdatedAt, sortedPositions);
+    }
+
+    @Override
+    public String toString() {
+        return "contact-stamps";
+    }
+
+    private static long stamp(Instant updatedAt) {
+        return updatedAt != null ? updatedAt.toEpochMilli() : Long.MIN_VALUE;
+    }
+
+    public record Stamps(long[] ids, long[] updatedAt, int[] positions) {
+
+        public int size() {
+            return ids.length;
+        }
+
+        public boolean contains(long id) {
+            return Arrays.binarySearch(ids, id) >= 0;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.kenect.api_aggregator.service;
+
+import com.kenect.api_aggregator.model.Contact;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+
+/**
+ * Partitions a snapshot by contact source. Partitions are position views over the snapshot list,
+ * so an off-heap snapshot stays off-heap.
+ */
+public class ContactsBySourceIndex implements SnapshotIndex<Map<String, List<Contact>>> {
+
+    @Override
+    public Map<String, List<Contact>> build(List<Contact> contacts) {
+        Map<String, int[]> positions = new HashMap<>();
+        Map<String, Integer> counts = new HashMap<>();
+        for (int i = 0; i < contacts.size(); i++) {
+            String source = contacts.get(i).getSource();
+            if (source == null) {
+                continue;
+            }
+            int count = counts.merge(source, 1, Integer::sum);
+            int[] sourcePositions = positions.computeIfAbsent(source, key -> new int[16]);
+            if (count > sourcePositions.length) {
+                sourcePositions = Arrays.copyOf(sourcePositions, sourcePositions.length * 2);
+                positions.put(source, sourcePositions);
+            }
+            sourcePositions[count - 1] = i;
+        }
+
+        Map<String, List<Contact>> partitions = new HashMap<>();
+        positions.forEach((source, sourcePositions) -> partitions.put(source,
+                new PositionView(contacts, Arrays.copyOf(sourcePositions, counts.get(source)))));
+        return Map.copyOf(partitions);
+    }
+
+    @Override
+    public String toString() {
+        return "contacts-by-source";
+    }
+
+    private static final class PositionView extends AbstractList<Contact> implements RandomAccess {
+
+        private final List<Contact> contacts;
+        private final int[] positions;
+
+        private PositionView(List<Contact> contacts, int[] positions) {
+            this.contacts = contacts;
+            this.positions = positions;
+        }
+
+        @Override
+        public Contact get(int index) {
+            return contacts.get(positions[index]);
+        }
+
+        @Override
+        public int size() {
+            return positions.length;
+        }
+    }
+}
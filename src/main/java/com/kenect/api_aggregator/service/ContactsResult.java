@@ -0,0 +1,44 @@
+package com.kenect.api_aggregator.service;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Contacts returned to a single caller, together with what that caller needs to know about the snapshot
+ * they were read from: whether it is stale and which upstream pages it is missing. Both travel with the
+ * data, so concurrent requests never see each other's.
+ */
+public record ContactsResult<T>(T data, Instant staleAsOf, PageLayout layout) {
+
+    public ContactsResult {
+        layout = layout != null ? layout : PageLayout.UNKNOWN;
+    }
+
+    public static <T> ContactsResult<T> fresh(T data) {
+        return new ContactsResult<>(data, null, PageLayout.UNKNOWN);
+    }
+
+    public static <T> ContactsResult<T> stale(T data, Instant asOf) {
+        return new ContactsResult<>(data, asOf, PageLayout.UNKNOWN);
+    }
+
+    public ContactsResult<T> withLayout(PageLayout layout) {
+        return new ContactsResult<>(data, staleAsOf, layout);
+    }
+
+    public Optional<Instant> staleSince() {
+        return Optional.ofNullable(staleAsOf);
+    }
+
+    /**
+     * Returns the page layout when the snapshot is missing pages or filled some from an older crawl.
+     */
+    public Optional<PageLayout> partial() {
+        return layout.isPartial() ? Optional.of(layout) : Optional.empty();
+    }
+
+    public <R> ContactsResult<R> map(Function<? super T, ? extends R> mapper) {
+        return new ContactsResult<>(mapper.apply(data), staleAsOf, layout);
+    }
+}
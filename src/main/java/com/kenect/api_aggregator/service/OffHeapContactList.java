@@ -0,0 +1,69 @@
+package com.kenect.api_aggregator.service;
+
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
+import com.kenect.api_aggregator.model.Contact;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.util.AbstractList;
+import java.util.RandomAccess;
+
+/**
+ * Read-only contact list whose elements live outside the heap as rendered JSON fragments in a direct
+ * buffer, addressed through an off-heap offset index. Contacts are decoded on access, so the heap
+ * only holds this view and whatever a request is currently reading.
+ */
+public final class OffHeapContactList extends AbstractList<Contact> implements RandomAccess {
+
+    private final ByteBuffer data;
+    private final IntBuffer offsets;
+    private final int size;
+    private final ObjectReader contactReader;
+
+    OffHeapContactList(ByteBuffer data, IntBuffer offsets, int size, ObjectReader contactReader) {
+        this.data = data;
+        this.offsets = offsets;
+        this.size = size;
+        this.contactReader = contactReader;
+    }
+
+    @Override
+    public Contact get(int index) {
+        try {
+            return contactReader.readValue(new ByteBufferBackedInputStream(fragment(index)));
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to decode off-heap contact " + index, ex);
+        }
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    public void writeJson(int index, OutputStream outputStream) throws IOException {
+        WritableByteChannel channel = Channels.newChannel(outputStream);
+        ByteBuffer fragment = fragment(index);
+        while (fragment.hasRemaining()) {
+            channel.write(fragment);
+        }
+    }
+
+    public long getOffHeapBytes() {
+        return (long) data.capacity() + (long) offsets.capacity() * Integer.BYTES;
+    }
+
+    private ByteBuffer fragment(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size);
+        }
+        int start = offsets.get(index);
+        return data.slice(start, offsets.get(index + 1) - start);
+    }
+}
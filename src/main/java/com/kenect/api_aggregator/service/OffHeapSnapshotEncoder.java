@@ -0,0 +1,77 @@
+package com.kenect.api_aggregator.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.kenect.api_aggregator.model.Contact;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.util.List;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "snapshot.off-heap.enabled", havingValue = "true")
+public class OffHeapSnapshotEncoder {
+
+    private static final long MAX_BUFFER_BYTES = Integer.MAX_VALUE - 8;
+
+    private final ObjectWriter contactWriter;
+    private final ObjectReader contactReader;
+    private final int estimatedContactBytes;
+
+    public OffHeapSnapshotEncoder(ObjectMapper objectMapper,
+                                  @Value("${snapshot.off-heap.estimated-contact-bytes:256}") int estimatedContactBytes) {
+        this.contactWriter = objectMapper.writerFor(Contact.class);
+        this.contactReader = objectMapper.readerFor(Contact.class);
+        this.estimatedContactBytes = Math.max(16, estimatedContactBytes);
+    }
+
+    public List<Contact> encode(List<Contact> contacts) {
+        if (contacts instanceof OffHeapContactList) {
+            return contacts;
+        }
+
+        IntBuffer offsets = ByteBuffer.allocateDirect((contacts.size() + 1) * Integer.BYTES).asIntBuffer();
+        ByteBuffer data = ByteBuffer.allocateDirect(
+                (int) Math.min(MAX_BUFFER_BYTES, Math.max(1024L, (long) contacts.size() * estimatedContactBytes)));
+
+        try {
+            for (int i = 0; i < contacts.size(); i++) {
+                byte[] fragment = contactWriter.writeValueAsBytes(contacts.get(i));
+                if (data.remaining() < fragment.length) {
+                    data = grow(data, fragment.length);
+                }
+                offsets.put(i, data.position());
+                data.put(fragment);
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to encode contacts snapshot", ex);
+        } catch (IllegalStateException ex) {
+            log.warn("Contacts snapshot does not fit in a single off-heap buffer. Keeping it on the heap.", ex);
+            return contacts;
+        }
+        offsets.put(contacts.size(), data.position());
+
+        OffHeapContactList snapshot = new OffHeapContactList(data, offsets, contacts.size(), contactReader);
+        log.info("Moved {} contacts off-heap ({} bytes)", snapshot.size(), snapshot.getOffHeapBytes());
+        return snapshot;
+    }
+
+    private ByteBuffer grow(ByteBuffer data, int required) {
+        long needed = (long) data.position() + required;
+        if (needed > MAX_BUFFER_BYTES) {
+            throw new IllegalStateException("Off-heap snapshot exceeds " + MAX_BUFFER_BYTES + " bytes");
+        }
+        long capacity = Math.min(MAX_BUFFER_BYTES, Math.max(needed, (long) data.capacity() * 2));
+        ByteBuffer grown = ByteBuffer.allocateDirect((int) capacity);
+        grown.put(data.flip());
+        return grown;
+    }
+}
@@ -0,0 +1,111 @@
+package com.kenect.api_aggregator.service;
+
+import com.kenect.api_aggregator.model.Contact;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+/**
+ * Records which upstream page each contact of a snapshot came from, and which pages the crawl could not
+ * fetch. Missing pages contribute no contacts; stale pages were filled from the previous snapshot. A
+ * later crawl uses the layout to fill its own failed pages, and responses report the gaps to clients.
+ */
+public final class PageLayout {
+
+    static final PageLayout UNKNOWN = new PageLayout(new int[]{0}, new TreeSet<>(), new TreeSet<>());
+
+    private final int[] offsets;
+    private final SortedSet<Integer> missingPages;
+    private final SortedSet<Integer> stalePages;
+
+    private PageLayout(int[] offsets, SortedSet<Integer> missingPages, SortedSet<Integer> stalePages) {
+        this.offsets = offsets;
+        this.missingPages = Collections.unmodifiableSortedSet(missingPages);
+        this.stalePages = Collections.unmodifiableSortedSet(stalePages);
+    }
+
+    public static PageLayout of(List<List<Contact>> pages) {
+        return of(pages, new TreeSet<>(), new TreeSet<>());
+    }
+
+    public static PageLayout of(List<List<Contact>> pages, Collection<Integer> missingPages, Collection<Integer> stalePages) {
+        int[] offsets = new int[pages.size() + 1];
+        for (int i = 0; i < pages.size(); i++) {
+            offsets[i + 1] = offsets[i] + pages.get(i).size();
+        }
+        return new PageLayout(offsets, new TreeSet<>(missingPages), new TreeSet<>(stalePages));
+    }
+
+    public boolean isPartial() {
+        return !missingPages.isEmpty() || !stalePages.isEmpty();
+    }
+
+    public SortedSet<Integer> missingPages() {
+        return missingPages;
+    }
+
+    public SortedSet<Integer> stalePages() {
+        return stalePages;
+    }
+
+    int pageCount() {
+        return offsets.length - 1;
+    }
+
+    /**
+     * Returns the contacts that came from the given upstream page, or {@code null} when the page is
+     * outside the layout or was missing from the crawl.
+     */
+    List<Contact> page(List<Contact> contacts, int page) {
+        if (page < 1 || page > pageCount() || missingPages.contains(page)) {
+            return null;
+        }
+        return contacts.subList(offsets[page - 1], offsets[page]);
+    }
+
+    List<List<Contact>> pages(List<Contact> contacts) {
+        List<List<Contact>> pages = new ArrayList<>(pageCount());
+        for (int page = 1; page <= pageCount(); page++) {
+            List<Contact> contents = page(contacts, page);
+            pages.add(contents != null ? contents : List.of());
+        }
+        return pages;
+    }
+
+    /**
+     * Formats pages as comma-separated ranges, e.g. {@code 3-5,9}.
+     */
+    public static String ranges(SortedSet<Integer> pages) {
+        StringBuilder ranges = new StringBuilder();
+        Integer start = null;
+        Integer end = null;
+        for (int page : pages) {
+            if (end != null && page == end + 1) {
+                end = page;
+                continue;
+            }
+            appendRange(ranges, start, end);
+            start = page;
+            end = page;
+        }
+        appendRange(ranges, start, end);
+        return ranges.toString();
+    }
+
+    private static void appendRange(StringBuilder ranges, Integer start, Integer end) {
+        if (start == null) {
+            return;
+        }
+        if (!ranges.isEmpty()) {
+            ranges.append(',');
+        }
+        ranges.append(start);
+        if (!end.equals(start)) {
+            ranges.append('-').append(end);
+        }
+    }
+}
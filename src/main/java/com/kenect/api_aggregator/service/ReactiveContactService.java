@@ -0,0 +1,174 @@
+package com.kenect.api_aggregator.service;
+
+import com.kenect.api_aggregator.client.KenectLabsApiClient;
+import com.kenect.api_aggregator.dto.ContactQueryParams;
+import com.kenect.api_aggregator.dto.ExternalContactResponse;
+import com.kenect.api_aggregator.dto.PaginatedResponse;
+import com.kenect.api_aggregator.exception.CircuitBreakerOpenException;
+import com.kenect.api_aggregator.exception.UpstreamBackoffException;
+import com.kenect.api_aggregator.mapper.ContactMapper;
+import com.kenect.api_aggregator.model.Contact;
+import com.kenect.api_aggregator.model.ContactSource;
+import com.kenect.api_aggregator.resilience.Deadline;
+import com.kenect.api_aggregator.resilience.FailureBackoff;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.kenect.api_aggregator.config.CacheConfig.CONTACTS_CACHE;
+
+@Slf4j
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveContactService {
+
+    private static final String ALL_CONTACTS_KEY = "all";
+    private static final String CRAWL_BACKOFF_KEY = "crawl";
+
+    private final KenectLabsApiClient apiClient;
+    private final ContactMapper contactMapper;
+    private final CacheManager cacheManager;
+    private final OffHeapSnapshotEncoder snapshotEncoder;
+    private final FailureBackoff failureBackoff;
+    private final int maxParallelism;
+    private final AtomicReference<LastKnownGood> lastKnownGood = new AtomicReference<>();
+
+    public ReactiveContactService(KenectLabsApiClient apiClient, ContactMapper contactMapper,
+                                  @Nullable CacheManager cacheManager,
+                                  @Nullable OffHeapSnapshotEncoder snapshotEncoder,
+                                  @Nullable FailureBackoff failureBackoff,
+                                  @Value("${crawl.max-parallelism:8}") int maxParallelism) {
+        this.apiClient = apiClient;
+        this.contactMapper = contactMapper;
+        this.cacheManager = cacheManager;
+        this.snapshotEncoder = snapshotEncoder;
+        this.failureBackoff = failureBackoff;
+        this.maxParallelism = Math.max(1, maxParallelism);
+    }
+
+    public Mono<List<Contact>> fetchAllContacts() {
+        return withBackoff(CRAWL_BACKOFF_KEY, Mono.defer(() -> {
+            log.info("Cache miss - Starting to fetch all contacts from external API");
+            long startTime = System.currentTimeMillis();
+
+            return fetchPage(1)
+                    .flatMap(firstPage -> remainingPages(firstPage)
+                            .flatMapSequential(this::fetchPage, maxParallelism)
+                            .startWith(firstPage)
+                            .concatMapIterable(this::toContacts)
+                            .collectList())
+                    .map(allContacts -> snapshotEncoder != null ? snapshotEncoder.encode(allContacts) : allContacts)
+                    .doOnNext(allContacts -> {
+                        log.info("Successfully fetched {} contacts in {} ms",
+                                allContacts.size(), System.currentTimeMillis() - startTime);
+                        lastKnownGood.set(new LastKnownGood(allContacts, Instant.now()));
+                    });
+        }));
+    }
+
+    public Mono<ContactsResult<List<Contact>>> getAllContacts(ContactSource source) {
+        return loadContacts().map(result -> result.map(allContacts -> {
+            if (source != null) {
+                log.debug("Filtering contacts by source: {}", source);
+                return allContacts.stream()
+                        .filter(contact -> source.getValue().equals(contact.getSource()))
+                        .toList();
+            }
+            return allContacts;
+        }));
+    }
+
+    public Mono<ContactsResult<PaginatedResponse<Contact>>> getContactsPaginated(ContactQueryParams params) {
+        int page = params.getPageOrDefault();
+        int size = params.getSizeOrDefault();
+        ContactSource source = params.getSource();
+
+        log.info("Fetching paginated contacts - page: {}, size: {}, source: {}", page, size, source);
+
+        return getAllContacts(source)
+                .map(result -> result.map(allContacts -> PaginatedResponse.of(allContacts, page, size)));
+    }
+
+    public void evictContactsCache() {
+        log.info("Evicting contacts cache");
+        if (failureBackoff != null) {
+            failureBackoff.reset();
+        }
+        Cache cache = contactsCache();
+        if (cache != null) {
+            cache.evict(ALL_CONTACTS_KEY);
+        }
+    }
+
+    private Mono<ContactsResult<List<Contact>>> loadContacts() {
+        return fetchThroughCache()
+                .map(ContactsResult::fresh)
+                .onErrorResume(ReactiveContactService::isUpstreamUnavailable, ex -> {
+                    LastKnownGood snapshot = lastKnownGood.get();
+                    if (snapshot == null) {
+                        log.warn("Upstream is unavailable ({}) and no previous snapshot exists. Failing fast.", ex.getMessage());
+                        return Mono.error(ex);
+                    }
+
+                    log.warn("Upstream is unavailable ({}). Serving last known good snapshot from {}",
+                            ex.getMessage(), snapshot.fetchedAt());
+                    return Mono.just(ContactsResult.stale(snapshot.contacts(), snapshot.fetchedAt()));
+                });
+    }
+
+    private Mono<List<Contact>> fetchThroughCache() {
+        Cache cache = contactsCache();
+        if (cache == null) {
+            return fetchAllContacts();
+        }
+
+        return Deadline.enforce(
+                Mono.fromFuture(() -> cache.retrieve(ALL_CONTACTS_KEY, () -> fetchAllContacts().toFuture()), true),
+                "waiting for the contacts crawl");
+    }
+
+    private static boolean isUpstreamUnavailable(Throwable ex) {
+        return ex instanceof CircuitBreakerOpenException || ex instanceof UpstreamBackoffException;
+    }
+
+    private Mono<ExternalContactResponse> fetchPage(int page) {
+        return withBackoff("page " + page, Mono.defer(() -> apiClient.fetchContactsPageAsync(page)));
+    }
+
+    private <T> Mono<T> withBackoff(String key, Mono<T> call) {
+        return failureBackoff != null ? failureBackoff.call(key, call) : call;
+    }
+
+    private Flux<Integer> remainingPages(ExternalContactResponse firstPage) {
+        if (firstPage.getPagination() == null || !firstPage.getPagination().hasNextPage()) {
+            return Flux.empty();
+        }
+        return Flux.range(2, firstPage.getPagination().getTotalPages() - 1);
+    }
+
+    private List<Contact> toContacts(ExternalContactResponse response) {
+        if (response.getContacts() == null) {
+            return List.of();
+        }
+        return response.getContacts().stream()
+                .map(dto -> contactMapper.toContact(dto, ContactSource.KENECT_LABS))
+                .toList();
+    }
+
+    private Cache contactsCache() {
+        return cacheManager != null ? cacheManager.getCache(CONTACTS_CACHE) : null;
+    }
+
+    private record LastKnownGood(List<Contact> contacts, Instant fetchedAt) {
+    }
+}
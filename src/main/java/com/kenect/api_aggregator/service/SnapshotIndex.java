@@ -0,0 +1,11 @@
+package com.kenect.api_aggregator.service;
+
+import com.kenect.api_aggregator.model.Contact;
+
+import java.util.List;
+
+@FunctionalInterface
+public interface SnapshotIndex<T> {
+
+    T build(List<Contact> contacts);
+}
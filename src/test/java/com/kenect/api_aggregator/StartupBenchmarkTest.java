@@ -0,0 +1,170 @@
+package com.kenect.api_aggregator;
+
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Compares startup of the plain JVM jar, the JVM with the CDS archive and lazy {@code fast-startup}
+ * profile, and the native executable: time to the first {@code /health} response, time to the first
+ * successful {@code /contacts} response (against a local stub upstream), and resident memory.
+ * Build the variants first ({@code mvn package -Pcds} and {@code mvn -Pnative native:compile}), then run
+ * with {@code mvn test -Pbenchmark}. RSS is read from {@code /proc}, so it is reported on Linux only.
+ */
+@Tag("benchmark")
+class StartupBenchmarkTest {
+
+    private static final Path TARGET = Paths.get("target");
+    private static final long STARTUP_TIMEOUT_MS = 60_000;
+    private static final String CONTACTS_PAGE = """
+            [{"id":1,"name":"John Doe","email":"john@example.net",
+            "created_at":"2020-06-24T19:37:16.688Z","updated_at":"2020-06-24T19:37:16.688Z"}]
+            """;
+
+    private MockWebServer upstream;
+
+    @BeforeEach
+    void startUpstream() throws IOException {
+        upstream = new MockWebServer();
+        upstream.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                return new MockResponse()
+                        .setBody(CONTACTS_PAGE)
+                        .addHeader("Content-Type", "application/json")
+                        .addHeader("Current-Page", "1")
+                        .addHeader("Total-Pages", "1")
+                        .addHeader("Total-Count", "1");
+            }
+        });
+        upstream.start();
+    }
+
+    @AfterEach
+    void stopUpstream() throws IOException {
+        upstream.shutdown();
+    }
+
+    @Test
+    void jvm() throws Exception {
+        Path jar = executableJar();
+        assumeTrue(jar != null, "Run mvn package first");
+
+        String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+        report("jvm", List.of(java, "-jar", jar.toString()));
+    }
+
+    @Test
+    void jvmWithCdsArchive() throws Exception {
+        Path launcher = TARGET.resolve("cds").resolve("run.sh");
+        assumeTrue(Files.isExecutable(launcher), "Run mvn package -Pcds first");
+
+        report("jvm-cds", List.of(launcher.toAbsolutePath().toString()));
+    }
+
+    @Test
+    void nativeImage() throws Exception {
+        Path executable = TARGET.resolve("api-aggregator");
+        assumeTrue(Files.isExecutable(executable), "Run mvn -Pnative native:compile first");
+
+        report("native", List.of(executable.toString()));
+    }
+
+    private void report(String mode, List<String> command) throws Exception {
+        int port = freePort();
+        List<String> arguments = new ArrayList<>(command);
+        arguments.add("--server.port=" + port);
+        arguments.add("--kenect.api.base-url=" + upstream.url("/").toString().replaceAll("/$", ""));
+
+        long startTime = System.nanoTime();
+        Process process = new ProcessBuilder(arguments)
+                .redirectErrorStream(true)
+                .redirectOutput(new File(TARGET.toFile(), "startup-" + mode + ".log"))
+                .start();
+        try {
+            awaitStatus(port, "/health", process);
+            long healthyMillis = (System.nanoTime() - startTime) / 1_000_000;
+            awaitStatus(port, "/contacts", process);
+            long contactsMillis = (System.nanoTime() - startTime) / 1_000_000;
+            long rssKb = residentSetKb(process.pid());
+
+            System.out.printf("%-7s first /health after %d ms, first /contacts after %d ms, RSS %s%n",
+                    mode, healthyMillis, contactsMillis, rssKb >= 0 ? rssKb / 1024 + " MB" : "n/a");
+            assertTrue(contactsMillis >= healthyMillis);
+        } finally {
+            process.destroy();
+            process.waitFor();
+        }
+    }
+
+    private void awaitStatus(int port, String path, Process process) throws Exception {
+        URI uri = URI.create("http://localhost:" + port + path);
+        long deadline = System.currentTimeMillis() + STARTUP_TIMEOUT_MS;
+        while (System.currentTimeMillis() < deadline) {
+            assertTrue(process.isAlive(), "Application exited during startup");
+            try {
+                HttpURLConnection connection = (HttpURLConnection) uri.toURL().openConnection();
+                connection.setConnectTimeout(100);
+                int status = connection.getResponseCode();
+                connection.disconnect();
+                if (status == 200) {
+                    return;
+                }
+            } catch (IOException ex) {
+                Thread.sleep(5);
+            }
+        }
+        fail(path + " did not respond with 200 within " + STARTUP_TIMEOUT_MS + " ms");
+    }
+
+    private long residentSetKb(long pid) throws IOException {
+        Path status = Paths.get("/proc", String.valueOf(pid), "status");
+        if (!Files.exists(status)) {
+            return -1;
+        }
+        try (Stream<String> lines = Files.lines(status)) {
+            return lines.filter(line -> line.startsWith("VmRSS:"))
+                    .map(line -> Long.parseLong(line.replaceAll("\\D", "")))
+                    .findFirst()
+                    .orElse(-1L);
+        }
+    }
+
+    private Path executableJar() throws IOException {
+        if (!Files.isDirectory(TARGET)) {
+            return null;
+        }
+        try (Stream<Path> files = Files.list(TARGET)) {
+            return files.filter(file -> file.getFileName().toString().matches("api-aggregator-.*\\.jar"))
+                    .filter(file -> !file.getFileName().toString().endsWith("-plain.jar"))
+                    .findFirst()
+                    .orElse(null);
+        }
+    }
+
+    private int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
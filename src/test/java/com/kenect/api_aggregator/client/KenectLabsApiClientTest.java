@@ -3,7 +3,17 @@ package com.kenect.api_aggregator.client;
 import com.kenect.api_aggregator.dto.ExternalContactDto;
 import com.kenect.api_aggregator.dto.ExternalContactResponse;
 import com.kenect.api_aggregator.dto.PaginationMetadata;
+import com.kenect.api_aggregator.exception.DeadlineExceededException;
 import com.kenect.api_aggregator.exception.ExternalApiException;
+import com.kenect.api_aggregator.resilience.AdaptiveConcurrencyLimiter;
+import com.kenect.api_aggregator.resilience.CircuitBreaker;
+import com.kenect.api_aggregator.resilience.Deadline;
+import com.kenect.api_aggregator.resilience.EndpointRouter;
+import com.kenect.api_aggregator.resilience.HedgingPolicy;
+import com.kenect.api_aggregator.resilience.LatencyTracker;
+import com.kenect.api_aggregator.resilience.RequestBudget;
+import com.kenect.api_aggregator.resilience.UpstreamRatePacer;
+import com.kenect.api_aggregator.resilience.UpstreamRetryPolicy;
 import okhttp3.mockwebserver.MockResponse;
 import okhttp3.mockwebserver.MockWebServer;
 import okhttp3.mockwebserver.RecordedRequest;
@@ -13,6 +23,10 @@ import org.junit.jupiter.api.Test;
 import org.springframework.web.reactive.function.client.WebClient;
 
 import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -20,6 +34,7 @@ class KenectLabsApiClientTest {
 
     private MockWebServer mockWebServer;
     private KenectLabsApiClient apiClient;
+    private UpstreamRatePacer ratePacer;
 
     @BeforeEach
     void setUp() throws IOException {
@@ -30,7 +45,76 @@ class KenectLabsApiClientTest {
                 .baseUrl(mockWebServer.url("/").toString())
                 .build();
 
-        apiClient = new KenectLabsApiClient(webClient);
+        apiClient = createClient(webClient, HedgingPolicy.builder()
+                .enabled(false)
+                .latencyTracker(new LatencyTracker(16))
+                .build());
+    }
+
+    private KenectLabsApiClient createClient(WebClient webClient, HedgingPolicy hedgingPolicy) {
+        return createClient(webClient, hedgingPolicy, List.of(mockWebServer.url("/").toString()));
+    }
+
+    private KenectLabsApiClient createClient(WebClient webClient, HedgingPolicy hedgingPolicy, List<String> baseUrls) {
+        return createClient(webClient, hedgingPolicy, baseUrls, CircuitBreaker.builder()
+                .name("test")
+                .slidingWindowSize(10)
+                .minimumNumberOfCalls(10)
+                .failureRateThreshold(100)
+                .slowCallRateThreshold(100)
+                .slowCallDurationThreshold(Duration.ofSeconds(10))
+                .waitDurationInOpenState(Duration.ofSeconds(1))
+                .permittedCallsInHalfOpenState(1)
+                .recordFailure(retryPolicy()::isRetryable)
+                .build());
+    }
+
+    private KenectLabsApiClient createClient(WebClient webClient, HedgingPolicy hedgingPolicy, List<String> baseUrls,
+                                             CircuitBreaker circuitBreaker) {
+        UpstreamRetryPolicy retryPolicy = retryPolicy();
+
+        AdaptiveConcurrencyLimiter concurrencyLimiter = AdaptiveConcurrencyLimiter.builder()
+                .name("test")
+                .initialLimit(10)
+                .minLimit(1)
+                .maxLimit(10)
+                .backoffRatio(0.9)
+                .latencyTolerance(2.0)
+                .maxQueueSize(10)
+                .maxQueueWait(Duration.ofSeconds(5))
+                .recordFailure(retryPolicy::isRetryable)
+                .build();
+
+        ratePacer = UpstreamRatePacer.builder()
+                .name("test")
+                .ratePerSecond(1000)
+                .minRatePerSecond(0.1)
+                .burst(1000)
+                .maxWait(Duration.ofSeconds(5))
+                .build();
+
+        EndpointRouter endpointRouter = EndpointRouter.builder()
+                .name("test")
+                .baseUrls(baseUrls)
+                .failureThreshold(3)
+                .ejectDuration(Duration.ofSeconds(30))
+                .recordFailure(retryPolicy::isRetryable)
+                .build();
+
+        return new KenectLabsApiClient(webClient, retryPolicy, circuitBreaker, hedgingPolicy, concurrencyLimiter,
+                ratePacer, endpointRouter);
+    }
+
+    private UpstreamRetryPolicy retryPolicy() {
+        return UpstreamRetryPolicy.builder()
+                .maxAttempts(3)
+                .initialDelay(Duration.ofMillis(10))
+                .maxDelay(Duration.ofMillis(50))
+                .multiplier(2.0)
+                .retryableStatuses(Set.of(429, 500, 502, 503, 504))
+                .maxRetryAfter(Duration.ofSeconds(2))
+                .budget(new RequestBudget(0.1, 1.0, 20))
+                .build();
     }
 
     @AfterEach
@@ -128,11 +212,143 @@ class KenectLabsApiClientTest {
 
     @Test
     void fetchContactsPage_ShouldThrowException_WhenServerError() {
-        mockWebServer.enqueue(new MockResponse()
-                .setResponseCode(500)
-                .setBody("Internal Server Error"));
+        for (int attempt = 0; attempt < 3; attempt++) {
+            mockWebServer.enqueue(new MockResponse()
+                    .setResponseCode(500)
+                    .setBody("Internal Server Error"));
+        }
 
         assertThrows(ExternalApiException.class, () -> apiClient.fetchContactsPage(1));
+        assertEquals(3, mockWebServer.getRequestCount());
+    }
+
+    @Test
+    void fetchContactsPage_ShouldRetryAndSucceed_WhenServerErrorIsTransient() {
+        mockWebServer.enqueue(new MockResponse()
+                .setResponseCode(502)
+                .setBody("Bad Gateway"));
+        mockWebServer.enqueue(new MockResponse()
+                .setResponseCode(200)
+                .setBody("[]")
+                .addHeader("Content-Type", "application/json")
+                .addHeader("Current-Page", "1")
+                .addHeader("Total-Pages", "1"));
+
+        ExternalContactResponse response = apiClient.fetchContactsPage(1);
+
+        assertNotNull(response);
+        assertTrue(response.getContacts().isEmpty());
+        assertEquals(2, mockWebServer.getRequestCount());
+    }
+
+    @Test
+    void fetchContactsPage_ShouldHonorRetryAfter_WhenRateLimited() {
+        mockWebServer.enqueue(new MockResponse()
+                .setResponseCode(429)
+                .addHeader("Retry-After", "1"));
+        mockWebServer.enqueue(new MockResponse()
+                .setResponseCode(200)
+                .setBody("[]")
+                .addHeader("Content-Type", "application/json")
+                .addHeader("Current-Page", "1")
+                .addHeader("Total-Pages", "1"));
+
+        long startTime = System.currentTimeMillis();
+        ExternalContactResponse response = apiClient.fetchContactsPage(1);
+        long elapsed = System.currentTimeMillis() - startTime;
+
+        assertNotNull(response);
+        assertEquals(2, mockWebServer.getRequestCount());
+        assertTrue(elapsed >= 1000, "Expected Retry-After delay to be honored, took " + elapsed + " ms");
+    }
+
+    @Test
+    void fetchContactsPage_ShouldPaceToQuotaReportedByUpstream() {
+        mockWebServer.enqueue(new MockResponse()
+                .setResponseCode(200)
+                .setBody("[]")
+                .addHeader("Content-Type", "application/json")
+                .addHeader("X-RateLimit-Remaining", "20")
+                .addHeader("X-RateLimit-Reset", "10"));
+
+        apiClient.fetchContactsPage(1);
+
+        assertEquals(20, ratePacer.getRemainingQuota());
+        assertEquals(2, ratePacer.getRate());
+    }
+
+    @Test
+    void fetchContactsPage_ShouldNotCountPacingDelayAsSlowCall() {
+        CircuitBreaker circuitBreaker = CircuitBreaker.builder()
+                .name("slow-calls")
+                .slidingWindowSize(1)
+                .minimumNumberOfCalls(1)
+                .failureRateThreshold(100)
+                .slowCallRateThreshold(100)
+                .slowCallDurationThreshold(Duration.ofMillis(500))
+                .waitDurationInOpenState(Duration.ofSeconds(30))
+                .permittedCallsInHalfOpenState(1)
+                .build();
+        KenectLabsApiClient client = createClient(
+                WebClient.builder().baseUrl(mockWebServer.url("/").toString()).build(),
+                HedgingPolicy.builder().enabled(false).latencyTracker(new LatencyTracker(16)).build(),
+                List.of(mockWebServer.url("/").toString()), circuitBreaker);
+
+        mockWebServer.enqueue(new MockResponse()
+                .setResponseCode(200)
+                .setBody("[]")
+                .addHeader("Content-Type", "application/json")
+                .addHeader("X-RateLimit-Remaining", "0")
+                .addHeader("X-RateLimit-Reset", "1"));
+        mockWebServer.enqueue(new MockResponse()
+                .setResponseCode(200)
+                .setBody("[]")
+                .addHeader("Content-Type", "application/json"));
+
+        client.fetchContactsPage(1);
+        long startTime = System.currentTimeMillis();
+        client.fetchContactsPage(2);
+        long elapsed = System.currentTimeMillis() - startTime;
+
+        assertTrue(elapsed >= 500, "Expected the exhausted quota to delay the call, took " + elapsed + " ms");
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    }
+
+    @Test
+    void fetchContactsPage_ShouldCancelCallWhenDeadlinePasses() {
+        mockWebServer.enqueue(new MockResponse()
+                .setResponseCode(200)
+                .setBody("[]")
+                .addHeader("Content-Type", "application/json")
+                .setHeadersDelay(5, TimeUnit.SECONDS));
+
+        Deadline.set(Deadline.after(Duration.ofMillis(200)));
+        long startTime = System.currentTimeMillis();
+        try {
+            assertThrows(DeadlineExceededException.class, () -> apiClient.fetchContactsPage(1));
+        } finally {
+            Deadline.clear();
+        }
+
+        assertTrue(System.currentTimeMillis() - startTime < 2000);
+        assertEquals(1, mockWebServer.getRequestCount());
+    }
+
+    @Test
+    void fetchContactsPage_ShouldNotRetryPastDeadline() {
+        mockWebServer.enqueue(new MockResponse()
+                .setResponseCode(503)
+                .addHeader("Retry-After", "1"));
+
+        Deadline.set(Deadline.after(Duration.ofMillis(500)));
+        try {
+            ExternalApiException ex = assertThrows(ExternalApiException.class, () -> apiClient.fetchContactsPage(1));
+            assertFalse(ex instanceof DeadlineExceededException);
+        } finally {
+            Deadline.clear();
+        }
+
+        assertEquals(1, mockWebServer.getRequestCount());
     }
 
     @Test
@@ -142,6 +358,7 @@ class KenectLabsApiClientTest {
                 .setBody("Unauthorized"));
 
         assertThrows(ExternalApiException.class, () -> apiClient.fetchContactsPage(1));
+        assertEquals(1, mockWebServer.getRequestCount());
     }
 
     @Test
@@ -159,4 +376,65 @@ class KenectLabsApiClientTest {
         assertNotNull(response.getContacts());
         assertTrue(response.getContacts().isEmpty());
     }
+
+    @Test
+    void fetchContactsPage_ShouldReturnHedgedResponse_WhenPrimaryIsSlow() {
+        KenectLabsApiClient hedgingClient = createClient(
+                WebClient.builder().baseUrl(mockWebServer.url("/").toString()).build(),
+                HedgingPolicy.builder()
+                        .enabled(true)
+                        .percentile(95)
+                        .minDelay(Duration.ofMillis(100))
+                        .maxDelay(Duration.ofMillis(100))
+                        .minSamples(0)
+                        .budget(new RequestBudget(0.05, 1.0, 5))
+                        .latencyTracker(new LatencyTracker(16))
+                        .build());
+
+        mockWebServer.enqueue(new MockResponse()
+                .setResponseCode(200)
+                .setBody("[]")
+                .addHeader("Content-Type", "application/json")
+                .setHeadersDelay(5, TimeUnit.SECONDS));
+        mockWebServer.enqueue(new MockResponse()
+                .setResponseCode(200)
+                .setBody("[]")
+                .addHeader("Content-Type", "application/json")
+                .addHeader("Current-Page", "1")
+                .addHeader("Total-Pages", "1"));
+
+        long startTime = System.currentTimeMillis();
+        ExternalContactResponse response = hedgingClient.fetchContactsPage(1);
+        long elapsed = System.currentTimeMillis() - startTime;
+
+        assertNotNull(response);
+        assertEquals(1, response.getPagination().getCurrentPage());
+        assertEquals(2, mockWebServer.getRequestCount());
+        assertTrue(elapsed < 4000, "Expected the hedged request to win, took " + elapsed + " ms");
+    }
+
+    @Test
+    void fetchContactsPage_ShouldFailOverToNextEndpoint_WhenEndpointFails() throws IOException {
+        try (MockWebServer secondary = new MockWebServer()) {
+            secondary.start();
+            KenectLabsApiClient multiEndpointClient = createClient(
+                    WebClient.builder().baseUrl(mockWebServer.url("/").toString()).build(),
+                    HedgingPolicy.builder().enabled(false).latencyTracker(new LatencyTracker(16)).build(),
+                    List.of(mockWebServer.url("/").toString(), secondary.url("/").toString()));
+
+            mockWebServer.enqueue(new MockResponse().setResponseCode(503));
+            secondary.enqueue(new MockResponse()
+                    .setResponseCode(200)
+                    .setBody("[]")
+                    .addHeader("Content-Type", "application/json")
+                    .addHeader("Current-Page", "1")
+                    .addHeader("Total-Pages", "1"));
+
+            ExternalContactResponse response = multiEndpointClient.fetchContactsPage(1);
+
+            assertEquals(1, response.getPagination().getCurrentPage());
+            assertEquals(1, mockWebServer.getRequestCount());
+            assertEquals(1, secondary.getRequestCount());
+        }
+    }
 }
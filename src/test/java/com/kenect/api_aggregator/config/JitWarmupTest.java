@@ -0,0 +1,83 @@
+package com.kenect.api_aggregator.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.availability.ApplicationAvailability;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "warmup.jit.enabled=true",
+        "warmup.jit.max-iterations=70",
+        "warmup.jit.batch-size=35",
+        "warmup.jit.target-latency=1ns"
+})
+class JitWarmupTest {
+
+    private static MockWebServer mockWebServer;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ApplicationAvailability availability;
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) throws IOException {
+        mockWebServer = new MockWebServer();
+        mockWebServer.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                return new MockResponse()
+                        .setBody("""
+                                [{"id":1,"name":"John Doe","email":"john@example.net",
+                                "created_at":"2020-06-24T19:37:16.688Z","updated_at":"2020-06-24T19:37:16.688Z"}]
+                                """)
+                        .addHeader("Content-Type", "application/json")
+                        .addHeader("Current-Page", "1")
+                        .addHeader("Total-Pages", "1")
+                        .addHeader("Total-Count", "1");
+            }
+        });
+        mockWebServer.start();
+        registry.add("kenect.api.base-url", () -> mockWebServer.url("/").toString());
+        registry.add("kenect.api.warmup.enabled", () -> "false");
+    }
+
+    @AfterAll
+    static void tearDownAll() throws IOException {
+        mockWebServer.shutdown();
+    }
+
+    @Test
+    void warmUp_ShouldRunBeforeReadinessAndRecordDuration() {
+        Timer timer = meterRegistry.find(JitWarmup.DURATION_METRIC).tag("outcome", "iteration-limit").timer();
+
+        assertNotNull(timer);
+        assertEquals(1, timer.count());
+        assertEquals(ReadinessState.ACCEPTING_TRAFFIC, availability.getReadinessState());
+        assertEquals(1, mockWebServer.getRequestCount());
+    }
+
+    @Test
+    void percentile_ShouldUseNearestRank() {
+        long[] latencies = {5, 1, 4, 2, 3, 10, 9, 8, 7, 6};
+
+        assertEquals(9, JitWarmup.percentile(latencies, 10, 0.9));
+        assertEquals(3, JitWarmup.percentile(latencies, 5, 0.5));
+        assertEquals(0, JitWarmup.percentile(latencies, 0, 0.9));
+    }
+}
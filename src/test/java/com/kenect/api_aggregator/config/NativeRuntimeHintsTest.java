@@ -0,0 +1,38 @@
+package com.kenect.api_aggregator.config;
+
+import com.kenect.api_aggregator.dto.ContactSyncResponse;
+import com.kenect.api_aggregator.dto.ExternalContactDto;
+import com.kenect.api_aggregator.model.Contact;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NativeRuntimeHintsTest {
+
+    private final RuntimeHints hints = new RuntimeHints();
+
+    NativeRuntimeHintsTest() {
+        new NativeRuntimeHints().registerHints(hints, getClass().getClassLoader());
+    }
+
+    @Test
+    void registerHints_ShouldRegisterJacksonBindingForResponseTypes() throws NoSuchMethodException {
+        assertTrue(RuntimeHintsPredicates.reflection().onMethod(Contact.class.getMethod("getCreatedAt")).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onMethod(ContactSyncResponse.class.getMethod("getUpserts")).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onMethod(ExternalContactDto.class.getMethod("setUpdatedAt", Instant.class))
+                .test(hints));
+    }
+
+    @Test
+    void registerHints_ShouldRegisterMixinAndProtobufSchema() {
+        assertTrue(RuntimeHintsPredicates.reflection().onType(BinaryFormatsConfig.EpochTimestamps.class)
+                .withMemberCategory(MemberCategory.DECLARED_FIELDS).test(hints));
+        assertTrue(RuntimeHintsPredicates.resource().forResource(ContactProtobufHttpMessageConverter.SCHEMA_LOCATION)
+                .test(hints));
+    }
+}
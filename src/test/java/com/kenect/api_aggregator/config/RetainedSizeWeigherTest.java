@@ -0,0 +1,85 @@
+package com.kenect.api_aggregator.config;
+
+import com.github.benmanes.caffeine.cache.Policy;
+import com.kenect.api_aggregator.dto.PaginatedResponse;
+import com.kenect.api_aggregator.model.Contact;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RetainedSizeWeigherTest {
+
+    private final RetainedSizeWeigher weigher = new RetainedSizeWeigher();
+
+    @Test
+    void weigh_ShouldGrowWithNumberOfContacts() {
+        int small = weigher.weigh("all", contacts(10));
+        int large = weigher.weigh("all", contacts(10_000));
+
+        assertTrue(small > 10 * RetainedSizeWeigher.CONTACT);
+        assertTrue(large > small * 900);
+    }
+
+    @Test
+    void estimate_ShouldCountStringAndByteArrayLengths() {
+        assertEquals(RetainedSizeWeigher.STRING + 5, RetainedSizeWeigher.estimate("hello"));
+        assertEquals(RetainedSizeWeigher.OBJECT_HEADER + 1024, RetainedSizeWeigher.estimate(new byte[1024]));
+        assertEquals(0, RetainedSizeWeigher.estimate(null));
+    }
+
+    @Test
+    void cacheManager_ShouldEvictSnapshotAboveItsShareOfMemoryBudget() {
+        CacheMemoryBudget budget = CacheMemoryBudget.of(DataSize.ofKilobytes(100));
+        Cache cache = new CacheConfig().cacheManager(Duration.ofMinutes(5), budget).getCache(CacheConfig.CONTACTS_CACHE);
+
+        cache.put("all", contacts(5_000));
+        cleanUp(cache);
+
+        assertNull(cache.get("all"));
+    }
+
+    @Test
+    void cacheManager_ShouldEvictQueryResultsAtByteBudget() {
+        CacheMemoryBudget budget = CacheMemoryBudget.of(DataSize.ofKilobytes(100));
+        Cache cache = new CacheConfig().cacheManager(Duration.ofMinutes(5), budget)
+                .getCache(CacheConfig.CONTACT_QUERIES_CACHE);
+        long entryBytes = weigher.weigh(1, PaginatedResponse.of(contacts(20), 1, 20));
+
+        for (int page = 1; page <= 20; page++) {
+            cache.put(page, PaginatedResponse.of(contacts(20), 1, 20));
+        }
+        cleanUp(cache);
+
+        Policy.Eviction<Object, Object> eviction = ((CaffeineCache) cache).getAsyncCache().synchronous()
+                .policy().eviction().orElseThrow();
+        assertTrue(eviction.weightedSize().orElseThrow() <= budget.queryResultBytes());
+        assertEquals(budget.queryResultBytes() / entryBytes,
+                ((CaffeineCache) cache).getAsyncCache().synchronous().estimatedSize());
+    }
+
+    private void cleanUp(Cache cache) {
+        ((CaffeineCache) cache).getAsyncCache().synchronous().cleanUp();
+    }
+
+    private List<Contact> contacts(int count) {
+        Instant now = Instant.now();
+        return IntStream.range(0, count)
+                .mapToObj(i -> Contact.builder()
+                        .id((long) i)
+                        .name("Contact " + i)
+                        .email("contact" + i + "@example.net")
+                        .source("KENECT_LABS")
+                        .createdAt(now)
+                        .updatedAt(now)
+                        .build())
+                .toList();
+    }
+}
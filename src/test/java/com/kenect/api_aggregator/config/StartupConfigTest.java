@@ -0,0 +1,35 @@
+package com.kenect.api_aggregator.config;
+
+import com.kenect.api_aggregator.controller.ContactExportController;
+import com.kenect.api_aggregator.service.ContactExportService;
+import com.kenect.api_aggregator.service.ContactService;
+import com.kenect.api_aggregator.service.ContactSnapshotHolder;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("fast-startup")
+class StartupConfigTest {
+
+    @Autowired
+    private ConfigurableListableBeanFactory beanFactory;
+
+    @Test
+    void fastStartupProfile_ShouldKeepContactsPathEagerAndDeferTheRest() {
+        assertTrue(isCreated(ContactService.class));
+        assertTrue(isCreated(ContactSnapshotHolder.class));
+        assertFalse(isCreated(ContactExportController.class));
+        assertFalse(isCreated(ContactExportService.class));
+    }
+
+    private boolean isCreated(Class<?> type) {
+        String[] names = beanFactory.getBeanNamesForType(type, false, false);
+        assertEquals(1, names.length);
+        return beanFactory.containsSingleton(names[0]);
+    }
+}
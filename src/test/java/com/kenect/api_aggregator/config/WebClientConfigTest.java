@@ -0,0 +1,48 @@
+package com.kenect.api_aggregator.config;
+
+import com.kenect.api_aggregator.resilience.UpstreamRetryPolicy;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WebClientConfigTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withInitializer(context -> context.getBeanFactory().setConversionService(ApplicationConversionService.getSharedInstance()))
+            .withUserConfiguration(WebClientConfig.class)
+            .withBean(UpstreamRetryPolicy.class, () -> UpstreamRetryPolicy.builder().build())
+            .withBean(MeterRegistry.class, SimpleMeterRegistry::new)
+            .withPropertyValues("kenect.api.bearer-token=test-token", "kenect.api.http2.enabled=true");
+
+    @Test
+    void http2_ShouldUseTlsProtocol_WhenAllEndpointsUseHttps() {
+        contextRunner
+                .withPropertyValues("kenect.api.base-urls=https://east.example.net,https://west.example.net")
+                .run(context -> {
+                    assertNull(context.getStartupFailure());
+                    HttpProtocol[] protocols = context.getBean(HttpClient.class).configuration().protocols();
+                    assertArrayEquals(new HttpProtocol[]{HttpProtocol.H2, HttpProtocol.HTTP11}, protocols);
+                });
+    }
+
+    @Test
+    void http2_ShouldFailStartup_WhenEndpointSchemesAreMixed() {
+        contextRunner
+                .withPropertyValues("kenect.api.base-urls=https://east.example.net,http://localhost:8081")
+                .run(context -> {
+                    Throwable failure = context.getStartupFailure();
+                    assertNotNull(failure);
+                    while (failure.getCause() != null) {
+                        failure = failure.getCause();
+                    }
+                    assertInstanceOf(IllegalStateException.class, failure);
+                    assertTrue(failure.getMessage().contains("[http, https]"));
+                });
+    }
+}
@@ -0,0 +1,109 @@
+package com.kenect.api_aggregator.controller;
+
+import com.kenect.api_aggregator.dto.ContactChangeSet;
+import com.kenect.api_aggregator.dto.ContactSyncResponse;
+import com.kenect.api_aggregator.model.Contact;
+import com.kenect.api_aggregator.service.ContactChangeFeed;
+import com.kenect.api_aggregator.service.ContactService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import reactor.core.publisher.Flux;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(ContactChangesController.class)
+class ContactChangesControllerTest {
+
+    private static final Instant NOW = Instant.parse("2020-06-24T19:37:16.688Z");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ContactChangeFeed changeFeed;
+
+    @MockBean
+    private ContactService contactService;
+
+    @Test
+    void streamChanges_ShouldSendChangeSetsAsServerSentEvents() throws Exception {
+        ContactChangeSet changes = ContactChangeSet.builder()
+                .fromVersion(1)
+                .version(2)
+                .asOf(NOW)
+                .added(List.of(Contact.builder().id(7L).name("John Doe").build()))
+                .removed(List.of(3L))
+                .build();
+        when(changeFeed.subscribe(isNull())).thenReturn(Flux.just(changes));
+
+        MvcResult result = mockMvc.perform(get("/contacts/changes").accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(content().string(containsString("id:2\n")))
+                .andExpect(content().string(containsString("event:changes\n")))
+                .andExpect(content().string(containsString("\"removed\":[3]")))
+                .andExpect(content().string(containsString("\"name\":\"John Doe\"")));
+    }
+
+    @Test
+    void streamChanges_ShouldResumeFromLastEventIdAndSendReset_WhenSubscriberIsTooSlow() throws Exception {
+        ContactChangeSet changes = ContactChangeSet.builder().fromVersion(4).version(5).asOf(NOW).build();
+        when(changeFeed.subscribe(4L)).thenReturn(Flux.just(changes)
+                .concatWith(Flux.error(new ContactChangeFeed.SlowSubscriberException(6, NOW))));
+
+        MvcResult result = mockMvc.perform(get("/contacts/changes").header("Last-Event-ID", "4"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("id:5\nevent:changes\n")))
+                .andExpect(content().string(containsString("id:6\nevent:reset\n")));
+    }
+
+    @Test
+    void sync_ShouldReturnDeltaSinceToken() throws Exception {
+        when(changeFeed.sync("abc")).thenReturn(ContactSyncResponse.builder()
+                .token("def")
+                .version(3)
+                .asOf(NOW)
+                .upserts(List.of(Contact.builder().id(7L).name("John Doe").build()))
+                .tombstones(List.of(3L))
+                .build());
+
+        mockMvc.perform(get("/contacts/sync").param("token", "abc"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.token").value("def"))
+                .andExpect(jsonPath("$.fullResync").value(false))
+                .andExpect(jsonPath("$.upserts[0].id").value(7))
+                .andExpect(jsonPath("$.tombstones[0]").value(3));
+
+        verify(contactService).getAllContacts(isNull());
+    }
+
+    @Test
+    void sync_ShouldReturnBadRequest_WhenTokenIsMalformed() throws Exception {
+        when(changeFeed.sync("bad")).thenThrow(new IllegalArgumentException("Invalid sync token"));
+
+        mockMvc.perform(get("/contacts/sync").param("token", "bad"))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,133 @@
+package com.kenect.api_aggregator.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.protobuf.ProtobufMapper;
+import com.fasterxml.jackson.dataformat.protobuf.schema.ProtobufSchema;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.kenect.api_aggregator.dto.ContactQueryParams;
+import com.kenect.api_aggregator.dto.PaginatedResponse;
+import com.kenect.api_aggregator.model.Contact;
+import com.kenect.api_aggregator.service.ContactService;
+import com.kenect.api_aggregator.service.ContactsResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
+import java.util.List;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(ContactController.class)
+class ContactControllerBinaryFormatsTest {
+
+    private static final Instant CREATED_AT = Instant.parse("2020-06-24T19:37:16.688Z");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ContactService contactService;
+
+    private Contact contact;
+
+    @BeforeEach
+    void setUp() {
+        contact = Contact.builder()
+                .id(1L)
+                .name("Mrs. Willian Bradtke")
+                .email("jerold@example.net")
+                .source("KENECT_LABS")
+                .createdAt(CREATED_AT)
+                .updatedAt(CREATED_AT)
+                .build();
+    }
+
+    @Test
+    void getAllContacts_ShouldReturnSmileWithEpochTimestamps_WhenSmileAccepted() throws Exception {
+        when(contactService.getAllContacts(isNull())).thenReturn(ContactsResult.fresh(List.of(contact)));
+
+        byte[] body = fetch("application/x-jackson-smile");
+
+        JsonNode contacts = new ObjectMapper(new SmileFactory()).readTree(body);
+        assertEquals("Mrs. Willian Bradtke", contacts.get(0).get("name").asText());
+        assertEquals(CREATED_AT.toEpochMilli(), contacts.get(0).get("createdAt").asLong());
+    }
+
+    @Test
+    void getAllContacts_ShouldReturnCborWithEpochTimestamps_WhenCborAccepted() throws Exception {
+        when(contactService.getAllContacts(isNull())).thenReturn(ContactsResult.fresh(List.of(contact)));
+
+        byte[] body = fetch(MediaType.APPLICATION_CBOR_VALUE);
+
+        JsonNode contacts = new ObjectMapper(new CBORFactory()).readTree(body);
+        assertEquals("jerold@example.net", contacts.get(0).get("email").asText());
+        assertTrue(contacts.get(0).get("updatedAt").isIntegralNumber());
+        assertEquals(CREATED_AT.toEpochMilli(), contacts.get(0).get("updatedAt").asLong());
+    }
+
+    @Test
+    void getAllContacts_ShouldReturnProtobufContactList_WhenProtobufAccepted() throws Exception {
+        when(contactService.getAllContacts(isNull())).thenReturn(ContactsResult.fresh(List.of(contact)));
+
+        JsonNode contactList = decodeProtobuf(fetch("application/x-protobuf"), "ContactList");
+
+        JsonNode decoded = contactList.get("contacts").get(0);
+        assertEquals(1L, decoded.get("id").asLong());
+        assertEquals("KENECT_LABS", decoded.get("source").asText());
+        assertEquals(CREATED_AT.toEpochMilli(), decoded.get("created_at").asLong());
+    }
+
+    @Test
+    void getAllContacts_ShouldReturnProtobufContactPage_WhenPaginatedAndProtobufAccepted() throws Exception {
+        when(contactService.getContactsPaginated(any(ContactQueryParams.class)))
+                .thenReturn(ContactsResult.fresh(PaginatedResponse.of(List.of(contact), 1, 20)));
+
+        byte[] body = mockMvc.perform(get("/contacts").param("page", "1").accept("application/x-protobuf"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Total-Count", "1"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        JsonNode page = decodeProtobuf(body, "ContactPage");
+        assertEquals(1, page.get("content").size());
+        assertEquals(1, page.get("total_elements").asLong());
+        assertTrue(page.get("first").asBoolean());
+    }
+
+    @Test
+    void protobufSchema_ShouldBePublished() throws Exception {
+        mockMvc.perform(get("/schema/contacts.proto"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("message ContactPage")));
+    }
+
+    private byte[] fetch(String mediaType) throws Exception {
+        return mockMvc.perform(get("/contacts").accept(mediaType))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(mediaType))
+                .andReturn().getResponse().getContentAsByteArray();
+    }
+
+    private JsonNode decodeProtobuf(byte[] body, String rootType) throws IOException {
+        ProtobufMapper mapper = new ProtobufMapper();
+        try (InputStream schemaSource = new ClassPathResource("static/schema/contacts.proto").getInputStream()) {
+            ProtobufSchema schema = mapper.schemaLoader().load(schemaSource, rootType);
+            return mapper.readerFor(JsonNode.class).with(schema).readValue(body);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.kenect.api_aggregator.controller;
+
+import com.kenect.api_aggregator.model.Contact;
+import com.kenect.api_aggregator.service.ContactService;
+import com.kenect.api_aggregator.service.ContactsResult;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(value = ContactController.class, properties = {"streaming.threshold=2", "streaming.chunk-size=1"})
+class ContactControllerStreamingTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ContactService contactService;
+
+    @Test
+    void getAllContacts_ShouldStreamFlatList_WhenAboveThreshold() throws Exception {
+        Instant now = Instant.parse("2020-06-24T19:37:16.688Z");
+        List<Contact> contacts = List.of(
+                Contact.builder().id(1L).name("John Doe").source("KENECT_LABS").createdAt(now).updatedAt(now).build(),
+                Contact.builder().id(2L).name("Jane Smith").source("KENECT_LABS").createdAt(now).updatedAt(now).build());
+        when(contactService.getAllContacts(isNull())).thenReturn(ContactsResult.stale(contacts, now));
+
+        MvcResult streaming = mockMvc.perform(get("/contacts"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(streaming))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(header().string("X-Data-Stale", "true"))
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].name").value("John Doe"))
+                .andExpect(jsonPath("$[1].createdAt").value("2020-06-24T19:37:16.688Z"));
+    }
+
+    @Test
+    void getAllContacts_ShouldReturnBufferedList_WhenBelowThreshold() throws Exception {
+        when(contactService.getAllContacts(isNull())).thenReturn(ContactsResult.fresh(List.of(Contact.builder().id(1L).build())));
+
+        mockMvc.perform(get("/contacts"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)));
+    }
+}
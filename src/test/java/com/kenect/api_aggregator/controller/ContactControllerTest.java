@@ -3,10 +3,13 @@ package com.kenect.api_aggregator.controller;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.kenect.api_aggregator.dto.ContactQueryParams;
 import com.kenect.api_aggregator.dto.PaginatedResponse;
+import com.kenect.api_aggregator.exception.CircuitBreakerOpenException;
 import com.kenect.api_aggregator.exception.ExternalApiException;
 import com.kenect.api_aggregator.model.Contact;
 import com.kenect.api_aggregator.model.ContactSource;
 import com.kenect.api_aggregator.service.ContactService;
+import com.kenect.api_aggregator.service.ContactsResult;
+import com.kenect.api_aggregator.service.PageLayout;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
@@ -14,8 +17,10 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.util.List;
+import java.util.Set;
 
 import static org.hamcrest.Matchers.hasSize;
 import static org.mockito.ArgumentMatchers.any;
@@ -58,7 +63,7 @@ class ContactControllerTest {
                 .updatedAt(now)
                 .build();
 
-        when(contactService.getAllContacts(isNull())).thenReturn(List.of(contact1, contact2));
+        when(contactService.getAllContacts(isNull())).thenReturn(ContactsResult.fresh(List.of(contact1, contact2)));
 
         mockMvc.perform(get("/contacts")
                         .contentType(MediaType.APPLICATION_JSON))
@@ -77,7 +82,7 @@ class ContactControllerTest {
 
     @Test
     void getAllContacts_ShouldReturnEmptyFlatList_WhenNoContactsExist() throws Exception {
-        when(contactService.getAllContacts(isNull())).thenReturn(List.of());
+        when(contactService.getAllContacts(isNull())).thenReturn(ContactsResult.fresh(List.of()));
 
         mockMvc.perform(get("/contacts")
                         .contentType(MediaType.APPLICATION_JSON))
@@ -135,7 +140,7 @@ class ContactControllerTest {
                 .isLast(true)
                 .build();
 
-        when(contactService.getContactsPaginated(any(ContactQueryParams.class))).thenReturn(response);
+        when(contactService.getContactsPaginated(any(ContactQueryParams.class))).thenReturn(ContactsResult.fresh(response));
 
         mockMvc.perform(get("/contacts")
                         .param("page", "1")
@@ -176,7 +181,7 @@ class ContactControllerTest {
                 .isLast(true)
                 .build();
 
-        when(contactService.getContactsPaginated(any(ContactQueryParams.class))).thenReturn(response);
+        when(contactService.getContactsPaginated(any(ContactQueryParams.class))).thenReturn(ContactsResult.fresh(response));
 
         mockMvc.perform(get("/contacts")
                         .param("size", "10")
@@ -212,7 +217,7 @@ class ContactControllerTest {
                 .isLast(false)
                 .build();
 
-        when(contactService.getContactsPaginated(any(ContactQueryParams.class))).thenReturn(response);
+        when(contactService.getContactsPaginated(any(ContactQueryParams.class))).thenReturn(ContactsResult.fresh(response));
 
         mockMvc.perform(get("/contacts")
                         .param("page", "2")
@@ -240,7 +245,7 @@ class ContactControllerTest {
                 .updatedAt(now)
                 .build();
 
-        when(contactService.getAllContacts(ContactSource.KENECT_LABS)).thenReturn(List.of(contact));
+        when(contactService.getAllContacts(ContactSource.KENECT_LABS)).thenReturn(ContactsResult.fresh(List.of(contact)));
 
         mockMvc.perform(get("/contacts")
                         .param("source", "KENECT_LABS")
@@ -275,7 +280,7 @@ class ContactControllerTest {
                 .isLast(true)
                 .build();
 
-        when(contactService.getContactsPaginated(any(ContactQueryParams.class))).thenReturn(response);
+        when(contactService.getContactsPaginated(any(ContactQueryParams.class))).thenReturn(ContactsResult.fresh(response));
 
         mockMvc.perform(get("/contacts")
                         .param("page", "1")
@@ -285,4 +290,46 @@ class ContactControllerTest {
                 .andExpect(jsonPath("$.content", hasSize(1)))
                 .andExpect(jsonPath("$.content[0].source").value("KENECT_LABS"));
     }
+
+    @Test
+    void getAllContacts_ShouldFlagStaleData_WhenServingLastKnownGoodSnapshot() throws Exception {
+        Instant asOf = Instant.parse("2020-06-24T19:37:16.688Z");
+
+        when(contactService.getAllContacts(isNull())).thenReturn(ContactsResult.stale(List.of(), asOf));
+
+        mockMvc.perform(get("/contacts")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Data-Stale", "true"))
+                .andExpect(header().string("X-Data-As-Of", "2020-06-24T19:37:16.688Z"));
+    }
+
+    @Test
+    void getContactsPaginated_ShouldReportGaps_WhenServingPartialResult() throws Exception {
+        List<List<Contact>> pages = List.of(List.of(), List.of(), List.of(), List.of(), List.of(), List.of());
+        PaginatedResponse<Contact> response = PaginatedResponse.of(List.of(), 1, 20);
+
+        when(contactService.getContactsPaginated(any(ContactQueryParams.class)))
+                .thenReturn(ContactsResult.fresh(response).withLayout(PageLayout.of(pages, Set.of(3, 4, 5), Set.of(2))));
+
+        mockMvc.perform(get("/contacts")
+                        .param("page", "1")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Partial-Content", "true"))
+                .andExpect(header().string("X-Missing-Pages", "3-5"))
+                .andExpect(header().string("X-Stale-Pages", "2"));
+    }
+
+    @Test
+    void getAllContacts_ShouldReturnServiceUnavailable_WhenCircuitIsOpen() throws Exception {
+        when(contactService.getAllContacts(isNull()))
+                .thenThrow(new CircuitBreakerOpenException("Circuit breaker 'kenect-api' is open", Duration.ofSeconds(12)));
+
+        mockMvc.perform(get("/contacts")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "12"))
+                .andExpect(jsonPath("$.status").value(503));
+    }
 }
@@ -0,0 +1,105 @@
+package com.kenect.api_aggregator.controller;
+
+import com.kenect.api_aggregator.model.ExportFormat;
+import com.kenect.api_aggregator.service.ContactExportService;
+import com.kenect.api_aggregator.service.ContactExportService.ExportFile;
+import com.kenect.api_aggregator.service.ContactService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(ContactExportController.class)
+class ContactExportControllerTest {
+
+    private static final String CSV = "id,name\n1,John Doe\n2,Jane Smith\n";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ContactExportService exportService;
+
+    @MockBean
+    private ContactService contactService;
+
+    @TempDir
+    private Path directory;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        Path file = Files.writeString(directory.resolve("contacts-1.csv"), CSV, StandardCharsets.UTF_8);
+        when(exportService.acquire(eq(ExportFormat.CSV), any())).thenReturn(new ExportFile(
+                ExportFormat.CSV, file, Files.size(file), "\"1-csv\"", Instant.parse("2020-06-24T19:37:16Z")));
+    }
+
+    @Test
+    void export_ShouldServeWholeFile() throws Exception {
+        mockMvc.perform(get("/contacts/export").param("format", "csv"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("text/csv"))
+                .andExpect(header().string("Accept-Ranges", "bytes"))
+                .andExpect(header().string("ETag", "\"1-csv\""))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"contacts.csv\""))
+                .andExpect(header().longValue("Content-Length", CSV.length()))
+                .andExpect(content().string(CSV));
+    }
+
+    @Test
+    void export_ShouldServePartialContent_WhenRangeRequested() throws Exception {
+        mockMvc.perform(get("/contacts/export").param("format", "csv").header("Range", "bytes=8-17"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string("Content-Range", "bytes 8-17/" + CSV.length()))
+                .andExpect(content().string("1,John Doe"));
+    }
+
+    @Test
+    void export_ShouldAskForTheGenerationNamedByIfRange_AndReleaseIt() throws Exception {
+        mockMvc.perform(get("/contacts/export").param("format", "csv")
+                        .header("Range", "bytes=8-17")
+                        .header("If-Range", "\"1-csv\""))
+                .andExpect(status().isPartialContent());
+
+        verify(exportService).acquire(ExportFormat.CSV, "\"1-csv\"");
+        verify(exportService).release(any(ExportFile.class));
+    }
+
+    @Test
+    void export_ShouldServeWholeFile_WhenIfRangeDoesNotMatch() throws Exception {
+        mockMvc.perform(get("/contacts/export").param("format", "csv")
+                        .header("Range", "bytes=8-17")
+                        .header("If-Range", "\"0-csv\""))
+                .andExpect(status().isOk())
+                .andExpect(content().string(CSV));
+    }
+
+    @Test
+    void export_ShouldReturnRangeNotSatisfiable_WhenRangeBeyondFile() throws Exception {
+        mockMvc.perform(get("/contacts/export").param("format", "csv").header("Range", "bytes=1000-"))
+                .andExpect(status().isRequestedRangeNotSatisfiable())
+                .andExpect(header().string("Content-Range", "bytes */" + CSV.length()));
+    }
+
+    @Test
+    void export_ShouldReturnBadRequest_WhenFormatIsUnknown() throws Exception {
+        mockMvc.perform(get("/contacts/export").param("format", "xml"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.details").value("Invalid value 'xml' for parameter 'format'. Valid values are: csv, ndjson"));
+    }
+}
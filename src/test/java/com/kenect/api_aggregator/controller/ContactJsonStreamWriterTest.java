@@ -0,0 +1,91 @@
+package com.kenect.api_aggregator.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kenect.api_aggregator.model.Contact;
+import com.kenect.api_aggregator.service.OffHeapSnapshotEncoder;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContactJsonStreamWriterTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @Test
+    void write_ShouldProduceSameJsonAsBufferedSerialization() throws IOException {
+        List<Contact> contacts = contacts(7);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        new ContactJsonStreamWriter(objectMapper, 3).write(contacts, output);
+
+        assertEquals(objectMapper.writeValueAsString(contacts), output.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void write_ShouldFlushOncePerChunk() throws IOException {
+        CountingOutputStream output = new CountingOutputStream();
+
+        new ContactJsonStreamWriter(objectMapper, 10).write(contacts(25), output);
+
+        assertEquals(3, output.flushes);
+        assertFalse(output.closed);
+    }
+
+    @Test
+    void write_ShouldCopyOffHeapFragmentsVerbatim() throws IOException {
+        List<Contact> contacts = contacts(7);
+        List<Contact> snapshot = new OffHeapSnapshotEncoder(objectMapper, 16).encode(contacts);
+        CountingOutputStream output = new CountingOutputStream();
+
+        new ContactJsonStreamWriter(objectMapper, 3).write(snapshot, output);
+
+        assertEquals(objectMapper.writeValueAsString(contacts), output.toString(StandardCharsets.UTF_8));
+        assertEquals(3, output.flushes);
+    }
+
+    @Test
+    void write_ShouldWriteEmptyArray_WhenNoContacts() throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        new ContactJsonStreamWriter(objectMapper, 10).write(List.of(), output);
+
+        assertEquals("[]", output.toString(StandardCharsets.UTF_8));
+    }
+
+    private List<Contact> contacts(int count) {
+        Instant now = Instant.parse("2020-06-24T19:37:16.688Z");
+        return LongStream.rangeClosed(1, count)
+                .mapToObj(id -> Contact.builder()
+                        .id(id)
+                        .name("Contact " + id)
+                        .email("contact" + id + "@example.net")
+                        .source("KENECT_LABS")
+                        .createdAt(now)
+                        .updatedAt(now)
+                        .build())
+                .toList();
+    }
+
+    private static class CountingOutputStream extends ByteArrayOutputStream {
+
+        private int flushes;
+        private boolean closed;
+
+        @Override
+        public void flush() {
+            flushes++;
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+}
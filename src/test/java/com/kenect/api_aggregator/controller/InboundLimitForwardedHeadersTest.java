@@ -0,0 +1,54 @@
+package com.kenect.api_aggregator.controller;
+
+import com.kenect.api_aggregator.service.ContactService;
+import com.kenect.api_aggregator.service.ContactsResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "kenect.api.warmup.enabled=false",
+        "inbound-limit.full-list.capacity=1",
+        "inbound-limit.full-list.refill-per-second=0.001"
+})
+class InboundLimitForwardedHeadersTest {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @MockBean
+    private ContactService contactService;
+
+    @BeforeEach
+    void setUp() {
+        when(contactService.getAllContacts(any())).thenReturn(ContactsResult.fresh(List.of()));
+    }
+
+    @Test
+    void clientsBehindTrustedProxy_ShouldBeKeyedByForwardedAddress() {
+        assertEquals(HttpStatus.OK, getContactsFrom("203.0.113.10"));
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, getContactsFrom("203.0.113.10"));
+
+        assertEquals(HttpStatus.OK, getContactsFrom("203.0.113.20"));
+    }
+
+    private HttpStatusCode getContactsFrom(String clientAddress) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("X-Forwarded-For", clientAddress);
+        return restTemplate.exchange("/contacts", HttpMethod.GET, new HttpEntity<>(headers), String.class).getStatusCode();
+    }
+}
@@ -0,0 +1,100 @@
+package com.kenect.api_aggregator.controller;
+
+import com.kenect.api_aggregator.dto.PaginatedResponse;
+import com.kenect.api_aggregator.model.Contact;
+import com.kenect.api_aggregator.service.ContactService;
+import com.kenect.api_aggregator.service.ContactsResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = {
+        "kenect.api.warmup.enabled=false",
+        "inbound-limit.full-list.capacity=2",
+        "inbound-limit.full-list.refill-per-second=0.001",
+        "inbound-limit.paginated.capacity=5",
+        "inbound-limit.paginated.refill-per-second=0.001",
+        "inbound-limit.shedding.max-concurrent=1",
+        "inbound-limit.shedding.max-queue-wait=50ms",
+        "streaming.threshold=1"
+})
+@AutoConfigureMockMvc
+class InboundLimitInterceptorTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ContactService contactService;
+
+    @BeforeEach
+    void setUp() {
+        when(contactService.getAllContacts(any())).thenReturn(ContactsResult.fresh(List.of()));
+        when(contactService.getContactsPaginated(any())).thenReturn(ContactsResult.fresh(PaginatedResponse.of(List.<Contact>of(), 1, 20)));
+    }
+
+    @Test
+    void fullListRequests_ShouldBeRateLimitedPerClientWithRetryAfter() throws Exception {
+        mockMvc.perform(get("/contacts").header("X-API-Key", "dashboard")).andExpect(status().isOk());
+        mockMvc.perform(get("/contacts").header("X-API-Key", "dashboard")).andExpect(status().isOk());
+
+        mockMvc.perform(get("/contacts").header("X-API-Key", "dashboard"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists("Retry-After"))
+                .andExpect(jsonPath("$.status").value(429));
+
+        mockMvc.perform(get("/contacts").header("X-API-Key", "other")).andExpect(status().isOk());
+        mockMvc.perform(get("/contacts").param("page", "1").header("X-API-Key", "dashboard"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void streamedFullListRequests_ShouldDrawOneTokenAcrossTheAsyncDispatch() throws Exception {
+        when(contactService.getAllContacts(any())).thenReturn(ContactsResult.fresh(List.of(Contact.builder().id(1L).build())));
+
+        for (int i = 0; i < 2; i++) {
+            MvcResult streaming = mockMvc.perform(get("/contacts").header("X-API-Key", "exporter"))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+            mockMvc.perform(asyncDispatch(streaming))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$[0].id").value(1));
+        }
+
+        mockMvc.perform(get("/contacts").header("X-API-Key", "exporter"))
+                .andExpect(status().isTooManyRequests());
+    }
+
+    @Test
+    void subResourceRequests_ShouldDrawFromFullListBucket() throws Exception {
+        mockMvc.perform(get("/contacts/sync").header("X-API-Key", "syncer")).andExpect(status().isOk());
+        mockMvc.perform(get("/contacts").header("X-API-Key", "syncer")).andExpect(status().isOk());
+
+        mockMvc.perform(get("/contacts/sync").header("X-API-Key", "syncer"))
+                .andExpect(status().isTooManyRequests());
+        mockMvc.perform(get("/contacts/export").header("X-API-Key", "syncer"))
+                .andExpect(status().isTooManyRequests());
+    }
+
+    @Test
+    void changeFeedConnections_ShouldNotHoldLoadSheddingPermit() throws Exception {
+        mockMvc.perform(get("/contacts/changes").header("X-API-Key", "subscriber"))
+                .andExpect(request().asyncStarted());
+
+        mockMvc.perform(get("/contacts").param("page", "1").header("X-API-Key", "subscriber"))
+                .andExpect(status().isOk());
+    }
+}
@@ -1,20 +1,57 @@
 package com.kenect.api_aggregator.health;
 
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.client.TestRestTemplate;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
 class HealthEndpointIntegrationTest {
 
+    private static MockWebServer mockWebServer;
+
     @Autowired
     private TestRestTemplate restTemplate;
 
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) throws IOException {
+        mockWebServer = new MockWebServer();
+        mockWebServer.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                return new MockResponse()
+                        .setResponseCode(200)
+                        .setBody("[]")
+                        .addHeader("Content-Type", "application/json")
+                        .addHeader("Current-Page", "1")
+                        .addHeader("Total-Pages", "1");
+            }
+        });
+        mockWebServer.start();
+        registry.add("kenect.api.base-url", () -> mockWebServer.url("/").toString());
+        registry.add("kenect.api.bearer-token", () -> "test-token");
+    }
+
+    @AfterAll
+    static void tearDownAll() throws IOException {
+        if (mockWebServer != null) {
+            mockWebServer.shutdown();
+        }
+    }
+
     @Test
     void actuatorHealth_ShouldReturnHealthStatus() {
         ResponseEntity<String> response = restTemplate.getForEntity("/actuator/health", String.class);
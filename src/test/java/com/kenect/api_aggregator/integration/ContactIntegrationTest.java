@@ -2,6 +2,7 @@ package com.kenect.api_aggregator.integration;
 
 import com.kenect.api_aggregator.dto.PaginatedResponse;
 import com.kenect.api_aggregator.model.Contact;
+import com.kenect.api_aggregator.service.ContactService;
 import okhttp3.mockwebserver.MockResponse;
 import okhttp3.mockwebserver.MockWebServer;
 import org.junit.jupiter.api.AfterAll;
@@ -19,6 +20,7 @@ import org.springframework.test.context.DynamicPropertySource;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -30,24 +32,28 @@ class ContactIntegrationTest {
     @Autowired
     private TestRestTemplate restTemplate;
 
+    @Autowired
+    private ContactService contactService;
+
     @DynamicPropertySource
     static void configureProperties(DynamicPropertyRegistry registry) throws IOException {
         mockWebServer = new MockWebServer();
         mockWebServer.start();
         registry.add("kenect.api.base-url", () -> mockWebServer.url("/").toString());
         registry.add("kenect.api.bearer-token", () -> "test-token");
+        registry.add("kenect.api.warmup.enabled", () -> "false");
     }
 
     @BeforeEach
     void setUp() {
-        while (mockWebServer.getRequestCount() > 0) {
-            try {
-                mockWebServer.takeRequest();
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                break;
+        try {
+            while (mockWebServer.takeRequest(10, TimeUnit.MILLISECONDS) != null) {
+                // drain requests recorded by previous tests
             }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         }
+        contactService.evictContactsCache();
     }
 
     @AfterAll
@@ -242,9 +248,11 @@ class ContactIntegrationTest {
 
     @Test
     void getContacts_ShouldReturnBadGateway_WhenExternalApiFailure() {
-        mockWebServer.enqueue(new MockResponse()
-                .setResponseCode(500)
-                .setBody("Internal Server Error"));
+        for (int attempt = 0; attempt < 3; attempt++) {
+            mockWebServer.enqueue(new MockResponse()
+                    .setResponseCode(500)
+                    .setBody("Internal Server Error"));
+        }
 
         ResponseEntity<String> response = restTemplate.getForEntity("/contacts", String.class);
 
@@ -0,0 +1,166 @@
+package com.kenect.api_aggregator.integration;
+
+import com.kenect.api_aggregator.model.Contact;
+import com.kenect.api_aggregator.service.ReactiveContactService;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.boot.web.embedded.netty.NettyWebServer;
+import org.springframework.boot.web.reactive.context.ReactiveWebServerApplicationContext;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.main.web-application-type=reactive")
+class ReactiveContactIntegrationTest {
+
+    private static final int TOTAL_PAGES = 3;
+
+    private static MockWebServer mockWebServer;
+    private static final AtomicInteger upstreamRequests = new AtomicInteger();
+    private static volatile int upstreamStatus = 200;
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private ReactiveContactService contactService;
+
+    @Autowired
+    private ReactiveWebServerApplicationContext applicationContext;
+
+    @LocalServerPort
+    private int port;
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) throws IOException {
+        mockWebServer = new MockWebServer();
+        mockWebServer.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                upstreamRequests.incrementAndGet();
+                if (upstreamStatus != 200) {
+                    return new MockResponse().setResponseCode(upstreamStatus);
+                }
+
+                String page = request.getRequestUrl().queryParameter("page");
+                return new MockResponse()
+                        .setResponseCode(200)
+                        .setBodyDelay(50, TimeUnit.MILLISECONDS)
+                        .setBody("[{\"id\": " + page + ", \"name\": \"Contact " + page + "\"}]")
+                        .addHeader("Content-Type", "application/json")
+                        .addHeader("Current-Page", page)
+                        .addHeader("Total-Pages", String.valueOf(TOTAL_PAGES))
+                        .addHeader("Total-Count", String.valueOf(TOTAL_PAGES));
+            }
+        });
+        mockWebServer.start();
+        registry.add("kenect.api.base-url", () -> mockWebServer.url("/").toString());
+        registry.add("kenect.api.bearer-token", () -> "test-token");
+        registry.add("kenect.api.warmup.enabled", () -> "false");
+        registry.add("retry.max-attempts", () -> "1");
+    }
+
+    @BeforeEach
+    void setUp() {
+        upstreamStatus = 200;
+        upstreamRequests.set(0);
+        contactService.evictContactsCache();
+    }
+
+    @AfterAll
+    static void tearDownAll() throws IOException {
+        if (mockWebServer != null) {
+            mockWebServer.shutdown();
+        }
+    }
+
+    @Test
+    void server_ShouldRunOnNetty() {
+        assertInstanceOf(NettyWebServer.class, applicationContext.getWebServer());
+    }
+
+    @Test
+    void getContacts_ShouldReturnAllPagesInOrder() {
+        List<Contact> contacts = webTestClient.get().uri("/contacts")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(new ParameterizedTypeReference<List<Contact>>() {})
+                .returnResult()
+                .getResponseBody();
+
+        assertNotNull(contacts);
+        assertEquals(List.of(1L, 2L, 3L), contacts.stream().map(Contact::getId).toList());
+        assertEquals("KENECT_LABS", contacts.get(0).getSource());
+    }
+
+    @Test
+    void getContacts_ShouldReturnPaginatedResponse_WhenPaginationParamsProvided() {
+        webTestClient.get().uri("/contacts?page=2&size=1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals("X-Total-Count", "3")
+                .expectHeader().valueEquals("X-Total-Pages", "3")
+                .expectHeader().valueEquals("X-Current-Page", "2")
+                .expectBody()
+                .jsonPath("$.content[0].id").isEqualTo(2)
+                .jsonPath("$.hasNext").isEqualTo(true);
+    }
+
+    @Test
+    void getContacts_ShouldShareOneCrawl_WhenRequestsArriveConcurrently() {
+        WebClient client = WebClient.create("http://localhost:" + port);
+
+        Long completed = Flux.range(0, 50)
+                .flatMap(i -> client.get().uri("/contacts")
+                        .retrieve()
+                        .bodyToFlux(Contact.class)
+                        .collectList(), 50)
+                .count()
+                .block(Duration.ofSeconds(30));
+
+        assertEquals(50L, completed);
+        assertEquals(TOTAL_PAGES, upstreamRequests.get());
+    }
+
+    @Test
+    void getContacts_ShouldReturnBadRequest_WhenSizeExceedsMaximum() {
+        webTestClient.get().uri("/contacts?size=101")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("Invalid request parameters")
+                .jsonPath("$.details").isEqualTo("Page size must not exceed 100");
+    }
+
+    @Test
+    void getContacts_ShouldReturnBadGateway_WhenUpstreamFails() {
+        upstreamStatus = 500;
+
+        webTestClient.get().uri("/contacts")
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.BAD_GATEWAY)
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("Failed to retrieve data from external service");
+    }
+}
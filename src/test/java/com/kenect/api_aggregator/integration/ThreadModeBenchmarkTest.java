@@ -0,0 +1,151 @@
+package com.kenect.api_aggregator.integration;
+
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Compares /contacts throughput of the platform-thread and virtual-thread modes against a slow upstream.
+ * Each mode boots the whole application, so the requests go through Tomcat's request executor and the
+ * crawl uses the application task executor that {@code spring.threads.virtual.enabled} selects. Caching
+ * and the rate and concurrency limits are switched off so that every request crawls and only the thread
+ * mode differs. Run with {@code mvn test -Pbenchmark} (the virtual-thread half needs a Java 21 runtime).
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "cache.enabled=false",
+        "inbound-limit.enabled=false",
+        "failure-backoff.enabled=false",
+        "kenect.api.warmup.enabled=false",
+        "kenect.api.pool.max-connections=1000",
+        "kenect.api.pool.pending-acquire-max-count=10000",
+        "upstream-rate.rate-per-second=100000",
+        "upstream-rate.burst=100000",
+        "concurrency-limit.initial-limit=1000",
+        "concurrency-limit.max-limit=1000",
+        "concurrency-limit.max-queue-size=10000",
+        "server.tomcat.threads.max=" + ThreadModeBenchmarkTest.TOMCAT_MAX_THREADS,
+        "spring.task.execution.pool.core-size=" + ThreadModeBenchmarkTest.CRAWL_POOL_SIZE,
+        "crawl.max-parallelism=" + ThreadModeBenchmarkTest.PAGES
+})
+class ThreadModeBenchmarkTest {
+
+    static final int TOMCAT_MAX_THREADS = 200;
+    static final int CRAWL_POOL_SIZE = 8;
+    static final int PAGES = 5;
+    private static final int CONCURRENT_REQUESTS = 200;
+    private static final long UPSTREAM_LATENCY_MS = 100;
+
+    private static MockWebServer upstream;
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) throws IOException {
+        if (upstream == null) {
+            upstream = new MockWebServer();
+            upstream.setDispatcher(new SlowUpstream());
+            upstream.start();
+        }
+        registry.add("kenect.api.base-url", () -> upstream.url("/").toString());
+        registry.add("kenect.api.bearer-token", () -> "test-token");
+    }
+
+    @AfterAll
+    static void tearDownAll() throws IOException {
+        if (upstream != null) {
+            upstream.shutdown();
+            upstream = null;
+        }
+    }
+
+    @Nested
+    @TestPropertySource(properties = "spring.threads.virtual.enabled=false")
+    class PlatformThreads {
+
+        @LocalServerPort
+        private int port;
+
+        @Test
+        void contacts() throws Exception {
+            report("platform", run(port));
+        }
+    }
+
+    @Nested
+    @TestPropertySource(properties = "spring.threads.virtual.enabled=true")
+    class VirtualThreads {
+
+        @LocalServerPort
+        private int port;
+
+        @BeforeAll
+        static void requireJava21() {
+            assumeTrue(Runtime.version().feature() >= 21, "Virtual threads need Java 21");
+        }
+
+        @Test
+        void contacts() throws Exception {
+            report("virtual", run(port));
+        }
+    }
+
+    private static long run(int port) throws Exception {
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/contacts")).GET().build();
+
+        long startTime = System.currentTimeMillis();
+        List<CompletableFuture<HttpResponse<Void>>> responses = new ArrayList<>(CONCURRENT_REQUESTS);
+        for (int i = 0; i < CONCURRENT_REQUESTS; i++) {
+            responses.add(client.sendAsync(request, HttpResponse.BodyHandlers.discarding()));
+        }
+        for (CompletableFuture<HttpResponse<Void>> response : responses) {
+            assertEquals(200, response.get(5, TimeUnit.MINUTES).statusCode());
+        }
+        return System.currentTimeMillis() - startTime;
+    }
+
+    private static void report(String mode, long elapsedMillis) {
+        System.out.printf("%-8s %d requests x %d pages @ %d ms upstream latency: %d ms (%.0f req/s)%n",
+                mode, CONCURRENT_REQUESTS, PAGES, UPSTREAM_LATENCY_MS, elapsedMillis,
+                CONCURRENT_REQUESTS * 1000.0 / elapsedMillis);
+        assertTrue(elapsedMillis > 0);
+    }
+
+    private static class SlowUpstream extends Dispatcher {
+
+        @Override
+        public MockResponse dispatch(RecordedRequest request) {
+            String page = request.getRequestUrl().queryParameter("page");
+            int current = page != null ? Integer.parseInt(page) : 1;
+            return new MockResponse()
+                    .setHeadersDelay(UPSTREAM_LATENCY_MS, TimeUnit.MILLISECONDS)
+                    .addHeader("Content-Type", "application/json")
+                    .addHeader("Current-Page", String.valueOf(current))
+                    .addHeader("Total-Pages", String.valueOf(PAGES))
+                    .setBody("[{\"id\": " + current + ", \"name\": \"Contact " + current + "\"}]");
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.kenect.api_aggregator.resilience;
+
+import com.kenect.api_aggregator.exception.ConcurrencyLimitExceededException;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private final AtomicLong clock = new AtomicLong();
+
+    private AdaptiveConcurrencyLimiter limiter(int initialLimit, int maxQueueSize, Duration maxQueueWait) {
+        return AdaptiveConcurrencyLimiter.builder()
+                .name("test")
+                .initialLimit(initialLimit)
+                .minLimit(1)
+                .maxLimit(20)
+                .backoffRatio(0.5)
+                .latencyTolerance(2.0)
+                .maxQueueSize(maxQueueSize)
+                .maxQueueWait(maxQueueWait)
+                .nanoClock(clock::get)
+                .build();
+    }
+
+    @Test
+    void release_ShouldDecreaseLimit_WhenCallFails() {
+        AdaptiveConcurrencyLimiter limiter = limiter(10, 10, Duration.ofSeconds(1));
+
+        limiter.acquire(CallPriority.INTERACTIVE).block().release(false);
+
+        assertEquals(5, limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    void release_ShouldDecreaseLimit_WhenLatencyExceedsBaseline() {
+        AdaptiveConcurrencyLimiter limiter = limiter(10, 10, Duration.ofSeconds(1));
+        completeAfter(limiter, Duration.ofMillis(100));
+
+        completeAfter(limiter, Duration.ofMillis(500));
+
+        assertEquals(5, limiter.getLimit());
+    }
+
+    @Test
+    void release_ShouldIncreaseLimit_WhenCallsSucceedUnderLoad() {
+        AdaptiveConcurrencyLimiter limiter = limiter(2, 10, Duration.ofSeconds(1));
+
+        for (int i = 0; i < 10; i++) {
+            AdaptiveConcurrencyLimiter.Permit first = limiter.acquire(CallPriority.INTERACTIVE).block();
+            AdaptiveConcurrencyLimiter.Permit second = limiter.acquire(CallPriority.INTERACTIVE).block();
+            first.release(true);
+            second.release(true);
+        }
+
+        assertTrue(limiter.getLimit() > 2);
+    }
+
+    @Test
+    void acquire_ShouldServeInteractiveBeforeBackground() {
+        AdaptiveConcurrencyLimiter limiter = limiter(1, 10, Duration.ofSeconds(5));
+        AdaptiveConcurrencyLimiter.Permit held = limiter.acquire(CallPriority.INTERACTIVE).block();
+        List<CallPriority> order = new ArrayList<>();
+
+        limiter.acquire(CallPriority.BACKGROUND).subscribe(permit -> {
+            order.add(CallPriority.BACKGROUND);
+            permit.release(true);
+        });
+        limiter.acquire(CallPriority.INTERACTIVE).subscribe(permit -> {
+            order.add(CallPriority.INTERACTIVE);
+            permit.release(true);
+        });
+        assertEquals(1, limiter.getQueueDepth(CallPriority.BACKGROUND));
+        assertEquals(1, limiter.getQueueDepth(CallPriority.INTERACTIVE));
+
+        held.release(true);
+
+        assertEquals(List.of(CallPriority.INTERACTIVE, CallPriority.BACKGROUND), order);
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    void acquire_ShouldReject_WhenQueueIsFull() {
+        AdaptiveConcurrencyLimiter limiter = limiter(1, 0, Duration.ofSeconds(1));
+        limiter.acquire(CallPriority.INTERACTIVE).block();
+
+        assertThrows(ConcurrencyLimitExceededException.class,
+                () -> limiter.acquire(CallPriority.BACKGROUND).block());
+    }
+
+    @Test
+    void acquire_ShouldRejectAndLeaveQueue_WhenWaitTimesOut() {
+        AdaptiveConcurrencyLimiter limiter = limiter(1, 10, Duration.ofMillis(50));
+        limiter.acquire(CallPriority.INTERACTIVE).block();
+
+        assertThrows(ConcurrencyLimitExceededException.class,
+                () -> limiter.acquire(CallPriority.INTERACTIVE).block(Duration.ofSeconds(2)));
+        assertEquals(0, limiter.getQueueDepth(CallPriority.INTERACTIVE));
+    }
+
+    @Test
+    void limit_ShouldReleasePermit_WhenCallIsCancelled() {
+        AdaptiveConcurrencyLimiter limiter = limiter(1, 10, Duration.ofSeconds(1));
+        Sinks.One<String> never = Sinks.one();
+
+        limiter.limit(never.asMono(), CallPriority.INTERACTIVE).subscribe().dispose();
+
+        assertEquals(0, limiter.getInFlight());
+        assertEquals("ok", limiter.limit(Mono.just("ok"), CallPriority.INTERACTIVE).block());
+    }
+
+    private void completeAfter(AdaptiveConcurrencyLimiter limiter, Duration latency) {
+        AdaptiveConcurrencyLimiter.Permit permit = limiter.acquire(CallPriority.INTERACTIVE).block();
+        clock.addAndGet(latency.toNanos());
+        permit.release(true);
+    }
+}
@@ -0,0 +1,125 @@
+package com.kenect.api_aggregator.resilience;
+
+import com.kenect.api_aggregator.exception.CircuitBreakerOpenException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CircuitBreakerTest {
+
+    private static final long MILLIS = 1_000_000L;
+
+    private final AtomicLong clock = new AtomicLong();
+    private CircuitBreaker circuitBreaker;
+
+    @BeforeEach
+    void setUp() {
+        circuitBreaker = CircuitBreaker.builder()
+                .name("test")
+                .slidingWindowSize(10)
+                .minimumNumberOfCalls(4)
+                .failureRateThreshold(50)
+                .slowCallRateThreshold(75)
+                .slowCallDurationThreshold(Duration.ofMillis(100))
+                .waitDurationInOpenState(Duration.ofSeconds(30))
+                .permittedCallsInHalfOpenState(2)
+                .recordFailure(ex -> !(ex instanceof IllegalArgumentException))
+                .nanoClock(clock::get)
+                .build();
+    }
+
+    @Test
+    void shouldStayClosed_WhenBelowMinimumNumberOfCalls() {
+        circuitBreaker.onError(MILLIS);
+        circuitBreaker.onError(MILLIS);
+        circuitBreaker.onError(MILLIS);
+
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    }
+
+    @Test
+    void shouldOpen_WhenFailureRateExceedsThreshold() {
+        circuitBreaker.onSuccess(MILLIS);
+        circuitBreaker.onSuccess(MILLIS);
+        circuitBreaker.onError(MILLIS);
+        circuitBreaker.onError(MILLIS);
+
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+        assertFalse(circuitBreaker.tryAcquirePermission());
+        assertEquals(Duration.ofSeconds(30), circuitBreaker.remainingOpenDuration());
+    }
+
+    @Test
+    void shouldOpen_WhenSlowCallRateExceedsThreshold() {
+        circuitBreaker.onSuccess(200 * MILLIS);
+        circuitBreaker.onSuccess(200 * MILLIS);
+        circuitBreaker.onSuccess(200 * MILLIS);
+        circuitBreaker.onSuccess(MILLIS);
+
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+    }
+
+    @Test
+    void shouldCloseAfterHalfOpenCallsSucceed() {
+        openCircuit();
+        clock.addAndGet(Duration.ofSeconds(30).toNanos());
+
+        assertTrue(circuitBreaker.tryAcquirePermission());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, circuitBreaker.getState());
+        assertTrue(circuitBreaker.tryAcquirePermission());
+        assertFalse(circuitBreaker.tryAcquirePermission());
+
+        circuitBreaker.onSuccess(MILLIS);
+        circuitBreaker.onSuccess(MILLIS);
+
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    }
+
+    @Test
+    void shouldReopen_WhenHalfOpenCallFails() {
+        openCircuit();
+        clock.addAndGet(Duration.ofSeconds(30).toNanos());
+
+        assertTrue(circuitBreaker.tryAcquirePermission());
+        assertTrue(circuitBreaker.tryAcquirePermission());
+        circuitBreaker.onError(MILLIS);
+        circuitBreaker.onSuccess(MILLIS);
+
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+    }
+
+    @Test
+    void protect_ShouldFailFastWithoutSubscribing_WhenOpen() {
+        openCircuit();
+        AtomicLong subscriptions = new AtomicLong();
+        Mono<String> call = Mono.fromCallable(() -> {
+            subscriptions.incrementAndGet();
+            return "ok";
+        });
+
+        assertThrows(CircuitBreakerOpenException.class, () -> circuitBreaker.protect(call).block());
+        assertEquals(0, subscriptions.get());
+    }
+
+    @Test
+    void protect_ShouldNotCountIgnoredFailures() {
+        for (int i = 0; i < 10; i++) {
+            Mono<String> call = Mono.error(new IllegalArgumentException("client error"));
+            assertThrows(IllegalArgumentException.class, () -> circuitBreaker.protect(call).block());
+        }
+
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    }
+
+    private void openCircuit() {
+        for (int i = 0; i < 4; i++) {
+            circuitBreaker.onError(MILLIS);
+        }
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+    }
+}
@@ -0,0 +1,110 @@
+package com.kenect.api_aggregator.resilience;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EndpointRouterTest {
+
+    private static final long MILLIS = 1_000_000L;
+
+    private final AtomicLong clock = new AtomicLong();
+    private final List<String> called = new ArrayList<>();
+    private EndpointRouter router;
+
+    @BeforeEach
+    void setUp() {
+        router = EndpointRouter.builder()
+                .name("test")
+                .baseUrls(List.of("http://a", "http://b"))
+                .ewmaAlpha(0.5)
+                .failureThreshold(2)
+                .ejectDuration(Duration.ofSeconds(30))
+                .recordFailure(ex -> ex instanceof IllegalStateException)
+                .nanoClock(clock::get)
+                .build();
+    }
+
+    @Test
+    void route_ShouldPreferEndpointWithLowestLatency() {
+        Map<String, Long> latencies = Map.of("http://a", 80 * MILLIS, "http://b", 20 * MILLIS);
+
+        for (int i = 0; i < 5; i++) {
+            router.route(url -> respond(url, latencies.get(url))).block();
+        }
+
+        assertEquals(List.of("http://a", "http://b", "http://b", "http://b", "http://b"), called);
+        assertEquals(80, router.getEndpoints().get(0).getLatencyMillis());
+        assertEquals(20, router.getEndpoints().get(1).getLatencyMillis());
+    }
+
+    @Test
+    void acquire_ShouldSpreadConcurrentCallsAcrossEndpointsOfSimilarLatency() {
+        router.route(url -> respond(url, 10 * MILLIS)).block();
+        router.route(url -> respond(url, 10 * MILLIS)).block();
+
+        EndpointRouter.Endpoint first = router.acquire(Set.of());
+        EndpointRouter.Endpoint second = router.acquire(Set.of());
+
+        assertNotSame(first, second);
+    }
+
+    @Test
+    void route_ShouldFailOverAndEjectEndpointAfterConsecutiveFailures() {
+        for (int i = 0; i < 2; i++) {
+            String result = router.route(url -> url.equals("http://a")
+                    ? Mono.<String>error(new IllegalStateException("down"))
+                    : respond(url, MILLIS)).block();
+            assertEquals("http://b", result);
+        }
+
+        assertFalse(router.getEndpoints().get(0).isHealthy());
+        called.clear();
+        router.route(url -> respond(url, 100 * MILLIS)).block();
+        router.route(url -> respond(url, 100 * MILLIS)).block();
+        assertEquals(List.of("http://b", "http://b"), called);
+
+        clock.addAndGet(Duration.ofSeconds(30).toNanos());
+        assertTrue(router.getEndpoints().get(0).isHealthy());
+    }
+
+    @Test
+    void route_ShouldNotFailOverOnUnrecordedFailure() {
+        assertThrows(IllegalArgumentException.class, () -> router.route(url -> {
+            called.add(url);
+            return Mono.error(new IllegalArgumentException("bad request"));
+        }).block());
+
+        assertEquals(List.of("http://a"), called);
+        assertTrue(router.getEndpoints().get(0).isHealthy());
+    }
+
+    @Test
+    void route_ShouldUseEjectedEndpoint_WhenEveryEndpointIsEjected() {
+        for (int i = 0; i < 2; i++) {
+            router.route(url -> Mono.error(new IllegalStateException("down"))).onErrorComplete().block();
+        }
+        assertFalse(router.getEndpoints().get(0).isHealthy());
+        assertFalse(router.getEndpoints().get(1).isHealthy());
+
+        assertNotNull(router.route(url -> respond(url, MILLIS)).block());
+        assertTrue(router.getEndpoints().stream().anyMatch(EndpointRouter.Endpoint::isHealthy));
+    }
+
+    private Mono<String> respond(String url, long latencyNanos) {
+        return Mono.fromCallable(() -> {
+            called.add(url);
+            clock.addAndGet(latencyNanos);
+            return url;
+        });
+    }
+}
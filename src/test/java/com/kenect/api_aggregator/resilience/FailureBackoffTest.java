@@ -0,0 +1,105 @@
+package com.kenect.api_aggregator.resilience;
+
+import com.kenect.api_aggregator.exception.ExternalApiException;
+import com.kenect.api_aggregator.exception.UpstreamBackoffException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FailureBackoffTest {
+
+    private final AtomicLong clock = new AtomicLong();
+    private final AtomicInteger calls = new AtomicInteger();
+    private FailureBackoff backoff;
+
+    @BeforeEach
+    void setUp() {
+        backoff = FailureBackoff.builder()
+                .name("test")
+                .initialDelay(Duration.ofSeconds(1))
+                .maxDelay(Duration.ofSeconds(3))
+                .multiplier(2)
+                .recordFailure(ex -> !(ex instanceof IllegalStateException))
+                .nanoClock(clock::get)
+                .build();
+    }
+
+    @Test
+    void call_ShouldFailFastWithoutCallingUpstreamWhileBackingOff() {
+        assertThrows(ExternalApiException.class, () -> backoff.call("crawl", failing()));
+
+        UpstreamBackoffException ex = assertThrows(UpstreamBackoffException.class, () -> backoff.call("crawl", failing()));
+
+        assertEquals(1, calls.get());
+        assertEquals(Duration.ofSeconds(1), ex.getRetryAfter());
+        assertTrue(ex.getMessage().contains("upstream down"));
+        assertEquals(1, backoff.getBackingOffCount());
+    }
+
+    @Test
+    void call_ShouldGrowBackoffExponentiallyUpToMaxDelay() {
+        assertThrows(ExternalApiException.class, () -> backoff.call("crawl", failing()));
+        clock.addAndGet(Duration.ofSeconds(1).toNanos());
+        assertThrows(ExternalApiException.class, () -> backoff.call("crawl", failing()));
+        assertEquals(Duration.ofSeconds(2), retryAfter("crawl"));
+
+        clock.addAndGet(Duration.ofSeconds(2).toNanos());
+        assertThrows(ExternalApiException.class, () -> backoff.call("crawl", failing()));
+        assertEquals(Duration.ofSeconds(3), retryAfter("crawl"));
+        assertEquals(3, calls.get());
+    }
+
+    @Test
+    void call_ShouldClearBackoffOnSuccess() {
+        assertThrows(ExternalApiException.class, () -> backoff.call("crawl", failing()));
+        clock.addAndGet(Duration.ofSeconds(1).toNanos());
+
+        assertEquals("ok", backoff.call("crawl", () -> "ok"));
+        assertThrows(ExternalApiException.class, () -> backoff.call("crawl", failing()));
+
+        assertEquals(Duration.ofSeconds(1), retryAfter("crawl"));
+    }
+
+    @Test
+    void call_ShouldTrackKeysIndependentlyAndIgnoreUnrecordedFailures() {
+        assertThrows(ExternalApiException.class, () -> backoff.call("page 3", failing()));
+        assertThrows(IllegalStateException.class, () -> backoff.call("page 4", () -> {
+            throw new IllegalStateException("not an upstream failure");
+        }));
+
+        assertEquals("ok", backoff.call("page 4", () -> "ok"));
+        assertEquals(1, backoff.getBackingOffCount());
+    }
+
+    @Test
+    void callMono_ShouldFailFastOnSubscriptionWhileBackingOff() {
+        Mono<String> failing = Mono.fromSupplier(failing());
+        assertThrows(ExternalApiException.class, () -> backoff.call("crawl", failing).block());
+
+        Mono<String> call = backoff.call("crawl", Mono.just("ok"));
+        assertThrows(UpstreamBackoffException.class, call::block);
+        clock.addAndGet(Duration.ofSeconds(1).toNanos());
+
+        assertEquals("ok", call.block());
+        assertEquals(0, backoff.getBackingOffCount());
+        assertEquals(1, calls.get());
+    }
+
+    private Supplier<String> failing() {
+        return () -> {
+            calls.incrementAndGet();
+            throw new ExternalApiException("upstream down");
+        };
+    }
+
+    private Duration retryAfter(String key) {
+        return assertThrows(UpstreamBackoffException.class, () -> backoff.call(key, () -> "ok")).getRetryAfter();
+    }
+}
@@ -0,0 +1,84 @@
+package com.kenect.api_aggregator.resilience;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HedgingPolicyTest {
+
+    private HedgingPolicy policy(LatencyTracker tracker, RequestBudget budget, int minSamples) {
+        return HedgingPolicy.builder()
+                .enabled(true)
+                .percentile(90)
+                .minDelay(Duration.ofMillis(20))
+                .maxDelay(Duration.ofMillis(500))
+                .minSamples(minSamples)
+                .budget(budget)
+                .latencyTracker(tracker)
+                .build();
+    }
+
+    @Test
+    void hedgeDelay_ShouldFollowPercentileWithinBounds() {
+        LatencyTracker tracker = new LatencyTracker(100);
+        for (int i = 1; i <= 100; i++) {
+            tracker.record(Duration.ofMillis(i * 10L).toNanos());
+        }
+
+        HedgingPolicy policy = policy(tracker, new RequestBudget(0.05, 1, 5), 10);
+
+        assertEquals(Duration.ofMillis(500), policy.hedgeDelay());
+    }
+
+    @Test
+    void hedgeDelay_ShouldBeNull_WhenNotEnoughSamples() {
+        HedgingPolicy policy = policy(new LatencyTracker(100), new RequestBudget(0.05, 1, 5), 10);
+
+        assertNull(policy.hedgeDelay());
+    }
+
+    @Test
+    void apply_ShouldUseFirstResponse_WhenPrimaryIsSlow() {
+        HedgingPolicy policy = policy(new LatencyTracker(10), new RequestBudget(0.05, 1, 5), 0);
+        AtomicInteger subscriptions = new AtomicInteger();
+        Mono<String> call = Mono.defer(() -> subscriptions.incrementAndGet() == 1
+                ? Mono.delay(Duration.ofSeconds(5)).thenReturn("primary")
+                : Mono.just("hedge"));
+
+        assertEquals("hedge", policy.apply(call).block(Duration.ofSeconds(2)));
+        assertEquals(2, subscriptions.get());
+        assertEquals(1, policy.getHedgesSent());
+        assertEquals(1, policy.getHedgesWon());
+    }
+
+    @Test
+    void apply_ShouldNotHedge_WhenBudgetExhausted() {
+        HedgingPolicy policy = policy(new LatencyTracker(10), new RequestBudget(0.05, 0, 0), 0);
+        AtomicInteger subscriptions = new AtomicInteger();
+        Mono<String> call = Mono.defer(() -> {
+            subscriptions.incrementAndGet();
+            return Mono.delay(Duration.ofMillis(100)).thenReturn("primary");
+        });
+
+        assertEquals("primary", policy.apply(call).block(Duration.ofSeconds(2)));
+        assertEquals(1, subscriptions.get());
+        assertEquals(0, policy.getHedgesSent());
+    }
+
+    @Test
+    void apply_ShouldPropagatePrimaryError_BeforeHedgeDelay() {
+        HedgingPolicy policy = policy(new LatencyTracker(10), new RequestBudget(0.05, 1, 5), 0);
+        AtomicInteger subscriptions = new AtomicInteger();
+        Mono<String> call = Mono.defer(() -> {
+            subscriptions.incrementAndGet();
+            return Mono.error(new IllegalStateException("boom"));
+        });
+
+        assertThrows(IllegalStateException.class, () -> policy.apply(call).block(Duration.ofSeconds(2)));
+        assertEquals(1, subscriptions.get());
+    }
+}
@@ -0,0 +1,50 @@
+package com.kenect.api_aggregator.resilience;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoadShedderTest {
+
+    @Test
+    void tryAcquire_ShouldRejectAfterQueueWaitWhenAllSlotsAreBusy() throws Exception {
+        LoadShedder shedder = new LoadShedder(1, Duration.ofMillis(20), Duration.ofSeconds(1), Duration.ofMinutes(1));
+
+        assertTrue(shedder.tryAcquire());
+        assertEquals(1, shedder.getInFlight());
+        assertFalse(shedder.tryAcquire());
+
+        shedder.release();
+        assertTrue(shedder.tryAcquire());
+    }
+
+    @Test
+    void tryAcquire_ShouldShedImmediatelyWhileQueueIsStanding() throws Exception {
+        AtomicLong clock = new AtomicLong();
+        LoadShedder shedder = new LoadShedder(1, Duration.ofMillis(10), Duration.ofMillis(5), Duration.ofMillis(100),
+                clock::get);
+        assertTrue(shedder.tryAcquire());
+
+        clock.addAndGet(Duration.ofMillis(100).toNanos());
+        assertFalse(shedder.tryAcquire());
+        assertFalse(shedder.isOverloaded());
+
+        clock.addAndGet(Duration.ofMillis(100).toNanos());
+        assertFalse(shedder.tryAcquire());
+        assertTrue(shedder.isOverloaded());
+
+        long start = System.nanoTime();
+        assertFalse(shedder.tryAcquire());
+        assertTrue(System.nanoTime() - start < Duration.ofMillis(10).toNanos());
+
+        shedder.release();
+        assertTrue(shedder.tryAcquire());
+        shedder.release();
+        clock.addAndGet(Duration.ofMillis(100).toNanos());
+        assertTrue(shedder.tryAcquire());
+        assertFalse(shedder.isOverloaded());
+    }
+}
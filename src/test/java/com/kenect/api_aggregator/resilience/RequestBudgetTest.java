@@ -0,0 +1,48 @@
+package com.kenect.api_aggregator.resilience;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestBudgetTest {
+
+    private final AtomicLong clock = new AtomicLong();
+
+    @Test
+    void tryWithdraw_ShouldAllowBurstUpToMaxBalance() {
+        RequestBudget budget = new RequestBudget(0.1, 0, 2, clock::get);
+
+        assertTrue(budget.tryWithdraw());
+        assertTrue(budget.tryWithdraw());
+        assertFalse(budget.tryWithdraw());
+    }
+
+    @Test
+    void tryWithdraw_ShouldAllowOneExtraRequestPerTenRegularRequests() {
+        RequestBudget budget = new RequestBudget(0.1, 0, 1, clock::get);
+        assertTrue(budget.tryWithdraw());
+
+        for (int i = 0; i < 9; i++) {
+            budget.recordRequest();
+        }
+        assertFalse(budget.tryWithdraw());
+
+        budget.recordRequest();
+        assertTrue(budget.tryWithdraw());
+    }
+
+    @Test
+    void tryWithdraw_ShouldRefillReserveOverTime() {
+        RequestBudget budget = new RequestBudget(0.1, 2.0, 5, clock::get);
+        while (budget.tryWithdraw()) {
+            // drain initial balance
+        }
+
+        clock.addAndGet(500_000_000L);
+
+        assertTrue(budget.tryWithdraw());
+        assertFalse(budget.tryWithdraw());
+    }
+}
@@ -0,0 +1,42 @@
+package com.kenect.api_aggregator.resilience;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBucketRateLimiterTest {
+
+    private final AtomicLong clock = new AtomicLong();
+
+    @Test
+    void tryAcquire_ShouldAllowBurstUpToCapacityAndReportWait() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(2, 4, 100, clock::get);
+
+        assertEquals(Duration.ZERO, limiter.tryAcquire("a"));
+        assertEquals(Duration.ZERO, limiter.tryAcquire("a"));
+        assertEquals(Duration.ofMillis(250), limiter.tryAcquire("a"));
+    }
+
+    @Test
+    void tryAcquire_ShouldRefillOverTime() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(1, 2, 100, clock::get);
+        assertEquals(Duration.ZERO, limiter.tryAcquire("a"));
+        assertFalse(limiter.tryAcquire("a").isZero());
+
+        clock.addAndGet(Duration.ofMillis(500).toNanos());
+
+        assertEquals(Duration.ZERO, limiter.tryAcquire("a"));
+    }
+
+    @Test
+    void tryAcquire_ShouldKeepSeparateBucketsPerClient() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(1, 1, 100, clock::get);
+
+        assertEquals(Duration.ZERO, limiter.tryAcquire("a"));
+        assertFalse(limiter.tryAcquire("a").isZero());
+        assertEquals(Duration.ZERO, limiter.tryAcquire("b"));
+    }
+}
@@ -0,0 +1,89 @@
+package com.kenect.api_aggregator.resilience;
+
+import com.kenect.api_aggregator.exception.UpstreamUnavailableException;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UpstreamRatePacerTest {
+
+    private final AtomicLong clock = new AtomicLong();
+
+    @Test
+    void reserve_ShouldSpaceCallsAtConfiguredRateAfterBurst() {
+        UpstreamRatePacer pacer = pacer(10, 2);
+
+        assertEquals(0, pacer.reserve());
+        assertEquals(0, pacer.reserve());
+        assertEquals(Duration.ofMillis(100).toNanos(), pacer.reserve());
+        assertEquals(Duration.ofMillis(200).toNanos(), pacer.reserve());
+
+        clock.addAndGet(Duration.ofMillis(250).toNanos());
+        assertEquals(Duration.ofMillis(50).toNanos(), pacer.reserve());
+    }
+
+    @Test
+    void onResponse_ShouldFollowQuotaReportedByUpstream() {
+        UpstreamRatePacer pacer = pacer(10, 5);
+
+        pacer.onResponse(200, headers("RateLimit-Remaining", "30", "RateLimit-Reset", "60"));
+
+        assertEquals(0.5, pacer.getRate());
+        assertEquals(30, pacer.getRemainingQuota());
+    }
+
+    @Test
+    void onResponse_ShouldPauseUntilRetryAfterAndHalveRateOn429() {
+        UpstreamRatePacer pacer = pacer(10, 5);
+
+        pacer.onResponse(429, headers(HttpHeaders.RETRY_AFTER, "2"));
+
+        assertEquals(5, pacer.getRate());
+        assertEquals(Duration.ofMillis(2200).toNanos(), pacer.reserve());
+
+        pacer.onResponse(200, new HttpHeaders());
+        assertEquals(5.5, pacer.getRate());
+    }
+
+    @Test
+    void onResponse_ShouldPauseUntilResetWhenQuotaIsExhausted() {
+        UpstreamRatePacer pacer = pacer(10, 5);
+
+        pacer.onResponse(200, headers("X-RateLimit-Remaining", "0", "X-RateLimit-Reset", "3"));
+
+        assertTrue(pacer.reserve() >= Duration.ofSeconds(3).toNanos());
+    }
+
+    @Test
+    void pace_ShouldFailFastWhenWaitWouldExceedMaxWait() {
+        UpstreamRatePacer pacer = pacer(10, 1);
+        pacer.onResponse(429, headers(HttpHeaders.RETRY_AFTER, "30"));
+
+        UpstreamUnavailableException ex = assertThrows(UpstreamUnavailableException.class,
+                () -> pacer.pace(Mono.just("ok")).block());
+        assertTrue(ex.getRetryAfter().compareTo(Duration.ofSeconds(30)) >= 0);
+    }
+
+    private UpstreamRatePacer pacer(double rate, double burst) {
+        return UpstreamRatePacer.builder()
+                .name("test")
+                .ratePerSecond(rate)
+                .burst(burst)
+                .maxWait(Duration.ofSeconds(10))
+                .nanoClock(clock::get)
+                .build();
+    }
+
+    private HttpHeaders headers(String... namesAndValues) {
+        HttpHeaders headers = new HttpHeaders();
+        for (int i = 0; i < namesAndValues.length; i += 2) {
+            headers.add(namesAndValues[i], namesAndValues[i + 1]);
+        }
+        return headers;
+    }
+}
@@ -0,0 +1,122 @@
+package com.kenect.api_aggregator.resilience;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UpstreamRetryPolicyTest {
+
+    private UpstreamRetryPolicy policy(RequestBudget budget) {
+        return UpstreamRetryPolicy.builder()
+                .maxAttempts(3)
+                .initialDelay(Duration.ofMillis(100))
+                .maxDelay(Duration.ofMillis(400))
+                .multiplier(2.0)
+                .retryableStatuses(Set.of(429, 500, 502, 503, 504))
+                .maxRetryAfter(Duration.ofSeconds(5))
+                .budget(budget)
+                .build();
+    }
+
+    private WebClientResponseException responseException(HttpStatus status, HttpHeaders headers) {
+        return WebClientResponseException.create(status.value(), status.getReasonPhrase(), headers, new byte[0], null);
+    }
+
+    @Test
+    void isRetryable_ShouldOnlyAcceptRetryableStatusesAndTransportErrors() {
+        UpstreamRetryPolicy policy = policy(new RequestBudget(0.1, 1, 10));
+
+        assertTrue(policy.isRetryable(responseException(HttpStatus.SERVICE_UNAVAILABLE, new HttpHeaders())));
+        assertTrue(policy.isRetryable(responseException(HttpStatus.TOO_MANY_REQUESTS, new HttpHeaders())));
+        assertFalse(policy.isRetryable(responseException(HttpStatus.BAD_REQUEST, new HttpHeaders())));
+        assertFalse(policy.isRetryable(responseException(HttpStatus.UNAUTHORIZED, new HttpHeaders())));
+        assertTrue(policy.isRetryable(new WebClientRequestException(
+                new java.io.IOException("Connection reset"), org.springframework.http.HttpMethod.GET,
+                URI.create("http://localhost"), new HttpHeaders())));
+        assertFalse(policy.isRetryable(new IllegalStateException("decode error")));
+    }
+
+    @Test
+    void backoff_ShouldUseFullJitterBoundedByMaxDelay() {
+        UpstreamRetryPolicy policy = policy(new RequestBudget(0.1, 1, 10));
+        RuntimeException failure = new RuntimeException("boom");
+
+        for (int i = 0; i < 100; i++) {
+            long first = policy.backoff(0, failure).toMillis();
+            long third = policy.backoff(5, failure).toMillis();
+            assertTrue(first >= 0 && first <= 100);
+            assertTrue(third >= 0 && third <= 400);
+        }
+    }
+
+    @Test
+    void backoff_ShouldHonorRetryAfterSeconds() {
+        UpstreamRetryPolicy policy = policy(new RequestBudget(0.1, 1, 10));
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, "3");
+
+        Duration delay = policy.backoff(0, responseException(HttpStatus.SERVICE_UNAVAILABLE, headers));
+
+        assertEquals(Duration.ofSeconds(3), delay);
+    }
+
+    @Test
+    void retryAfter_ShouldIgnoreHeaderOnNonThrottlingStatus() {
+        UpstreamRetryPolicy policy = policy(new RequestBudget(0.1, 1, 10));
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, "3");
+
+        assertNull(policy.retryAfter(responseException(HttpStatus.BAD_GATEWAY, headers)));
+    }
+
+    @Test
+    void apply_ShouldStopRetrying_WhenBudgetExhausted() {
+        UpstreamRetryPolicy policy = policy(new RequestBudget(0.1, 0, 1));
+        AtomicInteger attempts = new AtomicInteger();
+        Mono<String> call = Mono.defer(() -> {
+            attempts.incrementAndGet();
+            return Mono.error(responseException(HttpStatus.BAD_GATEWAY, new HttpHeaders()));
+        });
+
+        assertThrows(WebClientResponseException.class, () -> policy.apply(call).block());
+        assertEquals(2, attempts.get());
+    }
+
+    @Test
+    void apply_ShouldNotRetry_WhenFailureIsNotRetryable() {
+        UpstreamRetryPolicy policy = policy(new RequestBudget(0.1, 1, 10));
+        AtomicInteger attempts = new AtomicInteger();
+        Mono<String> call = Mono.defer(() -> {
+            attempts.incrementAndGet();
+            return Mono.error(responseException(HttpStatus.NOT_FOUND, new HttpHeaders()));
+        });
+
+        assertThrows(WebClientResponseException.class, () -> policy.apply(call).block());
+        assertEquals(1, attempts.get());
+    }
+
+    @Test
+    void apply_ShouldGiveUp_WhenRetryAfterExceedsLimit() {
+        UpstreamRetryPolicy policy = policy(new RequestBudget(0.1, 1, 10));
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, "60");
+        AtomicInteger attempts = new AtomicInteger();
+        Mono<String> call = Mono.defer(() -> {
+            attempts.incrementAndGet();
+            return Mono.error(responseException(HttpStatus.TOO_MANY_REQUESTS, headers));
+        });
+
+        assertThrows(WebClientResponseException.class, () -> policy.apply(call).block());
+        assertEquals(1, attempts.get());
+    }
+}
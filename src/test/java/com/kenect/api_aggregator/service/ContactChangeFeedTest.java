@@ -0,0 +1,228 @@
+package com.kenect.api_aggregator.service;
+
+import com.kenect.api_aggregator.config.CacheMemoryBudget;
+import com.kenect.api_aggregator.dto.ContactChangeSet;
+import com.kenect.api_aggregator.dto.ContactSyncResponse;
+import com.kenect.api_aggregator.model.Contact;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContactChangeFeedTest {
+
+    private static final Instant CREATED = Instant.parse("2020-06-24T19:37:16.688Z");
+
+    private static final CacheMemoryBudget BUDGET = CacheMemoryBudget.of(DataSize.ofMegabytes(64));
+
+    private ContactSnapshotHolder snapshotHolder;
+    private ContactChangeFeed changeFeed;
+
+    @BeforeEach
+    void setUp() {
+        snapshotHolder = new ContactSnapshotHolder(true, Duration.ofMinutes(5), BUDGET);
+        changeFeed = new ContactChangeFeed(snapshotHolder, BUDGET, 3, 2);
+    }
+
+    @Test
+    void onSnapshot_ShouldPushAddedUpdatedAndRemovedContacts() {
+        publish(contact(1L, 0), contact(2L, 0), contact(3L, 0));
+        List<ContactChangeSet> received = collect(changeFeed.subscribe(null));
+
+        publish(contact(3L, 5), contact(1L, 0), contact(4L, 0));
+
+        assertEquals(1, received.size());
+        ContactChangeSet changes = received.get(0);
+        assertEquals(1, changes.getFromVersion());
+        assertEquals(2, changes.getVersion());
+        assertEquals(List.of(4L), ids(changes.getAdded()));
+        assertEquals(List.of(3L), ids(changes.getUpdated()));
+        assertEquals(List.of(2L), changes.getRemoved());
+    }
+
+    @Test
+    void onSnapshot_ShouldNotPush_WhenNothingChanged() {
+        publish(contact(1L, 0));
+        List<ContactChangeSet> received = collect(changeFeed.subscribe(null));
+
+        publish(contact(1L, 0));
+
+        assertTrue(received.isEmpty());
+    }
+
+    @Test
+    void onSnapshot_ShouldNotReportMissingPagesAsRemoved_WhenPartialSnapshotIsRepaired() {
+        publish(contact(1L, 0), contact(2L, 0), contact(3L, 0));
+        List<ContactChangeSet> received = collect(changeFeed.subscribe(null));
+        String token = changeFeed.sync(null).getToken();
+
+        List<List<Contact>> partialPages = List.of(List.of(contact(1L, 0)), List.of(), List.of(contact(3L, 0), contact(4L, 0)));
+        publish(partialPages, PageLayout.of(partialPages, List.of(2), List.of()));
+        List<List<Contact>> repairedPages = List.of(List.of(contact(1L, 0)), List.of(contact(2L, 0)),
+                List.of(contact(3L, 0), contact(4L, 0)));
+        publish(repairedPages, PageLayout.of(repairedPages));
+
+        assertEquals(1, received.size());
+        assertEquals(1, received.get(0).getFromVersion());
+        assertEquals(3, received.get(0).getVersion());
+        assertEquals(List.of(4L), ids(received.get(0).getAdded()));
+        assertTrue(received.get(0).getRemoved().isEmpty());
+
+        ContactSyncResponse response = changeFeed.sync(token);
+        assertEquals(List.of(4L), ids(response.getUpserts()));
+        assertTrue(response.getTombstones().isEmpty());
+    }
+
+    @Test
+    void subscribe_ShouldReplayChangesAfterLastEventId() {
+        publish(contact(1L, 0));
+        publish(contact(1L, 0), contact(2L, 0));
+        publish(contact(1L, 0), contact(2L, 0));
+        publish(contact(2L, 0));
+
+        List<ContactChangeSet> replayed = collect(changeFeed.subscribe(2L));
+
+        assertEquals(1, replayed.size());
+        assertEquals(4, replayed.get(0).getVersion());
+        assertEquals(List.of(1L), replayed.get(0).getRemoved());
+    }
+
+    @Test
+    void subscribe_ShouldSendReset_WhenLastEventIdIsNoLongerInHistory() {
+        for (long id = 1; id <= 6; id++) {
+            publish(contact(id, 0));
+        }
+
+        List<ContactChangeSet> replayed = collect(changeFeed.subscribe(1L));
+
+        assertEquals(1, replayed.size());
+        assertTrue(replayed.get(0).isReset());
+        assertEquals(6, replayed.get(0).getVersion());
+    }
+
+    @Test
+    void subscribe_ShouldResetSlowSubscriberInsteadOfBufferingWithoutLimit() {
+        publish(contact(1L, 0));
+        Flux<ContactChangeSet> slow = changeFeed.subscribe(null);
+
+        for (long id = 2; id <= 5; id++) {
+            publish(contact(id, 0));
+        }
+
+        assertEquals(0, changeFeed.getSubscriberCount());
+        ContactChangeFeed.SlowSubscriberException ex = assertThrows(ContactChangeFeed.SlowSubscriberException.class,
+                () -> slow.collectList().block(Duration.ofSeconds(5)));
+        assertTrue(ex.toReset().isReset());
+    }
+
+    @Test
+    void sync_ShouldReturnFullResync_WhenNoTokenGiven() {
+        publish(contact(1L, 0), contact(2L, 0));
+
+        ContactSyncResponse response = changeFeed.sync(null);
+
+        assertTrue(response.isFullResync());
+        assertEquals(1, response.getVersion());
+        assertEquals(List.of(1L, 2L), ids(response.getUpserts()));
+        assertNotNull(response.getToken());
+    }
+
+    @Test
+    void sync_ShouldMergeChangesSinceToken() {
+        publish(contact(1L, 0), contact(2L, 0), contact(3L, 0));
+        String token = changeFeed.sync(null).getToken();
+        publish(contact(1L, 5), contact(2L, 0), contact(3L, 0), contact(4L, 0));
+        publish(contact(1L, 9), contact(3L, 0), contact(4L, 0));
+        publish(contact(1L, 9), contact(3L, 0));
+
+        ContactSyncResponse response = changeFeed.sync(token);
+
+        assertFalse(response.isFullResync());
+        assertEquals(4, response.getVersion());
+        assertEquals(List.of(1L), ids(response.getUpserts()));
+        assertEquals(CREATED.plusSeconds(9), response.getUpserts().get(0).getUpdatedAt());
+        assertEquals(List.of(2L, 4L), response.getTombstones());
+
+        ContactSyncResponse again = changeFeed.sync(response.getToken());
+        assertFalse(again.isFullResync());
+        assertTrue(again.getUpserts().isEmpty());
+        assertTrue(again.getTombstones().isEmpty());
+    }
+
+    @Test
+    void sync_ShouldReturnFullResync_WhenTokenIsTooOldOrFromAnotherInstance() {
+        publish(contact(1L, 0));
+        String oldToken = changeFeed.sync(null).getToken();
+        for (long id = 2; id <= 6; id++) {
+            publish(contact(id, 0));
+        }
+
+        assertTrue(changeFeed.sync(oldToken).isFullResync());
+        assertTrue(new ContactChangeFeed(snapshotHolder, BUDGET, 3, 2).sync(oldToken).isFullResync());
+    }
+
+    @Test
+    void sync_ShouldReturnFullResync_WhenHistoryExceedsItsMemoryBudget() {
+        changeFeed = new ContactChangeFeed(snapshotHolder, new CacheMemoryBudget(DataSize.ofKilobytes(40), 0, 0.1), 64, 2);
+        publish(contacts(1, 10));
+        String firstToken = changeFeed.sync(null).getToken();
+        publish(contacts(1, 20));
+        String secondToken = changeFeed.sync(null).getToken();
+        publish(contacts(1, 30));
+
+        ContactSyncResponse response = changeFeed.sync(secondToken);
+
+        assertTrue(changeFeed.sync(firstToken).isFullResync());
+        assertFalse(response.isFullResync());
+        assertEquals(10, response.getUpserts().size());
+        assertEquals(21L, response.getUpserts().get(0).getId());
+    }
+
+    @Test
+    void sync_ShouldRejectMalformedToken() {
+        publish(contact(1L, 0));
+
+        assertThrows(IllegalArgumentException.class, () -> changeFeed.sync("not a token!"));
+    }
+
+    private void publish(Contact... contacts) {
+        changeFeed.onSnapshot(new ContactSnapshotEvent(snapshotHolder.publish(List.of(contacts))));
+    }
+
+    private void publish(List<List<Contact>> pages, PageLayout layout) {
+        List<Contact> contacts = pages.stream().flatMap(List::stream).toList();
+        changeFeed.onSnapshot(new ContactSnapshotEvent(snapshotHolder.publish(contacts, layout)));
+    }
+
+    private Contact[] contacts(long firstId, long lastId) {
+        return LongStream.rangeClosed(firstId, lastId).mapToObj(id -> contact(id, 0)).toArray(Contact[]::new);
+    }
+
+    private List<ContactChangeSet> collect(Flux<ContactChangeSet> changes) {
+        List<ContactChangeSet> received = new CopyOnWriteArrayList<>();
+        changes.subscribe(received::add);
+        return received;
+    }
+
+    private List<Long> ids(List<Contact> contacts) {
+        return contacts.stream().map(Contact::getId).toList();
+    }
+
+    private Contact contact(Long id, long updatedSeconds) {
+        return Contact.builder()
+                .id(id)
+                .name("Contact " + id)
+                .source("KENECT_LABS")
+                .createdAt(CREATED)
+                .updatedAt(CREATED.plusSeconds(updatedSeconds))
+                .build();
+    }
+}
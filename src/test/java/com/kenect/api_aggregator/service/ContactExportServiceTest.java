@@ -0,0 +1,206 @@
+package com.kenect.api_aggregator.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kenect.api_aggregator.config.CacheMemoryBudget;
+import com.kenect.api_aggregator.model.Contact;
+import com.kenect.api_aggregator.model.ExportFormat;
+import com.kenect.api_aggregator.service.ContactExportService.ExportFile;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.AbstractList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ContactExportServiceTest {
+
+    private static final Instant NOW = Instant.parse("2020-06-24T19:37:16.688Z");
+
+    @Mock
+    private ContactService contactService;
+
+    @TempDir
+    private Path directory;
+
+    private final ContactSnapshotHolder snapshotHolder = new ContactSnapshotHolder(true, Duration.ofMinutes(5), CacheMemoryBudget.of(DataSize.ofMegabytes(64)));
+
+    private ContactExportService exportService;
+
+    @BeforeEach
+    void setUp() {
+        exportService = new ContactExportService(contactService, new ObjectMapper().findAndRegisterModules(),
+                new SyncTaskExecutor(), directory, Duration.ZERO);
+    }
+
+    @Test
+    void onSnapshot_ShouldRenderCsvWithEscapedFields() throws IOException {
+        exportService.onSnapshot(snapshot(List.of(
+                contact(1L, "Doe, John", "john@example.net"),
+                contact(2L, "Jane \"JJ\" Smith", "jane@example.net"))));
+
+        ExportFile export = exportService.getExport(ExportFormat.CSV);
+
+        assertEquals(List.of(
+                "id,name,email,source,created_at,updated_at",
+                "1,\"Doe, John\",john@example.net,KENECT_LABS,2020-06-24T19:37:16.688Z,2020-06-24T19:37:16.688Z",
+                "2,\"Jane \"\"JJ\"\" Smith\",jane@example.net,KENECT_LABS,2020-06-24T19:37:16.688Z,2020-06-24T19:37:16.688Z"),
+                Files.readAllLines(export.path()));
+        assertEquals(Files.size(export.path()), export.size());
+        verify(contactService, never()).getAllContacts(any());
+    }
+
+    @Test
+    void onSnapshot_ShouldRenderOneJsonObjectPerLine() throws IOException {
+        exportService.onSnapshot(snapshot(List.of(
+                contact(1L, "John Doe", "john@example.net"),
+                contact(2L, "Jane Smith", "jane@example.net"))));
+
+        List<String> lines = Files.readAllLines(exportService.getExport(ExportFormat.NDJSON).path());
+
+        assertEquals(2, lines.size());
+        assertTrue(lines.get(0).startsWith("{\"id\":1,\"name\":\"John Doe\""));
+        assertTrue(lines.get(1).contains("\"createdAt\":\"2020-06-24T19:37:16.688Z\""));
+    }
+
+    @Test
+    void onSnapshot_ShouldReplaceExportAndKeepOnlyPreviousGeneration() {
+        exportService.onSnapshot(snapshot(List.of(contact(1L, "A", "a@example.net"))));
+        ExportFile first = exportService.getExport(ExportFormat.CSV);
+        exportService.onSnapshot(snapshot(List.of(contact(2L, "B", "b@example.net"))));
+        ExportFile second = exportService.getExport(ExportFormat.CSV);
+        exportService.onSnapshot(snapshot(List.of(contact(3L, "C", "c@example.net"))));
+        ExportFile third = exportService.getExport(ExportFormat.CSV);
+
+        assertNotEquals(first.etag(), third.etag());
+        assertFalse(Files.exists(first.path()));
+        assertTrue(Files.exists(second.path()));
+        assertTrue(Files.exists(third.path()));
+    }
+
+    @Test
+    void acquire_ShouldKeepFileUntilReleased_WhenDownloadOverlapsReRender() throws IOException {
+        exportService.onSnapshot(snapshot(List.of(contact(1L, "A", "a@example.net"))));
+        ExportFile downloading = exportService.acquire(ExportFormat.CSV, null);
+
+        exportService.onSnapshot(snapshot(List.of(contact(2L, "B", "b@example.net"))));
+        exportService.onSnapshot(snapshot(List.of(contact(3L, "C", "c@example.net"))));
+
+        assertTrue(Files.readAllLines(downloading.path()).get(1).startsWith("1,A,"));
+        exportService.release(downloading);
+        assertFalse(Files.exists(downloading.path()));
+    }
+
+    @Test
+    void release_ShouldKeepSupersededFileForGracePeriod() {
+        exportService = new ContactExportService(contactService, new ObjectMapper().findAndRegisterModules(),
+                new SyncTaskExecutor(), directory, Duration.ofMinutes(10));
+        exportService.onSnapshot(snapshot(List.of(contact(1L, "A", "a@example.net"))));
+        ExportFile sentWithSendfile = exportService.acquire(ExportFormat.CSV, null);
+        exportService.release(sentWithSendfile);
+
+        exportService.onSnapshot(snapshot(List.of(contact(2L, "B", "b@example.net"))));
+        exportService.onSnapshot(snapshot(List.of(contact(3L, "C", "c@example.net"))));
+
+        assertTrue(Files.exists(sentWithSendfile.path()));
+    }
+
+    @Test
+    void acquire_ShouldResumeFromPreviousGeneration_WhenIfRangeNamesIt() {
+        exportService.onSnapshot(snapshot(List.of(contact(1L, "A", "a@example.net"))));
+        ExportFile first = exportService.getExport(ExportFormat.CSV);
+        exportService.onSnapshot(snapshot(List.of(contact(2L, "B", "b@example.net"))));
+
+        assertEquals(first, exportService.acquire(ExportFormat.CSV, first.etag()));
+        assertNotEquals(first, exportService.acquire(ExportFormat.CSV, "\"0-csv\""));
+    }
+
+    @Test
+    void acquire_ShouldNotWaitForRenderInProgress() throws Exception {
+        exportService.onSnapshot(snapshot(List.of(contact(1L, "A", "a@example.net"))));
+        CountDownLatch renderStarted = new CountDownLatch(1);
+        CountDownLatch finishRender = new CountDownLatch(1);
+        List<Contact> slowContacts = new AbstractList<>() {
+            @Override
+            public Contact get(int index) {
+                renderStarted.countDown();
+                try {
+                    finishRender.await();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+                return contact(2L, "B", "b@example.net");
+            }
+
+            @Override
+            public int size() {
+                return 1;
+            }
+        };
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> render = executor.submit(() -> exportService.render(slowContacts, NOW));
+            assertTrue(renderStarted.await(5, TimeUnit.SECONDS));
+
+            ExportFile downloading = assertTimeoutPreemptively(Duration.ofSeconds(2), () -> {
+                ExportFile export = exportService.acquire(ExportFormat.CSV, null);
+                exportService.release(export);
+                return export;
+            });
+
+            finishRender.countDown();
+            render.get(5, TimeUnit.SECONDS);
+            assertTrue(Files.readAllLines(downloading.path()).get(1).startsWith("1,A,"));
+            assertNotEquals(downloading.etag(), exportService.getExport(ExportFormat.CSV).etag());
+        } finally {
+            finishRender.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void getExport_ShouldRenderOnDemand_WhenNoSnapshotSeenYet() {
+        List<Contact> contacts = List.of(contact(1L, "John Doe", "john@example.net"));
+        when(contactService.getAllContacts(null)).thenReturn(ContactsResult.fresh(contacts));
+
+        ExportFile export = exportService.getExport(ExportFormat.NDJSON);
+        ExportFile again = exportService.getExport(ExportFormat.NDJSON);
+
+        assertEquals(export, again);
+        verify(contactService, times(1)).getAllContacts(null);
+    }
+
+    private ContactSnapshotEvent snapshot(List<Contact> contacts) {
+        return new ContactSnapshotEvent(snapshotHolder.publish(contacts));
+    }
+
+    private Contact contact(Long id, String name, String email) {
+        return Contact.builder()
+                .id(id)
+                .name(name)
+                .email(email)
+                .source("KENECT_LABS")
+                .createdAt(NOW)
+                .updatedAt(NOW)
+                .build();
+    }
+}
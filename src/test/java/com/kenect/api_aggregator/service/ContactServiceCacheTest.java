@@ -1,27 +1,46 @@
 package com.kenect.api_aggregator.service;
 
 import com.kenect.api_aggregator.client.KenectLabsApiClient;
+import com.kenect.api_aggregator.config.CacheMemoryBudget;
+import com.kenect.api_aggregator.config.RetainedSizeWeigher;
+import com.kenect.api_aggregator.dto.ContactQueryParams;
 import com.kenect.api_aggregator.dto.ExternalContactDto;
 import com.kenect.api_aggregator.dto.ExternalContactResponse;
+import com.kenect.api_aggregator.dto.PaginatedResponse;
 import com.kenect.api_aggregator.dto.PaginationMetadata;
+import com.kenect.api_aggregator.exception.DeadlineExceededException;
 import com.kenect.api_aggregator.mapper.ContactMapper;
 import com.kenect.api_aggregator.model.Contact;
 import com.kenect.api_aggregator.model.ContactSource;
+import com.kenect.api_aggregator.resilience.Deadline;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.cache.CacheManager;
 
+import java.time.Duration;
 import java.time.Instant;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.IntStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
-@SpringBootTest
+@SpringBootTest(properties = "cache.max-memory=10KB")
 class ContactServiceCacheTest {
 
     @Autowired
@@ -30,12 +49,23 @@ class ContactServiceCacheTest {
     @Autowired
     private CacheManager cacheManager;
 
+    @Autowired
+    private CacheMemoryBudget memoryBudget;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @MockBean
     private KenectLabsApiClient apiClient;
 
     @MockBean
     private ContactMapper contactMapper;
 
+    @BeforeEach
+    void setUp() {
+        contactService.evictContactsCache();
+    }
+
     @Test
     void getAllContacts_ShouldCacheResults() {
         Instant now = Instant.now();
@@ -71,9 +101,9 @@ class ContactServiceCacheTest {
         when(apiClient.fetchContactsPage(1)).thenReturn(response);
         when(contactMapper.toContact(eq(externalContactDto), any(ContactSource.class))).thenReturn(contact);
 
-        List<Contact> firstCall = contactService.getAllContacts(null);
-        List<Contact> secondCall = contactService.getAllContacts(null);
-        List<Contact> thirdCall = contactService.getAllContacts(null);
+        List<Contact> firstCall = contactService.getAllContacts(null).data();
+        List<Contact> secondCall = contactService.getAllContacts(null).data();
+        List<Contact> thirdCall = contactService.getAllContacts(null).data();
 
         assertNotNull(firstCall);
         assertNotNull(secondCall);
@@ -86,6 +116,26 @@ class ContactServiceCacheTest {
         verify(contactMapper, times(1)).toContact(any(), any());
     }
 
+    @Test
+    void getAllContacts_ShouldKeepServingFromCache_WhenSnapshotExceedsMemoryBudget() {
+        List<ExternalContactDto> dtos = IntStream.rangeClosed(1, 50)
+                .mapToObj(id -> ExternalContactDto.builder().id((long) id).name("Contact " + id).email(id + "@example.com").build())
+                .toList();
+        when(apiClient.fetchContactsPage(1)).thenReturn(ExternalContactResponse.builder()
+                .contacts(dtos)
+                .pagination(PaginationMetadata.builder().currentPage(1).totalPages(1).totalCount(dtos.size()).build())
+                .build());
+        when(contactMapper.toContact(any(), any(ContactSource.class)))
+                .thenAnswer(invocation -> new ContactMapper().toContact(invocation.getArgument(0), invocation.getArgument(1)));
+
+        List<Contact> first = contactService.getAllContacts(null).data();
+        assertTrue(RetainedSizeWeigher.estimate(first) > memoryBudget.snapshotBytes());
+        List<Contact> second = contactService.getAllContacts(null).data();
+
+        assertEquals(50, second.size());
+        verify(apiClient, times(1)).fetchContactsPage(1);
+    }
+
     @Test
     void evictContactsCache_ShouldClearCache() {
         Instant now = Instant.now();
@@ -132,9 +182,164 @@ class ContactServiceCacheTest {
         verify(apiClient, times(2)).fetchContactsPage(1);
     }
 
+    @Test
+    void getContactsPaginated_ShouldReuseResultForIdenticalQueriesOnSameSnapshot() {
+        stubSinglePage();
+        double hitsBefore = queryCacheGets("hit");
+
+        PaginatedResponse<Contact> first = contactService.getContactsPaginated(
+                ContactQueryParams.builder().page(1).size(20).build()).data();
+        PaginatedResponse<Contact> second = contactService.getContactsPaginated(ContactQueryParams.builder().build()).data();
+        PaginatedResponse<Contact> otherSize = contactService.getContactsPaginated(
+                ContactQueryParams.builder().page(1).size(10).build()).data();
+
+        assertSame(first, second);
+        assertSame(first.getContent(), List.copyOf(first.getContent()));
+        assertNotSame(first, otherSize);
+        assertEquals(hitsBefore + 1, queryCacheGets("hit"));
+
+        contactService.evictContactsCache();
+        PaginatedResponse<Contact> afterRefresh = contactService.getContactsPaginated(
+                ContactQueryParams.builder().page(1).size(20).build()).data();
+
+        assertNotSame(first, afterRefresh);
+        assertEquals(1, afterRefresh.getContent().size());
+    }
+
+    @Test
+    void getContactsPaginated_ShouldCollapseConcurrentIdenticalQueries() throws Exception {
+        stubSinglePage();
+        contactService.getAllContacts(null);
+        ContactQueryParams params = ContactQueryParams.builder().page(1).size(5).source(ContactSource.KENECT_LABS).build();
+
+        List<Callable<PaginatedResponse<Contact>>> callers = Collections.nCopies(16,
+                () -> contactService.getContactsPaginated(params).data());
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        try {
+            List<Future<PaginatedResponse<Contact>>> results = executor.invokeAll(callers);
+            PaginatedResponse<Contact> shared = results.get(0).get();
+            for (Future<PaginatedResponse<Contact>> result : results) {
+                assertSame(shared, result.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void getAllContacts_ShouldKeepSharedCacheFillRunningWhenCallerDeadlinePasses() {
+        ExternalContactResponse page = stubSinglePage();
+        when(apiClient.fetchContactsPage(1)).thenAnswer(invocation -> {
+            Thread.sleep(500);
+            return page;
+        });
+
+        Deadline.set(Deadline.after(Duration.ofMillis(50)));
+        try {
+            assertThrows(DeadlineExceededException.class, () -> contactService.getAllContacts(null));
+        } finally {
+            Deadline.clear();
+        }
+
+        assertEquals(1, contactService.getAllContacts(null).data().size());
+        verify(apiClient, times(1)).fetchContactsPage(1);
+    }
+
+    @Test
+    void getAllContacts_ShouldFillCacheUnderItsOwnDeadline() {
+        ExternalContactResponse page = stubSinglePage();
+        AtomicReference<Deadline> seenByFill = new AtomicReference<>();
+        when(apiClient.fetchContactsPage(1)).thenAnswer(invocation -> {
+            seenByFill.set(Deadline.current());
+            return page;
+        });
+
+        Deadline deadline = Deadline.after(Duration.ofSeconds(5));
+        Deadline.set(deadline);
+        try {
+            contactService.getAllContacts(null);
+        } finally {
+            Deadline.clear();
+        }
+
+        assertNotNull(seenByFill.get());
+        assertNotSame(deadline, seenByFill.get());
+    }
+
+    @Test
+    void getAllContacts_ShouldServeLongDeadlineCaller_WhenShortDeadlineCallerSharesTheFill() throws Exception {
+        ExternalContactResponse page = stubSinglePage();
+        CountDownLatch fillStarted = new CountDownLatch(1);
+        when(apiClient.fetchContactsPage(1)).thenAnswer(invocation -> {
+            fillStarted.countDown();
+            Thread.sleep(300);
+            Deadline deadline = Deadline.current();
+            if (deadline != null && deadline.isExpired()) {
+                throw deadline.exceeded("fetching contacts page 1");
+            }
+            return page;
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<List<Contact>> shortCaller = executor.submit(() -> callWithDeadline(Duration.ofMillis(100)));
+            assertTrue(fillStarted.await(5, TimeUnit.SECONDS));
+            Future<List<Contact>> longCaller = executor.submit(() -> callWithDeadline(Duration.ofSeconds(5)));
+
+            ExecutionException ex = assertThrows(ExecutionException.class, shortCaller::get);
+            assertInstanceOf(DeadlineExceededException.class, ex.getCause());
+            assertEquals(1, longCaller.get().size());
+        } finally {
+            executor.shutdownNow();
+        }
+        verify(apiClient, times(1)).fetchContactsPage(1);
+    }
+
     @Test
     void cacheManager_ShouldBeConfigured() {
         assertNotNull(cacheManager);
         assertNotNull(cacheManager.getCache("contacts"));
+        assertNotNull(cacheManager.getCache("contactQueries"));
+    }
+
+    private List<Contact> callWithDeadline(Duration timeout) {
+        Deadline.set(Deadline.after(timeout));
+        try {
+            return contactService.getAllContacts(null).data();
+        } finally {
+            Deadline.clear();
+        }
+    }
+
+    private ExternalContactResponse stubSinglePage() {
+        Instant now = Instant.now();
+        ExternalContactDto externalContactDto = ExternalContactDto.builder()
+                .id(1L)
+                .name("John Doe")
+                .email("john@example.com")
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
+        Contact contact = Contact.builder()
+                .id(1L)
+                .name("John Doe")
+                .email("john@example.com")
+                .source("KENECT_LABS")
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
+
+        ExternalContactResponse response = ExternalContactResponse.builder()
+                .contacts(List.of(externalContactDto))
+                .pagination(PaginationMetadata.builder().currentPage(1).totalPages(1).totalCount(1).build())
+                .build();
+        when(apiClient.fetchContactsPage(1)).thenReturn(response);
+        when(contactMapper.toContact(eq(externalContactDto), any(ContactSource.class))).thenReturn(contact);
+        return response;
+    }
+
+    private double queryCacheGets(String result) {
+        return meterRegistry.get("cache.gets").tag("cache", "contactQueries").tag("result", result)
+                .functionCounter().count();
     }
 }
@@ -1,23 +1,39 @@
 package com.kenect.api_aggregator.service;
 
 import com.kenect.api_aggregator.client.KenectLabsApiClient;
+import com.kenect.api_aggregator.config.CacheConfig;
+import com.kenect.api_aggregator.config.CacheMemoryBudget;
 import com.kenect.api_aggregator.dto.ContactQueryParams;
 import com.kenect.api_aggregator.dto.ExternalContactDto;
 import com.kenect.api_aggregator.dto.ExternalContactResponse;
 import com.kenect.api_aggregator.dto.PaginatedResponse;
 import com.kenect.api_aggregator.dto.PaginationMetadata;
+import com.kenect.api_aggregator.exception.CircuitBreakerOpenException;
+import com.kenect.api_aggregator.exception.DeadlineExceededException;
+import com.kenect.api_aggregator.exception.ExternalApiException;
+import com.kenect.api_aggregator.exception.UpstreamBackoffException;
 import com.kenect.api_aggregator.mapper.ContactMapper;
 import com.kenect.api_aggregator.model.Contact;
 import com.kenect.api_aggregator.model.ContactSource;
+import com.kenect.api_aggregator.resilience.CallPriority;
+import com.kenect.api_aggregator.resilience.Deadline;
+import com.kenect.api_aggregator.resilience.FailureBackoff;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.task.SimpleAsyncTaskExecutorBuilder;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.util.unit.DataSize;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -34,7 +50,6 @@ class ContactServiceTest {
     @Mock
     private ContactMapper contactMapper;
 
-    @InjectMocks
     private ContactService contactService;
 
     private ExternalContactDto externalContactDto1;
@@ -44,6 +59,10 @@ class ContactServiceTest {
 
     @BeforeEach
     void setUp() {
+        contactService = new ContactService(apiClient, contactMapper, null, null, null,
+                new ContactSnapshotHolder(false, Duration.ZERO, CacheMemoryBudget.of(DataSize.ofMegabytes(64))), new SimpleAsyncTaskExecutor(), new SimpleAsyncTaskExecutorBuilder(), 4, Duration.ofMinutes(1), 1,
+                event -> { }, false, Duration.ZERO, 0);
+
         Instant now = Instant.now();
 
         externalContactDto1 = ExternalContactDto.builder()
@@ -98,7 +117,7 @@ class ContactServiceTest {
         when(contactMapper.toContact(eq(externalContactDto1), any())).thenReturn(contact1);
         when(contactMapper.toContact(eq(externalContactDto2), any())).thenReturn(contact2);
 
-        List<Contact> result = contactService.getAllContacts(null);
+        List<Contact> result = contactService.getAllContacts(null).data();
 
         assertNotNull(result);
         assertEquals(2, result.size());
@@ -125,7 +144,7 @@ class ContactServiceTest {
         when(contactMapper.toContact(eq(externalContactDto1), any())).thenReturn(contact1);
         when(contactMapper.toContact(eq(externalContactDto2), any())).thenReturn(contact2);
 
-        List<Contact> result = contactService.getAllContacts(ContactSource.KENECT_LABS);
+        List<Contact> result = contactService.getAllContacts(ContactSource.KENECT_LABS).data();
 
         assertNotNull(result);
         assertEquals(2, result.size());
@@ -161,7 +180,7 @@ class ContactServiceTest {
         when(contactMapper.toContact(eq(externalContactDto1), any())).thenReturn(contact1);
         when(contactMapper.toContact(eq(externalContactDto2), any())).thenReturn(contact2);
 
-        List<Contact> result = contactService.getAllContacts(null);
+        List<Contact> result = contactService.getAllContacts(null).data();
 
         assertNotNull(result);
         assertEquals(2, result.size());
@@ -185,7 +204,7 @@ class ContactServiceTest {
 
         when(apiClient.fetchContactsPage(1)).thenReturn(response);
 
-        List<Contact> result = contactService.getAllContacts(null);
+        List<Contact> result = contactService.getAllContacts(null).data();
 
         assertNotNull(result);
         assertTrue(result.isEmpty());
@@ -214,7 +233,7 @@ class ContactServiceTest {
                 .size(20)
                 .build();
 
-        PaginatedResponse<Contact> result = contactService.getContactsPaginated(params);
+        PaginatedResponse<Contact> result = contactService.getContactsPaginated(params).data();
 
         assertNotNull(result);
         assertEquals(1, result.getPage());
@@ -247,7 +266,7 @@ class ContactServiceTest {
                 .source(ContactSource.KENECT_LABS)
                 .build();
 
-        PaginatedResponse<Contact> result = contactService.getContactsPaginated(params);
+        PaginatedResponse<Contact> result = contactService.getContactsPaginated(params).data();
 
         assertNotNull(result);
         assertEquals(2, result.getContent().size());
@@ -271,10 +290,252 @@ class ContactServiceTest {
 
         ContactQueryParams params = ContactQueryParams.builder().build();
 
-        PaginatedResponse<Contact> result = contactService.getContactsPaginated(params);
+        PaginatedResponse<Contact> result = contactService.getContactsPaginated(params).data();
 
         assertNotNull(result);
         assertEquals(1, result.getPage());
         assertEquals(20, result.getSize());
     }
+
+    @Test
+    void getAllContacts_ShouldServeLastKnownGoodSnapshot_WhenCircuitIsOpen() {
+        PaginationMetadata pagination = PaginationMetadata.builder()
+                .currentPage(1)
+                .totalPages(1)
+                .totalCount(2)
+                .build();
+
+        ExternalContactResponse response = ExternalContactResponse.builder()
+                .contacts(List.of(externalContactDto1, externalContactDto2))
+                .pagination(pagination)
+                .build();
+
+        when(apiClient.fetchContactsPage(1))
+                .thenReturn(response)
+                .thenThrow(new CircuitBreakerOpenException("open", Duration.ofSeconds(30)))
+                .thenReturn(response);
+        when(contactMapper.toContact(eq(externalContactDto1), any())).thenReturn(contact1);
+        when(contactMapper.toContact(eq(externalContactDto2), any())).thenReturn(contact2);
+
+        ContactsResult<List<Contact>> fresh = contactService.getAllContacts(null);
+        assertTrue(fresh.staleSince().isEmpty());
+
+        ContactsResult<List<Contact>> stale = contactService.getAllContacts(null);
+        ContactsResult<List<Contact>> recovered = contactService.getAllContacts(null);
+
+        assertEquals(fresh.data(), stale.data());
+        assertTrue(stale.staleSince().isPresent());
+        assertTrue(recovered.staleSince().isEmpty());
+        assertTrue(stale.staleSince().isPresent(), "A later fresh response must not clear an earlier stale one");
+    }
+
+    @Test
+    void getAllContacts_ShouldServeFreshSnapshotWithoutRefetching() {
+        contactService = new ContactService(apiClient, contactMapper, null, null, null,
+                new ContactSnapshotHolder(true, Duration.ofMinutes(5), CacheMemoryBudget.of(DataSize.ofMegabytes(64))), new SimpleAsyncTaskExecutor(), new SimpleAsyncTaskExecutorBuilder(), 4, Duration.ofMinutes(1), 1,
+                event -> { }, false, Duration.ZERO, 0);
+        PaginationMetadata pagination = PaginationMetadata.builder()
+                .currentPage(1)
+                .totalPages(1)
+                .totalCount(2)
+                .build();
+
+        ExternalContactResponse response = ExternalContactResponse.builder()
+                .contacts(List.of(externalContactDto1, externalContactDto2))
+                .pagination(pagination)
+                .build();
+
+        when(apiClient.fetchContactsPage(1)).thenReturn(response);
+        when(contactMapper.toContact(eq(externalContactDto1), any())).thenReturn(contact1);
+        when(contactMapper.toContact(eq(externalContactDto2), any())).thenReturn(contact2);
+
+        List<Contact> first = contactService.getAllContacts(null).data();
+        List<Contact> second = contactService.getAllContacts(null).data();
+        List<Contact> filtered = contactService.getAllContacts(ContactSource.KENECT_LABS).data();
+
+        assertSame(first, second);
+        assertEquals(2, filtered.size());
+        verify(apiClient, times(1)).fetchContactsPage(1);
+
+        contactService.evictContactsCache();
+        contactService.getAllContacts(null);
+
+        verify(apiClient, times(2)).fetchContactsPage(1);
+    }
+
+    @Test
+    void getAllContacts_ShouldFailFast_WhenCircuitIsOpenAndNoSnapshotExists() {
+        when(apiClient.fetchContactsPage(1))
+                .thenThrow(new CircuitBreakerOpenException("open", Duration.ofSeconds(30)));
+
+        assertThrows(CircuitBreakerOpenException.class, () -> contactService.getAllContacts(null));
+        verify(contactMapper, never()).toContact(any(), any());
+    }
+
+    @Test
+    void getAllContacts_ShouldKeepPageOrder_WhenPagesAreFetchedInParallel() {
+        Contact[] contacts = new Contact[5];
+        for (int page = 1; page <= 5; page++) {
+            ExternalContactDto dto = ExternalContactDto.builder().id((long) page).name("Contact " + page).build();
+            contacts[page - 1] = Contact.builder().id((long) page).name("Contact " + page).build();
+            ExternalContactResponse response = ExternalContactResponse.builder()
+                    .contacts(List.of(dto))
+                    .pagination(PaginationMetadata.builder().currentPage(page).totalPages(5).build())
+                    .build();
+            when(apiClient.fetchContactsPage(page)).thenReturn(response);
+            when(contactMapper.toContact(eq(dto), any())).thenReturn(contacts[page - 1]);
+        }
+
+        List<Contact> result = contactService.getAllContacts(null).data();
+
+        assertEquals(List.of(contacts), result);
+    }
+
+    @Test
+    void getAllContacts_ShouldPropagateFailure_WhenAnyParallelPageFails() {
+        ExternalContactResponse page1Response = ExternalContactResponse.builder()
+                .contacts(List.of())
+                .pagination(PaginationMetadata.builder().currentPage(1).totalPages(4).build())
+                .build();
+        ExternalContactResponse emptyPage = ExternalContactResponse.builder().contacts(List.of()).build();
+
+        when(apiClient.fetchContactsPage(1)).thenReturn(page1Response);
+        lenient().when(apiClient.fetchContactsPage(2)).thenReturn(emptyPage);
+        when(apiClient.fetchContactsPage(3)).thenThrow(new ExternalApiException("page 3 failed"));
+        lenient().when(apiClient.fetchContactsPage(4)).thenReturn(emptyPage);
+
+        ExternalApiException ex = assertThrows(ExternalApiException.class, () -> contactService.getAllContacts(null));
+        assertEquals("page 3 failed", ex.getMessage());
+    }
+
+    @Test
+    void getAllContacts_ShouldCancelParallelPagesWhenDeadlinePasses() throws InterruptedException {
+        ExternalContactResponse page1Response = ExternalContactResponse.builder()
+                .contacts(List.of())
+                .pagination(PaginationMetadata.builder().currentPage(1).totalPages(3).build())
+                .build();
+        CountDownLatch interrupted = new CountDownLatch(1);
+
+        when(apiClient.fetchContactsPage(anyInt())).thenAnswer(invocation -> {
+            if (invocation.getArgument(0, Integer.class) == 1) {
+                return page1Response;
+            }
+            try {
+                Thread.sleep(5000);
+            } catch (InterruptedException ex) {
+                interrupted.countDown();
+                throw ex;
+            }
+            return ExternalContactResponse.builder().contacts(List.of()).build();
+        });
+
+        Deadline.set(Deadline.after(Duration.ofMillis(200)));
+        long startTime = System.currentTimeMillis();
+        try {
+            assertThrows(DeadlineExceededException.class, () -> contactService.getAllContacts(null));
+        } finally {
+            Deadline.clear();
+        }
+
+        assertTrue(System.currentTimeMillis() - startTime < 2000);
+        assertTrue(interrupted.await(2, TimeUnit.SECONDS), "Expected in-flight page fetches to be cancelled");
+    }
+
+    @Test
+    void getAllContacts_ShouldFillFailedPagesAndRepairInBackground_WhenPartialResultsEnabled() throws InterruptedException {
+        List<ContactSnapshot> published = new CopyOnWriteArrayList<>();
+        CountDownLatch repaired = new CountDownLatch(3);
+        contactService = new ContactService(apiClient, contactMapper, null, null, null,
+                new ContactSnapshotHolder(false, Duration.ZERO, CacheMemoryBudget.of(DataSize.ofMegabytes(64))), new SimpleAsyncTaskExecutor(), new SimpleAsyncTaskExecutorBuilder(), 4, Duration.ofMinutes(1), 1,
+                event -> {
+                    published.add(((ContactSnapshotEvent) event).snapshot());
+                    repaired.countDown();
+                }, true, Duration.ofMillis(50), 3);
+
+        ExternalContactResponse[] responses = new ExternalContactResponse[5];
+        Contact[] contacts = new Contact[5];
+        for (int page = 1; page <= 4; page++) {
+            ExternalContactDto dto = ExternalContactDto.builder().id((long) page).name("Contact " + page).build();
+            contacts[page] = Contact.builder().id((long) page).name("Contact " + page).build();
+            responses[page] = ExternalContactResponse.builder()
+                    .contacts(List.of(dto))
+                    .pagination(PaginationMetadata.builder().currentPage(page).totalPages(page == 1 ? 3 : 4).build())
+                    .build();
+            when(contactMapper.toContact(eq(dto), any())).thenReturn(contacts[page]);
+        }
+        ExternalContactResponse grownFirstPage = ExternalContactResponse.builder()
+                .contacts(responses[1].getContacts())
+                .pagination(PaginationMetadata.builder().currentPage(1).totalPages(4).build())
+                .build();
+
+        when(apiClient.fetchContactsPage(1)).thenReturn(responses[1], grownFirstPage);
+        when(apiClient.fetchContactsPage(2)).thenReturn(responses[2]);
+        when(apiClient.fetchContactsPage(3)).thenReturn(responses[3]).thenThrow(new ExternalApiException("page 3 failed"));
+        when(apiClient.fetchContactsPage(4)).thenThrow(new ExternalApiException("page 4 failed"));
+        when(apiClient.fetchContactsPage(3, CallPriority.BACKGROUND)).thenReturn(responses[3]);
+        when(apiClient.fetchContactsPage(4, CallPriority.BACKGROUND)).thenReturn(responses[4]);
+
+        ContactsResult<List<Contact>> complete = contactService.getAllContacts(null);
+        assertTrue(complete.partial().isEmpty());
+
+        ContactsResult<List<Contact>> partial = contactService.getAllContacts(null);
+
+        assertEquals(List.of(contacts[1], contacts[2], contacts[3]), partial.data());
+        assertTrue(complete.partial().isEmpty(), "A later partial crawl must not change an earlier result");
+        PageLayout layout = partial.partial().orElseThrow();
+        assertEquals(List.of(4), List.copyOf(layout.missingPages()));
+        assertEquals(List.of(3), List.copyOf(layout.stalePages()));
+
+        assertTrue(repaired.await(5, TimeUnit.SECONDS), "Expected the gaps to be repaired in the background");
+        ContactSnapshot snapshot = published.get(2);
+        assertEquals(List.of(contacts[1], contacts[2], contacts[3], contacts[4]), snapshot.contacts());
+        assertFalse(snapshot.layout().isPartial());
+    }
+
+    @Test
+    void getAllContacts_ShouldNotStarveCrawlPool_WhenCacheFillWaitsForPageWorkers() {
+        ThreadPoolTaskExecutor crawlExecutor = new ThreadPoolTaskExecutor();
+        crawlExecutor.setCorePoolSize(1);
+        crawlExecutor.setMaxPoolSize(1);
+        crawlExecutor.initialize();
+        contactService = new ContactService(apiClient, contactMapper,
+                new CacheConfig().cacheManager(Duration.ofMinutes(5), CacheMemoryBudget.of(DataSize.ofMegabytes(64))), null, null,
+                new ContactSnapshotHolder(false, Duration.ZERO, CacheMemoryBudget.of(DataSize.ofMegabytes(64))), crawlExecutor, new SimpleAsyncTaskExecutorBuilder(), 4, Duration.ofMinutes(1), 1,
+                event -> { }, false, Duration.ZERO, 0);
+        for (int page = 1; page <= 3; page++) {
+            when(apiClient.fetchContactsPage(page)).thenReturn(ExternalContactResponse.builder()
+                    .contacts(List.of(externalContactDto1))
+                    .pagination(PaginationMetadata.builder().currentPage(page).totalPages(3).build())
+                    .build());
+        }
+        when(contactMapper.toContact(any(), any())).thenReturn(contact1);
+
+        Deadline.set(Deadline.after(Duration.ofSeconds(5)));
+        try {
+            assertEquals(3, contactService.getAllContacts(null).data().size());
+        } finally {
+            Deadline.clear();
+            crawlExecutor.shutdown();
+        }
+    }
+
+    @Test
+    void getAllContacts_ShouldFailFastWhileBackingOffAfterUpstreamFailure() {
+        FailureBackoff failureBackoff = FailureBackoff.builder()
+                .name("test")
+                .initialDelay(Duration.ofMinutes(1))
+                .maxDelay(Duration.ofMinutes(1))
+                .multiplier(2)
+                .build();
+        contactService = new ContactService(apiClient, contactMapper, null, null, failureBackoff,
+                new ContactSnapshotHolder(false, Duration.ZERO, CacheMemoryBudget.of(DataSize.ofMegabytes(64))), new SimpleAsyncTaskExecutor(), new SimpleAsyncTaskExecutorBuilder(), 4, Duration.ofMinutes(1), 1,
+                event -> { }, false, Duration.ZERO, 0);
+        when(apiClient.fetchContactsPage(1)).thenThrow(new ExternalApiException("upstream down"));
+
+        assertThrows(ExternalApiException.class, () -> contactService.getAllContacts(null));
+        UpstreamBackoffException ex = assertThrows(UpstreamBackoffException.class, () -> contactService.getAllContacts(null));
+
+        assertTrue(ex.getRetryAfter().compareTo(Duration.ZERO) > 0);
+        verify(apiClient, times(1)).fetchContactsPage(1);
+    }
 }
@@ -0,0 +1,149 @@
+package com.kenect.api_aggregator.service;
+
+import com.kenect.api_aggregator.model.Contact;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContactSnapshotHolderTest {
+
+    private final MutableClock clock = new MutableClock();
+    private ContactSnapshotHolder holder;
+
+    @BeforeEach
+    void setUp() {
+        holder = new ContactSnapshotHolder(Duration.ofMinutes(5), DataSize.ofMegabytes(64), clock);
+    }
+
+    @Test
+    void publish_ShouldAssignIncreasingVersions() {
+        ContactSnapshot first = holder.publish(List.of(contact(1L, "KENECT_LABS")));
+        ContactSnapshot second = holder.publish(List.of(contact(2L, "KENECT_LABS")));
+
+        assertTrue(second.version() > first.version());
+        assertSame(second, holder.fresh());
+        assertSame(second, holder.latest());
+    }
+
+    @Test
+    void publish_ShouldBuildRegisteredIndexesOncePerVersion() {
+        AtomicInteger builds = new AtomicInteger();
+        SnapshotIndex<Integer> countIndex = contacts -> {
+            builds.incrementAndGet();
+            return contacts.size();
+        };
+        holder.register(countIndex);
+        holder.register(countIndex);
+
+        ContactSnapshot snapshot = holder.publish(List.of(contact(1L, "A"), contact(2L, "B")));
+
+        assertEquals(1, builds.get());
+        assertEquals(2, snapshot.index(countIndex));
+        assertEquals(2, holder.fresh().index(countIndex));
+        assertEquals(1, builds.get());
+    }
+
+    @Test
+    void publish_ShouldPartitionBySource() {
+        ContactsBySourceIndex bySource = new ContactsBySourceIndex();
+        holder.register(bySource);
+        List<Contact> contacts = new ArrayList<>();
+        for (long id = 1; id <= 40; id++) {
+            contacts.add(contact(id, id % 4 == 0 ? "OTHER" : "KENECT_LABS"));
+        }
+
+        Map<String, List<Contact>> partitions = holder.publish(contacts).index(bySource);
+
+        assertEquals(30, partitions.get("KENECT_LABS").size());
+        assertEquals(10, partitions.get("OTHER").size());
+        assertEquals(8L, partitions.get("OTHER").get(1).getId());
+    }
+
+    @Test
+    void publish_ShouldKeepSnapshotAboveMemoryBudget() {
+        holder = new ContactSnapshotHolder(Duration.ofMinutes(5), DataSize.ofBytes(1), clock);
+
+        ContactSnapshot snapshot = holder.publish(List.of(contact(1L, "KENECT_LABS"), contact(2L, "OTHER")));
+
+        assertSame(snapshot, holder.fresh());
+        assertSame(snapshot, holder.latest());
+    }
+
+    @Test
+    void index_ShouldFail_WhenIndexNotRegistered() {
+        ContactSnapshot snapshot = holder.publish(List.of());
+
+        assertThrows(IllegalStateException.class, () -> snapshot.index(List::size));
+    }
+
+    @Test
+    void fresh_ShouldExpireAfterMaxAgeButKeepLatest() {
+        ContactSnapshot snapshot = holder.publish(List.of(contact(1L, "KENECT_LABS")));
+
+        clock.advance(Duration.ofMinutes(5));
+
+        assertNull(holder.fresh());
+        assertSame(snapshot, holder.latest());
+    }
+
+    @Test
+    void invalidate_ShouldHideCurrentVersionUntilNextPublish() {
+        ContactSnapshot snapshot = holder.publish(List.of(contact(1L, "KENECT_LABS")));
+
+        holder.invalidate();
+
+        assertNull(holder.fresh());
+        assertSame(snapshot, holder.latest());
+        assertNotNull(holder.publish(List.of()));
+        assertNotNull(holder.fresh());
+    }
+
+    @Test
+    void contacts_ShouldBeReadOnly() {
+        List<Contact> contacts = new ArrayList<>(List.of(contact(1L, "KENECT_LABS")));
+
+        ContactSnapshot snapshot = holder.publish(contacts);
+
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.contacts().add(contact(2L, "A")));
+    }
+
+    private Contact contact(Long id, String source) {
+        return Contact.builder().id(id).name("Contact " + id).source(source).build();
+    }
+
+    private static class MutableClock extends Clock {
+
+        private Instant now = Instant.parse("2020-06-24T19:37:16.688Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
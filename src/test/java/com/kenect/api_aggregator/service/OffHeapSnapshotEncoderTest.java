@@ -0,0 +1,78 @@
+package com.kenect.api_aggregator.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kenect.api_aggregator.config.RetainedSizeWeigher;
+import com.kenect.api_aggregator.dto.PaginatedResponse;
+import com.kenect.api_aggregator.model.Contact;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OffHeapSnapshotEncoderTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @Test
+    void encode_ShouldRoundTripEveryContact() {
+        List<Contact> contacts = contacts(1_000);
+
+        List<Contact> snapshot = new OffHeapSnapshotEncoder(objectMapper, 16).encode(contacts);
+
+        assertInstanceOf(OffHeapContactList.class, snapshot);
+        assertEquals(contacts, snapshot);
+        assertEquals(contacts.get(999), snapshot.get(999));
+    }
+
+    @Test
+    void encode_ShouldServePagesWithoutDecodingWholeSnapshot() {
+        List<Contact> snapshot = new OffHeapSnapshotEncoder(objectMapper, 256).encode(contacts(100));
+
+        PaginatedResponse<Contact> page = PaginatedResponse.of(snapshot, 3, 10);
+
+        assertEquals(10, page.getContent().size());
+        assertEquals(21L, page.getContent().get(0).getId());
+        assertEquals(100, page.getTotalElements());
+    }
+
+    @Test
+    void writeJson_ShouldEmitRenderedFragment() throws IOException {
+        List<Contact> contacts = contacts(3);
+        OffHeapContactList snapshot = (OffHeapContactList) new OffHeapSnapshotEncoder(objectMapper, 256).encode(contacts);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        snapshot.writeJson(1, output);
+
+        assertEquals(objectMapper.writeValueAsString(contacts.get(1)), output.toString(StandardCharsets.UTF_8));
+        assertThrows(IndexOutOfBoundsException.class, () -> snapshot.get(3));
+    }
+
+    @Test
+    void weigher_ShouldOnlyCountHeapView() {
+        List<Contact> contacts = contacts(10_000);
+        List<Contact> snapshot = new OffHeapSnapshotEncoder(objectMapper, 256).encode(contacts);
+
+        assertTrue(RetainedSizeWeigher.estimate(snapshot) < 1024);
+        assertTrue(RetainedSizeWeigher.estimate(contacts) > 1_000_000);
+    }
+
+    private List<Contact> contacts(int count) {
+        Instant now = Instant.parse("2020-06-24T19:37:16.688Z");
+        return LongStream.rangeClosed(1, count)
+                .mapToObj(id -> Contact.builder()
+                        .id(id)
+                        .name("Contact " + id)
+                        .email("contact" + id + "@example.net")
+                        .source("KENECT_LABS")
+                        .createdAt(now)
+                        .updatedAt(now)
+                        .build())
+                .toList();
+    }
+}
@@ -0,0 +1,146 @@
+package com.kenect.api_aggregator.service;
+
+import com.kenect.api_aggregator.client.KenectLabsApiClient;
+import com.kenect.api_aggregator.dto.ContactQueryParams;
+import com.kenect.api_aggregator.dto.ExternalContactDto;
+import com.kenect.api_aggregator.dto.ExternalContactResponse;
+import com.kenect.api_aggregator.dto.PaginatedResponse;
+import com.kenect.api_aggregator.dto.PaginationMetadata;
+import com.kenect.api_aggregator.exception.CircuitBreakerOpenException;
+import com.kenect.api_aggregator.exception.ExternalApiException;
+import com.kenect.api_aggregator.exception.UpstreamBackoffException;
+import com.kenect.api_aggregator.mapper.ContactMapper;
+import com.kenect.api_aggregator.model.Contact;
+import com.kenect.api_aggregator.resilience.FailureBackoff;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReactiveContactServiceTest {
+
+    @Mock
+    private KenectLabsApiClient apiClient;
+
+    private ReactiveContactService contactService;
+
+    @BeforeEach
+    void setUp() {
+        contactService = new ReactiveContactService(apiClient, new ContactMapper(), null, null, null, 4);
+    }
+
+    @Test
+    void getAllContacts_ShouldKeepPageOrder_WhenLaterPagesAnswerFirst() {
+        stubPage(1, 3, Duration.ZERO);
+        stubPage(2, 3, Duration.ofMillis(100));
+        stubPage(3, 3, Duration.ZERO);
+
+        List<Contact> result = contactService.getAllContacts(null).block(Duration.ofSeconds(5)).data();
+
+        assertEquals(List.of(1L, 2L, 3L), result.stream().map(Contact::getId).toList());
+    }
+
+    @Test
+    void getContactsPaginated_ShouldSliceAllContacts() {
+        stubPage(1, 3, Duration.ZERO);
+        stubPage(2, 3, Duration.ZERO);
+        stubPage(3, 3, Duration.ZERO);
+
+        PaginatedResponse<Contact> result = contactService
+                .getContactsPaginated(ContactQueryParams.builder().page(2).size(2).build())
+                .block(Duration.ofSeconds(5))
+                .data();
+
+        assertEquals(1, result.getContent().size());
+        assertEquals(3L, result.getContent().get(0).getId());
+        assertEquals(3, result.getTotalElements());
+        assertTrue(result.isLast());
+    }
+
+    @Test
+    void getAllContacts_ShouldFail_WhenAnyPageFails() {
+        stubPage(1, 2, Duration.ZERO);
+        when(apiClient.fetchContactsPageAsync(2)).thenReturn(Mono.error(new ExternalApiException("page 2 failed")));
+
+        Mono<ContactsResult<List<Contact>>> result = contactService.getAllContacts(null);
+
+        ExternalApiException ex = assertThrows(ExternalApiException.class, () -> result.block(Duration.ofSeconds(5)));
+        assertEquals("page 2 failed", ex.getMessage());
+    }
+
+    @Test
+    void getAllContacts_ShouldServeLastKnownGoodSnapshot_WhenCircuitIsOpen() {
+        when(apiClient.fetchContactsPageAsync(1))
+                .thenReturn(page(1, 1))
+                .thenReturn(Mono.error(new CircuitBreakerOpenException("open", Duration.ofSeconds(30))))
+                .thenReturn(page(1, 1));
+
+        ContactsResult<List<Contact>> fresh = contactService.getAllContacts(null).block(Duration.ofSeconds(5));
+        assertTrue(fresh.staleSince().isEmpty());
+
+        ContactsResult<List<Contact>> stale = contactService.getAllContacts(null).block(Duration.ofSeconds(5));
+        ContactsResult<List<Contact>> recovered = contactService.getAllContacts(null).block(Duration.ofSeconds(5));
+
+        assertEquals(fresh.data(), stale.data());
+        assertTrue(recovered.staleSince().isEmpty());
+        assertTrue(stale.staleSince().isPresent(), "A later fresh response must not clear an earlier stale one");
+    }
+
+    @Test
+    void getAllContacts_ShouldServeLastKnownGoodSnapshot_WhileBackingOffAfterUpstreamFailure() {
+        contactService = new ReactiveContactService(apiClient, new ContactMapper(), null, null, failureBackoff(), 4);
+        when(apiClient.fetchContactsPageAsync(1))
+                .thenReturn(page(1, 1))
+                .thenReturn(Mono.error(new ExternalApiException("upstream down")));
+
+        ContactsResult<List<Contact>> fresh = contactService.getAllContacts(null).block(Duration.ofSeconds(5));
+        assertThrows(ExternalApiException.class, () -> contactService.getAllContacts(null).block(Duration.ofSeconds(5)));
+        ContactsResult<List<Contact>> stale = contactService.getAllContacts(null).block(Duration.ofSeconds(5));
+
+        assertEquals(fresh.data(), stale.data());
+        assertTrue(stale.staleSince().isPresent());
+        verify(apiClient, times(2)).fetchContactsPageAsync(1);
+    }
+
+    @Test
+    void getAllContacts_ShouldFailFastWhileBackingOff_WhenNoSnapshotExists() {
+        contactService = new ReactiveContactService(apiClient, new ContactMapper(), null, null, failureBackoff(), 4);
+        when(apiClient.fetchContactsPageAsync(1)).thenReturn(Mono.error(new ExternalApiException("upstream down")));
+
+        assertThrows(ExternalApiException.class, () -> contactService.getAllContacts(null).block(Duration.ofSeconds(5)));
+        UpstreamBackoffException ex = assertThrows(UpstreamBackoffException.class,
+                () -> contactService.getAllContacts(null).block(Duration.ofSeconds(5)));
+
+        assertTrue(ex.getRetryAfter().compareTo(Duration.ZERO) > 0);
+        verify(apiClient, times(1)).fetchContactsPageAsync(1);
+    }
+
+    private FailureBackoff failureBackoff() {
+        return FailureBackoff.builder()
+                .name("test")
+                .initialDelay(Duration.ofMinutes(1))
+                .maxDelay(Duration.ofMinutes(1))
+                .multiplier(2)
+                .build();
+    }
+
+    private void stubPage(int page, int totalPages, Duration delay) {
+        when(apiClient.fetchContactsPageAsync(page)).thenReturn(page(page, totalPages).delayElement(delay));
+    }
+
+    private Mono<ExternalContactResponse> page(int page, int totalPages) {
+        return Mono.just(ExternalContactResponse.builder()
+                .contacts(List.of(ExternalContactDto.builder().id((long) page).name("Contact " + page).build()))
+                .pagination(PaginationMetadata.builder().currentPage(page).totalPages(totalPages).build())
+                .build());
+    }
+}